@@ -0,0 +1,50 @@
+package com.ecommerce.cartservice.cleanup;
+
+import com.ecommerce.cartservice.repository.CartRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Deletes anonymous carts nobody has changed for longer than the session cookie lives, since
+ * their session can no longer reach them. Carts are deleted in small chunks, each in its own
+ * short transaction that skips carts locked by a concurrent change, so the sweep never holds
+ * locks for long or blocks cart requests.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AnonymousCartSweeper {
+
+    @Value("${cart.anonymous.retention}")
+    private Duration retention;
+
+    @Value("${cart.anonymous.sweep-batch-size}")
+    private int batchSize;
+
+    private final CartRepository cartRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    @Scheduled(fixedDelayString = "${cart.anonymous.sweep-interval}")
+    public void deleteStaleAnonymousCarts() {
+        Instant cutoff = Instant.now().minus(retention);
+        long deleted = 0;
+        int chunk;
+
+        do {
+            chunk = transactionTemplate.execute(status -> cartRepository.deleteStaleAnonymousCarts(cutoff, batchSize));
+            deleted += chunk;
+        } while (chunk == batchSize);
+
+        if (deleted > 0) {
+            log.info("Deleted {} anonymous carts inactive since {}", deleted, cutoff);
+        }
+    }
+}
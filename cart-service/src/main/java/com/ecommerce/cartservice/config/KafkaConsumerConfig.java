@@ -0,0 +1,84 @@
+package com.ecommerce.cartservice.config;
+
+import com.ecommerce.cartservice.kafka.event.ProductSnapshotEvent;
+import com.ecommerce.cartservice.kafka.event.StockChangedEvent;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Both snapshot topics are consumed by batch containers with large polls so the replay on
+ * startup is fast. The idle event marks the end of a replay that delivered no records at all.
+ */
+@EnableKafka
+@Configuration
+public class KafkaConsumerConfig {
+
+    private static final int SNAPSHOT_MAX_POLL_RECORDS = 5000;
+
+    private static final long SNAPSHOT_IDLE_INTERVAL_MS = 5000;
+
+    @Value("${kafka.bootstrap-servers}")
+    private String bootstrapServers;
+
+    @Bean
+    public ConsumerFactory<String, ProductSnapshotEvent> productSnapshotsConsumerFactory() {
+        return snapshotConsumerFactory(ProductSnapshotEvent.class);
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, ProductSnapshotEvent> productSnapshotsListenerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, ProductSnapshotEvent> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(productSnapshotsConsumerFactory());
+        factory.setBatchListener(true);
+        factory.getContainerProperties().setIdleEventInterval(SNAPSHOT_IDLE_INTERVAL_MS);
+
+        return factory;
+    }
+
+    @Bean
+    public ConsumerFactory<String, StockChangedEvent> stockLevelsConsumerFactory() {
+        return snapshotConsumerFactory(StockChangedEvent.class);
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, StockChangedEvent> stockLevelsListenerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, StockChangedEvent> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(stockLevelsConsumerFactory());
+        factory.setBatchListener(true);
+        factory.getContainerProperties().setIdleEventInterval(SNAPSHOT_IDLE_INTERVAL_MS);
+
+        return factory;
+    }
+
+    private <T> ConsumerFactory<String, T> snapshotConsumerFactory(Class<T> eventType) {
+        JsonDeserializer<T> jsonDeserializer = new JsonDeserializer<>(eventType, false);
+        jsonDeserializer.addTrustedPackages("*");
+        jsonDeserializer.setRemoveTypeHeaders(true);
+
+        Map<String, Object> props = new HashMap<>();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, SNAPSHOT_MAX_POLL_RECORDS);
+
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class);
+
+        return new DefaultKafkaConsumerFactory<>(
+                props,
+                new StringDeserializer(),
+                new ErrorHandlingDeserializer<>(jsonDeserializer)
+        );
+    }
+}
@@ -65,6 +65,21 @@ public class CartController {
         return new ResponseEntity<>(HttpStatus.NO_CONTENT);
     }
 
+    @PostMapping("/merge")
+    public ResponseEntity<CartResponse> mergeAnonymousCart(
+            @RequestHeader("X-User-Id") Long userId,
+            @CookieValue(name = "sessionId", required = false) String sessionId,
+            HttpServletResponse response
+    ) {
+        if (sessionId != null && !sessionId.isBlank()) {
+            cartService.mergeAnonymousCart(userId, sessionId);
+
+            response.addHeader(HttpHeaders.SET_COOKIE, CookieUtil.deleteSessionCookie().toString());
+        }
+
+        return ResponseEntity.ok(cartService.getCart(userId, null));
+    }
+
     @GetMapping("/anonymous")
     public ResponseEntity<CartResponse> getAnonymousCart(
             @CookieValue(name = "sessionId", required = false) String sessionId,
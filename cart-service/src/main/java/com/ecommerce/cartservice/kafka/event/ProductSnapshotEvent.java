@@ -0,0 +1,27 @@
+package com.ecommerce.cartservice.kafka.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSnapshotEvent {
+
+    private Long productId;
+
+    private String name;
+
+    private String category;
+
+    private String description;
+
+    private BigDecimal price;
+
+    private String imageUrl;
+}
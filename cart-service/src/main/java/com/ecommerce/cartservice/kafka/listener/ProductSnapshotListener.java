@@ -0,0 +1,120 @@
+package com.ecommerce.cartservice.kafka.listener;
+
+import com.ecommerce.cartservice.kafka.event.ProductSnapshotEvent;
+import com.ecommerce.cartservice.kafka.event.StockChangedEvent;
+import com.ecommerce.cartservice.snapshot.ProductSnapshotStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.context.event.EventListener;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.event.ListenerContainerIdleEvent;
+import org.springframework.kafka.listener.AbstractConsumerSeekAware;
+import org.springframework.kafka.support.serializer.SerializationUtils;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the product snapshot store in sync with the compacted product-snapshots and stock-levels
+ * topics. Every instance uses its own consumer groups and replays both topics from the beginning
+ * when partitions are assigned, which loads the latest state of every product. Each topic marks
+ * its half of the store ready once the replay has caught up with the end of its partitions.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProductSnapshotListener extends AbstractConsumerSeekAware {
+
+    private final ProductSnapshotStore productSnapshotStore;
+
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        super.onPartitionsAssigned(assignments, callback);
+        callback.seekToBeginning(assignments.keySet());
+    }
+
+    @KafkaListener(
+            id = "productSnapshots",
+            idIsGroup = false,
+            topics = "product-snapshots",
+            groupId = "${spring.application.name}-${random.uuid}",
+            containerFactory = "productSnapshotsListenerFactory"
+    )
+    public void handleProductSnapshots(List<ConsumerRecord<String, ProductSnapshotEvent>> records, Consumer<?, ?> consumer) {
+        for (ConsumerRecord<String, ProductSnapshotEvent> record : records) {
+            if (record.value() != null) {
+                productSnapshotStore.updateProduct(record.value());
+            } else if (record.headers().lastHeader(SerializationUtils.VALUE_DESERIALIZER_EXCEPTION_HEADER) == null) {
+                productSnapshotStore.removeProduct(Long.parseLong(record.key()));
+            } else {
+                log.warn("Skipping unreadable product snapshot at {}-{}@{}", record.topic(), record.partition(), record.offset());
+            }
+        }
+
+        if (!productSnapshotStore.isReady() && isCaughtUp(consumer)) {
+            productSnapshotStore.markProductsReady();
+            logIfReady();
+        }
+    }
+
+    @KafkaListener(
+            id = "stockLevels",
+            idIsGroup = false,
+            topics = "stock-levels",
+            groupId = "${spring.application.name}-${random.uuid}",
+            containerFactory = "stockLevelsListenerFactory"
+    )
+    public void handleStockLevels(List<ConsumerRecord<String, StockChangedEvent>> records, Consumer<?, ?> consumer) {
+        for (ConsumerRecord<String, StockChangedEvent> record : records) {
+            if (record.value() == null) {
+                log.warn("Skipping unreadable stock level at {}-{}@{}", record.topic(), record.partition(), record.offset());
+                continue;
+            }
+
+            StockChangedEvent level = record.value();
+
+            productSnapshotStore.updateAvailableQuantity(
+                    level.getProductId(),
+                    level.getAvailableQuantity(),
+                    level.getVersion() == null ? 0 : level.getVersion()
+            );
+        }
+
+        if (!productSnapshotStore.isReady() && isCaughtUp(consumer)) {
+            productSnapshotStore.markStockLevelsReady();
+            logIfReady();
+        }
+    }
+
+    @EventListener(condition = "event.listenerId.startsWith('productSnapshots-') || event.listenerId.startsWith('stockLevels-')")
+    public void handleIdle(ListenerContainerIdleEvent event) {
+        if (productSnapshotStore.isReady() || event.getTopicPartitions() == null || event.getTopicPartitions().isEmpty()) {
+            return;
+        }
+
+        if (event.getListenerId().startsWith("productSnapshots-")) {
+            productSnapshotStore.markProductsReady();
+        } else {
+            productSnapshotStore.markStockLevelsReady();
+        }
+
+        logIfReady();
+    }
+
+    private boolean isCaughtUp(Consumer<?, ?> consumer) {
+        return consumer
+                .assignment()
+                .stream()
+                .allMatch(partition -> consumer.currentLag(partition).orElse(-1) == 0);
+    }
+
+    private void logIfReady() {
+        if (productSnapshotStore.isReady()) {
+            log.info("Product snapshot store loaded with {} products", productSnapshotStore.size());
+        }
+    }
+}
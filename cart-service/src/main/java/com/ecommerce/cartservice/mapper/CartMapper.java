@@ -6,14 +6,13 @@ import com.ecommerce.cartservice.dto.CartResponse;
 import com.ecommerce.cartservice.dto.ProductResponse;
 import com.ecommerce.cartservice.model.Cart;
 import com.ecommerce.cartservice.model.CartItem;
+import org.mapstruct.Context;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.function.Function;
-import java.util.stream.Collectors;
 
 @Mapper(componentModel = "spring")
 public interface CartMapper {
@@ -21,20 +20,16 @@ public interface CartMapper {
     @Mapping(target = "id", source = "cart.id")
     @Mapping(target = "userId", source = "cart.userId")
     @Mapping(target = "items", expression = "java(mapCartItems(cart.getItems(), productsByIds))")
-    CartResponse cartToCartResponse(Cart cart, List<ProductResponse> productsByIds);
+    CartResponse cartToCartResponse(Cart cart, @Context Map<Long, ProductResponse> productsByIds);
 
-    default List<CartItemResponse> mapCartItems(List<CartItem> cartItems, List<ProductResponse> productsByIds) {
+    default List<CartItemResponse> mapCartItems(List<CartItem> cartItems, Map<Long, ProductResponse> productsByIds) {
         if (cartItems == null || cartItems.isEmpty()) {
             return Collections.emptyList();
         }
 
-        Map<Long, ProductResponse> productMap = productsByIds
-                .stream()
-                .collect(Collectors.toMap(ProductResponse::id, Function.identity()));
-
         return cartItems
                 .stream()
-                .map(cartItem -> cartItemToCartItemResponse(cartItem, productMap.get(cartItem.getProductId())))
+                .map(cartItem -> cartItemToCartItemResponse(cartItem, productsByIds.get(cartItem.getProductId())))
                 .toList();
     }
 
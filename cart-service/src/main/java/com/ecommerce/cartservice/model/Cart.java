@@ -2,14 +2,16 @@ package com.ecommerce.cartservice.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 
 import static jakarta.persistence.CascadeType.ALL;
 import static jakarta.persistence.FetchType.LAZY;
 
-@Table
+@Table(indexes = @Index(name = "idx_cart_user_id_last_activity_at", columnList = "user_id, last_activity_at"))
 @Entity
 @Getter
 @Setter
@@ -19,7 +21,8 @@ import static jakarta.persistence.FetchType.LAZY;
 public class Cart {
 
     @Id
-    @GeneratedValue
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cart_seq")
+    @SequenceGenerator(name = "cart_seq", sequenceName = "cart_seq", allocationSize = 50)
     private Long id;
 
     private Long userId;
@@ -27,6 +30,10 @@ public class Cart {
     @Column(unique = true)
     private String sessionId;
 
+    @ColumnDefault("current_timestamp")
+    @Column(nullable = false)
+    private Instant lastActivityAt;
+
     @OneToMany(mappedBy = "cart", cascade = ALL, orphanRemoval = true, fetch = LAZY)
     private List<CartItem> items = new ArrayList<>();
 }
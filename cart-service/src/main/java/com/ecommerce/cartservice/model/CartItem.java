@@ -5,7 +5,7 @@ import lombok.*;
 
 import static jakarta.persistence.FetchType.LAZY;
 
-@Table
+@Table(indexes = @Index(name = "idx_cart_item_cart_id", columnList = "cart_id"))
 @Entity
 @Getter
 @Setter
@@ -15,7 +15,8 @@ import static jakarta.persistence.FetchType.LAZY;
 public class CartItem {
 
     @Id
-    @GeneratedValue
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cart_item_seq")
+    @SequenceGenerator(name = "cart_item_seq", sequenceName = "cart_item_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = LAZY)
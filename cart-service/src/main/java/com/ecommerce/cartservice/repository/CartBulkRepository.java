@@ -0,0 +1,32 @@
+package com.ecommerce.cartservice.repository;
+
+import com.ecommerce.cartservice.model.Cart;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface CartBulkRepository {
+
+    /**
+     * Inserts carts that are not stored yet and replaces the stored items of every cart with its
+     * current items, as three JDBC batches in cart ID order.
+     */
+    void upsertAll(List<Cart> carts);
+
+    long nextSequenceValue(String sequenceName);
+
+    /**
+     * Deletes up to {@code limit} anonymous carts inactive since before the cutoff, together with
+     * their items, in one statement. Carts locked by a concurrent change are skipped.
+     * Returns the number of deleted carts.
+     */
+    int deleteStaleAnonymousCarts(Instant cutoff, int limit);
+
+    /**
+     * Merges the anonymous cart of the session into the cart of the user with set-based
+     * statements: the session cart becomes the user cart when the user has none, otherwise
+     * quantities of shared products are added up, the remaining items are moved over and the
+     * session cart is deleted. Both carts are locked first, must run in a transaction.
+     */
+    void mergeSessionCart(String sessionId, Long userId, Instant now);
+}
@@ -0,0 +1,160 @@
+package com.ecommerce.cartservice.repository;
+
+import com.ecommerce.cartservice.model.Cart;
+import com.ecommerce.cartservice.model.CartItem;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+
+public class CartBulkRepositoryImpl implements CartBulkRepository {
+
+    private static final String INSERT_CART_SQL = """
+            insert into cart (id, user_id, session_id, last_activity_at)
+            values (?, ?, ?, ?)
+            on conflict (id) do update set last_activity_at = excluded.last_activity_at
+            """;
+
+    private static final String DELETE_ITEMS_SQL = "delete from cart_item where cart_id = ?";
+
+    private static final String INSERT_ITEM_SQL = "insert into cart_item (id, cart_id, product_id, quantity) values (?, ?, ?, ?)";
+
+    private static final String NEXT_SEQUENCE_VALUE_SQL = "select nextval(cast(? as regclass))";
+
+    private static final String DELETE_STALE_ANONYMOUS_CARTS_SQL = """
+            with stale as (
+                select id
+                from cart
+                where user_id is null and last_activity_at < ?
+                limit ?
+                for update skip locked
+            ), deleted_items as (
+                delete from cart_item where cart_id in (select id from stale)
+            )
+            delete from cart where id in (select id from stale)
+            """;
+
+    private static final String LOCK_MERGED_CARTS_SQL = """
+            select session_id is not null
+            from cart
+            where (session_id = ? and user_id is null) or user_id = ?
+            order by id
+            for update
+            """;
+
+    private static final String ASSIGN_SESSION_CART_SQL = """
+            update cart
+            set user_id = ?, session_id = null, last_activity_at = ?
+            where session_id = ? and user_id is null and not exists (select 1 from cart where user_id = ?)
+            """;
+
+    private static final String ADD_SHARED_QUANTITIES_SQL = """
+            update cart_item u
+            set quantity = u.quantity + s.quantity
+            from cart_item s, cart sc, cart uc
+            where sc.session_id = ? and s.cart_id = sc.id
+              and uc.user_id = ? and u.cart_id = uc.id
+              and u.product_id = s.product_id
+            """;
+
+    private static final String MOVE_REMAINING_ITEMS_SQL = """
+            update cart_item s
+            set cart_id = uc.id
+            from cart sc, cart uc
+            where sc.session_id = ? and s.cart_id = sc.id
+              and uc.user_id = ?
+              and not exists (select 1 from cart_item u where u.cart_id = uc.id and u.product_id = s.product_id)
+            """;
+
+    private static final String DELETE_SESSION_CART_ITEMS_SQL = "delete from cart_item where cart_id in (select id from cart where session_id = ?)";
+
+    private static final String DELETE_SESSION_CART_SQL = "delete from cart where session_id = ?";
+
+    private static final String TOUCH_USER_CART_SQL = "update cart set last_activity_at = ? where user_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CartBulkRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void upsertAll(List<Cart> carts) {
+        List<Cart> sortedCarts = carts
+                .stream()
+                .sorted(Comparator.comparing(Cart::getId))
+                .toList();
+
+        List<CartItem> items = sortedCarts
+                .stream()
+                .flatMap(cart -> cart.getItems().stream())
+                .toList();
+
+        jdbcTemplate.batchUpdate(
+                INSERT_CART_SQL,
+                sortedCarts,
+                sortedCarts.size(),
+                (statement, cart) -> {
+                    statement.setLong(1, cart.getId());
+                    statement.setObject(2, cart.getUserId(), Types.BIGINT);
+                    statement.setString(3, cart.getSessionId());
+                    statement.setTimestamp(4, Timestamp.from(cart.getLastActivityAt()));
+                }
+        );
+
+        jdbcTemplate.batchUpdate(
+                DELETE_ITEMS_SQL,
+                sortedCarts,
+                sortedCarts.size(),
+                (statement, cart) -> statement.setLong(1, cart.getId())
+        );
+
+        if (items.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.batchUpdate(
+                INSERT_ITEM_SQL,
+                items,
+                items.size(),
+                (statement, item) -> {
+                    statement.setLong(1, item.getId());
+                    statement.setLong(2, item.getCart().getId());
+                    statement.setLong(3, item.getProductId());
+                    statement.setInt(4, item.getQuantity());
+                }
+        );
+    }
+
+    @Override
+    public long nextSequenceValue(String sequenceName) {
+        return jdbcTemplate.queryForObject(NEXT_SEQUENCE_VALUE_SQL, Long.class, sequenceName);
+    }
+
+    @Override
+    public int deleteStaleAnonymousCarts(Instant cutoff, int limit) {
+        return jdbcTemplate.update(DELETE_STALE_ANONYMOUS_CARTS_SQL, Timestamp.from(cutoff), limit);
+    }
+
+    @Override
+    public void mergeSessionCart(String sessionId, Long userId, Instant now) {
+        List<Boolean> lockedCarts = jdbcTemplate.queryForList(LOCK_MERGED_CARTS_SQL, Boolean.class, sessionId, userId);
+
+        if (!lockedCarts.contains(true)) {
+            return;
+        }
+
+        if (jdbcTemplate.update(ASSIGN_SESSION_CART_SQL, userId, Timestamp.from(now), sessionId, userId) > 0) {
+            return;
+        }
+
+        jdbcTemplate.update(ADD_SHARED_QUANTITIES_SQL, sessionId, userId);
+        jdbcTemplate.update(MOVE_REMAINING_ITEMS_SQL, sessionId, userId);
+        jdbcTemplate.update(DELETE_SESSION_CART_ITEMS_SQL, sessionId);
+        jdbcTemplate.update(DELETE_SESSION_CART_SQL, sessionId);
+        jdbcTemplate.update(TOUCH_USER_CART_SQL, Timestamp.from(now), userId);
+    }
+}
@@ -6,7 +6,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 
 import java.util.Optional;
 
-public interface CartRepository extends JpaRepository<Cart, Long> {
+public interface CartRepository extends JpaRepository<Cart, Long>, CartBulkRepository {
 
     @EntityGraph(attributePaths = "items")
     Optional<Cart> findByUserId(Long userId);
@@ -9,6 +9,8 @@ import com.ecommerce.cartservice.mapper.CartMapper;
 import com.ecommerce.cartservice.model.Cart;
 import com.ecommerce.cartservice.model.CartItem;
 import com.ecommerce.cartservice.repository.CartRepository;
+import com.ecommerce.cartservice.snapshot.ProductSnapshotStore;
+import com.ecommerce.cartservice.store.HotCartStore;
 import com.ecommerce.exceptionlib.ErrorCode;
 import com.ecommerce.exceptionlib.exception.BadRequestException;
 import com.ecommerce.exceptionlib.exception.NotFoundException;
@@ -17,28 +19,44 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
 public class CartService {
 
+    private static final Duration ACTIVITY_RESOLUTION = Duration.ofHours(1);
+
     private final CartRepository cartRepository;
 
     private final ProductClient productClient;
 
     private final CartMapper cartMapper;
 
-    @Transactional(readOnly = true)
+    private final ProductSnapshotStore productSnapshotStore;
+
+    private final HotCartStore hotCartStore;
+
+    /**
+     * Not transactional: the cart is loaded with its items in one query, and no connection is
+     * held while products are looked up.
+     */
     public CartResponse getCart(Long userId, String sessionId) {
-        Cart cart = getOrCreateCartByUserIdOrSessionId(userId, sessionId);
+        Cart cart = hotCartStore.isEnabled()
+                ? hotCartStore.find(userId, sessionId).orElseGet(() -> createNewCart(userId, userId == null ? sessionId : null))
+                : getOrCreateCartByUserIdOrSessionId(userId, sessionId);
 
         List<CartItem> items = cart.getItems();
 
         if (items.isEmpty()) {
-            return cartMapper.cartToCartResponse(cart, Collections.emptyList());
+            return cartMapper.cartToCartResponse(cart, Collections.emptyMap());
         }
 
         List<Long> productIds = items
@@ -46,42 +64,158 @@ public class CartService {
                 .map(CartItem::getProductId)
                 .toList();
 
-        List<ProductResponse> productsByIds = productClient.getProductsByIds(productIds);
-
-        return cartMapper.cartToCartResponse(cart, productsByIds);
+        return cartMapper.cartToCartResponse(cart, getProductsByIds(productIds));
     }
 
     @Transactional
     public void addItemToCart(Long userId, String sessionId, AddCartItemRequest request) {
-        productClient.getProductById(request.getProductId());
+        if (!productSnapshotStore.contains(request.getProductId())) {
+            productClient.getProductById(request.getProductId());
+        }
 
-        Cart cart = getOrCreateCartByUserIdOrSessionId(userId, sessionId);
+        if (hotCartStore.isEnabled()) {
+            hotCartStore.update(userId, sessionId, true, cart -> addItem(cart, request));
+            return;
+        }
 
-        cart
-                .getItems()
-                .stream()
-                .filter(cartItem -> cartItem.getProductId().equals(request.getProductId()))
-                .findFirst()
-                .ifPresentOrElse(
-                        cartItem -> cartItem.setQuantity(cartItem.getQuantity() + request.getQuantity()),
-                        () -> cart.getItems().add(cartMapper.addCartItemRequestToCartItem(cart, request))
-                );
+        Cart cart = getOrCreateCartByUserIdOrSessionId(userId, sessionId);
 
+        addItem(cart, request);
         cartRepository.save(cart);
     }
 
+    /**
+     * Merges the anonymous cart of the session into the user's cart, once per login. Items were
+     * validated when they were added to the session cart, so no product is checked again.
+     */
+    @Transactional
+    public void mergeAnonymousCart(Long userId, String sessionId) {
+        if (userId == null || sessionId == null || sessionId.isBlank()) {
+            throw new BadRequestException(ErrorCode.MISSING_USER_OR_SESSION.getMessage());
+        }
+
+        if (!hotCartStore.isEnabled()) {
+            cartRepository.mergeSessionCart(sessionId, userId, Instant.now());
+            return;
+        }
+
+        Optional<Cart> sessionCart = hotCartStore.find(null, sessionId);
+
+        if (sessionCart.isEmpty() || sessionCart.get().getItems().isEmpty()) {
+            return;
+        }
+
+        List<CartItem> sessionItems = sessionCart.get().getItems();
+        Map<Long, Integer> mergedQuantities = new HashMap<>();
+
+        sessionItems.forEach(item -> mergedQuantities.put(item.getId(), item.getQuantity()));
+
+        // The session cart gives up its items only once the user cart holds them, so a failing
+        // update never loses them.
+        hotCartStore.update(userId, null, true, cart -> mergeItems(cart, sessionItems));
+        hotCartStore.update(null, sessionId, false, cart -> removeMergedItems(cart, mergedQuantities));
+    }
+
     @Transactional
     public void clearCart(Long userId, String sessionId) {
+        if (hotCartStore.isEnabled()) {
+            hotCartStore.update(userId, sessionId, false, this::clearItems);
+            return;
+        }
+
         Cart cart = getCartByUserIdOrSessionIdOrThrow(userId, sessionId);
 
-        cart.getItems().clear();
+        clearItems(cart);
         cartRepository.save(cart);
     }
 
     @Transactional
     public void updateCartItemQuantity(Long userId, String sessionId, Long cartItemId, @Valid UpdateCartItemRequest request) {
+        if (hotCartStore.isEnabled()) {
+            hotCartStore.update(userId, sessionId, false, cart -> updateItemQuantity(cart, cartItemId, request.getQuantity()));
+            return;
+        }
+
         Cart cart = getCartByUserIdOrSessionIdOrThrow(userId, sessionId);
 
+        updateItemQuantity(cart, cartItemId, request.getQuantity());
+        cartRepository.save(cart);
+    }
+
+    @Transactional
+    public void deleteCartItem(Long userId, String sessionId, Long cartItemId) {
+        if (hotCartStore.isEnabled()) {
+            hotCartStore.update(userId, sessionId, false, cart -> deleteItem(cart, cartItemId));
+            return;
+        }
+
+        Cart cart = getCartByUserIdOrSessionIdOrThrow(userId, sessionId);
+
+        deleteItem(cart, cartItemId);
+        cartRepository.save(cart);
+    }
+
+    private void mergeItems(Cart cart, List<CartItem> items) {
+        for (CartItem item : items) {
+            cart
+                    .getItems()
+                    .stream()
+                    .filter(cartItem -> cartItem.getProductId().equals(item.getProductId()))
+                    .findFirst()
+                    .ifPresentOrElse(
+                            cartItem -> cartItem.setQuantity(cartItem.getQuantity() + item.getQuantity()),
+                            () -> cart.getItems().add(CartItem.builder()
+                                    .cart(cart)
+                                    .productId(item.getProductId())
+                                    .quantity(item.getQuantity())
+                                    .build()
+                            )
+                    );
+        }
+
+        touch(cart);
+    }
+
+    /**
+     * Takes the merged quantities off the session cart, keeping whatever was added to it after
+     * the items were read.
+     */
+    private void removeMergedItems(Cart cart, Map<Long, Integer> mergedQuantities) {
+        cart.getItems().removeIf(item -> {
+            Integer mergedQuantity = mergedQuantities.get(item.getId());
+
+            if (mergedQuantity == null) {
+                return false;
+            }
+
+            item.setQuantity(item.getQuantity() - mergedQuantity);
+
+            return item.getQuantity() <= 0;
+        });
+
+        touch(cart);
+    }
+
+    private void clearItems(Cart cart) {
+        cart.getItems().clear();
+        touch(cart);
+    }
+
+    private void addItem(Cart cart, AddCartItemRequest request) {
+        cart
+                .getItems()
+                .stream()
+                .filter(cartItem -> cartItem.getProductId().equals(request.getProductId()))
+                .findFirst()
+                .ifPresentOrElse(
+                        cartItem -> cartItem.setQuantity(cartItem.getQuantity() + request.getQuantity()),
+                        () -> cart.getItems().add(cartMapper.addCartItemRequestToCartItem(cart, request))
+                );
+
+        touch(cart);
+    }
+
+    private void updateItemQuantity(Cart cart, Long cartItemId, Integer quantity) {
         CartItem cartItem = cart
                 .getItems()
                 .stream()
@@ -89,26 +223,60 @@ public class CartService {
                 .findFirst()
                 .orElseThrow(() -> new NotFoundException(ErrorCode.PRODUCT_WAS_NOT_FOUND_IN_CART.getMessage()));
 
-        if (request.getQuantity() == 0) {
+        if (quantity == 0) {
             cart.getItems().remove(cartItem);
         } else {
-            cartItem.setQuantity(request.getQuantity());
+            cartItem.setQuantity(quantity);
         }
 
-        cartRepository.save(cart);
+        touch(cart);
     }
 
-    @Transactional
-    public void deleteCartItem(Long userId, String sessionId, Long cartItemId) {
-        Cart cart = getCartByUserIdOrSessionIdOrThrow(userId, sessionId);
-
+    private void deleteItem(Cart cart, Long cartItemId) {
         boolean isRemoved = cart.getItems().removeIf(cartItem -> cartItem.getId().equals(cartItemId));
 
         if (!isRemoved) {
             throw new NotFoundException(ErrorCode.PRODUCT_WAS_NOT_FOUND_IN_CART.getMessage());
         }
 
-        cartRepository.save(cart);
+        touch(cart);
+    }
+
+    /**
+     * Records activity at a coarse resolution, so a busy cart does not rewrite its row on
+     * every change just to move the timestamp.
+     */
+    private void touch(Cart cart) {
+        Instant now = Instant.now();
+
+        if (cart.getLastActivityAt() == null || cart.getLastActivityAt().isBefore(now.minus(ACTIVITY_RESOLUTION))) {
+            cart.setLastActivityAt(now);
+        }
+    }
+
+    /**
+     * Reads products from the local snapshot store and only asks product-service for the ones
+     * the store does not know yet.
+     */
+    private Map<Long, ProductResponse> getProductsByIds(List<Long> productIds) {
+        Map<Long, ProductResponse> productsByIds = productSnapshotStore.getProducts(productIds);
+
+        List<Long> missingProductIds = productIds
+                .stream()
+                .filter(productId -> !productsByIds.containsKey(productId))
+                .toList();
+
+        if (missingProductIds.isEmpty()) {
+            return productsByIds;
+        }
+
+        List<ProductResponse> loadedProducts = productClient.getProductsByIds(missingProductIds);
+        productSnapshotStore.fill(loadedProducts);
+
+        Map<Long, ProductResponse> products = new HashMap<>(productsByIds);
+        loadedProducts.forEach(product -> products.put(product.id(), product));
+
+        return products;
     }
 
     private Cart createNewCart(Long userId, String sessionId) {
@@ -0,0 +1,155 @@
+package com.ecommerce.cartservice.snapshot;
+
+import com.ecommerce.cartservice.dto.ProductResponse;
+import com.ecommerce.cartservice.kafka.event.ProductSnapshotEvent;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Local read model of the products shown in carts, fed by the compacted product-snapshots and
+ * stock-levels topics. It only answers once both topics have been replayed up to their end,
+ * until then every product is a miss and callers fall back to product-service.
+ */
+@Component
+public class ProductSnapshotStore {
+
+    private final Map<Long, ProductResponse> productsById = new ConcurrentHashMap<>();
+
+    private final Map<Long, StockLevel> stockLevelsByProductId = new ConcurrentHashMap<>();
+
+    /**
+     * Products whose tombstone was consumed. Product ids are never reused, so a snapshot or a
+     * loaded product arriving after the tombstone is stale and must not bring the product back.
+     */
+    private final Set<Long> removedProductIds = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean productsReady;
+
+    private volatile boolean stockLevelsReady;
+
+    public boolean isReady() {
+        return productsReady && stockLevelsReady;
+    }
+
+    public void markProductsReady() {
+        productsReady = true;
+    }
+
+    public void markStockLevelsReady() {
+        stockLevelsReady = true;
+    }
+
+    public void updateProduct(ProductSnapshotEvent event) {
+        putUnlessRemoved(new ProductResponse(
+                event.getProductId(),
+                event.getName(),
+                event.getCategory(),
+                event.getDescription(),
+                event.getPrice(),
+                null,
+                event.getImageUrl()
+        ), true);
+    }
+
+    /**
+     * The id is recorded before the entry is removed, so a concurrent put either sees it or is
+     * removed right after.
+     */
+    public void removeProduct(long productId) {
+        removedProductIds.add(productId);
+        productsById.remove(productId);
+    }
+
+    /**
+     * Records a published stock level unless a newer version of the product is already stored.
+     * Levels of concurrent changes can be published out of order, so an older one is dropped.
+     */
+    public void updateAvailableQuantity(long productId, int availableQuantity, long version) {
+        stockLevelsByProductId.merge(
+                productId,
+                new StockLevel(availableQuantity, version),
+                (current, level) -> current.version() > level.version() ? current : level
+        );
+    }
+
+    /**
+     * Whether the product is known to exist. A product missing from the store may have been
+     * created after its snapshot was consumed, so only a positive answer is conclusive.
+     */
+    public boolean contains(long productId) {
+        return isReady() && productsById.containsKey(productId);
+    }
+
+    /**
+     * Stores products loaded from product-service after a miss. Existing entries win, since they
+     * come from the topics and are at least as recent as the loaded ones, and products deleted
+     * while they were loaded are not stored.
+     */
+    public void fill(List<ProductResponse> products) {
+        for (ProductResponse product : products) {
+            putUnlessRemoved(product, false);
+
+            if (product.availableQuantity() != null) {
+                stockLevelsByProductId.putIfAbsent(product.id(), new StockLevel(product.availableQuantity(), 0));
+            }
+        }
+    }
+
+    /**
+     * Returns the products found in the store by id, products that are missing are left out.
+     */
+    public Map<Long, ProductResponse> getProducts(Collection<Long> productIds) {
+        if (!isReady()) {
+            return Map.of();
+        }
+
+        Map<Long, ProductResponse> products = new HashMap<>(productIds.size() * 2);
+
+        for (Long productId : productIds) {
+            ProductResponse product = productsById.get(productId);
+
+            if (product != null) {
+                products.put(productId, new ProductResponse(
+                        product.id(),
+                        product.name(),
+                        product.category(),
+                        product.description(),
+                        product.price(),
+                        availableQuantity(productId),
+                        product.imageUrl()
+                ));
+            }
+        }
+
+        return products;
+    }
+
+    public int size() {
+        return productsById.size();
+    }
+
+    private void putUnlessRemoved(ProductResponse product, boolean replace) {
+        productsById.compute(product.id(), (productId, current) -> {
+            if (removedProductIds.contains(productId)) {
+                return null;
+            }
+
+            return current == null || replace ? product : current;
+        });
+    }
+
+    private int availableQuantity(Long productId) {
+        StockLevel level = stockLevelsByProductId.get(productId);
+
+        return level == null ? 0 : level.availableQuantity();
+    }
+
+    private record StockLevel(int availableQuantity, long version) {
+    }
+}
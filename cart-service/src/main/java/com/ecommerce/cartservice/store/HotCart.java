@@ -0,0 +1,32 @@
+package com.ecommerce.cartservice.store;
+
+import com.ecommerce.cartservice.model.Cart;
+
+/**
+ * A cart owned by the hot cart store. All fields but the access time are guarded by the
+ * monitor of the instance.
+ */
+class HotCart {
+
+    final Cart cart;
+
+    long version;
+
+    long persistedVersion;
+
+    boolean evicted;
+
+    volatile long lastAccessNanos = System.nanoTime();
+
+    HotCart(Cart cart) {
+        this.cart = cart;
+    }
+
+    boolean isDirty() {
+        return version != persistedVersion;
+    }
+
+    void touch() {
+        lastAccessNanos = System.nanoTime();
+    }
+}
@@ -0,0 +1,310 @@
+package com.ecommerce.cartservice.store;
+
+import com.ecommerce.cartservice.model.Cart;
+import com.ecommerce.cartservice.model.CartItem;
+import com.ecommerce.cartservice.repository.CartRepository;
+import com.ecommerce.exceptionlib.ErrorCode;
+import com.ecommerce.exceptionlib.exception.BadRequestException;
+import com.ecommerce.exceptionlib.exception.NotFoundException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Optional mode for traffic peaks: active carts are owned in memory, keyed by user or session.
+ * Mutations are applied in place under the cart's monitor and written behind to Postgres. Every
+ * flush persists all carts changed since the previous one in a single transaction, so any number
+ * of changes to a cart between two flushes cost one write. Carts that stay idle, and the least
+ * recently used ones while the store is over its maximum size, are evicted once they are
+ * persisted and reloaded from Postgres on their next access.
+ * <p>
+ * Item IDs are handed out from blocks of the entity sequences, the same way Hibernate's pooled
+ * optimizer does, so items added here and through JPA never collide. Changes made since the last
+ * flush are lost if the instance crashes, and only one instance may own the carts while the mode
+ * is enabled.
+ */
+@Slf4j
+@Component
+public class HotCartStore {
+
+    private static final int SEQUENCE_BLOCK_SIZE = 50;
+
+    private final boolean enabled;
+
+    private final int maximumSize;
+
+    private final long idleTimeoutNanos;
+
+    private final CartRepository cartRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<String, HotCart> carts = new ConcurrentHashMap<>();
+
+    private final SequenceBlock cartIds = new SequenceBlock("cart_seq");
+
+    private final SequenceBlock cartItemIds = new SequenceBlock("cart_item_seq");
+
+    public HotCartStore(
+            @Value("${cart.hot-store.enabled}") boolean enabled,
+            @Value("${cart.hot-store.maximum-size}") int maximumSize,
+            @Value("${cart.hot-store.idle-timeout}") Duration idleTimeout,
+            CartRepository cartRepository,
+            TransactionTemplate transactionTemplate
+    ) {
+        this.enabled = enabled;
+        this.maximumSize = maximumSize;
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+        this.cartRepository = cartRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns a detached copy of the cart, loading it from Postgres when it is not held in memory.
+     */
+    public Optional<Cart> find(Long userId, String sessionId) {
+        String key = key(userId, sessionId);
+
+        while (true) {
+            HotCart hotCart = load(key, userId, sessionId, false);
+
+            if (hotCart == null) {
+                return Optional.empty();
+            }
+
+            synchronized (hotCart) {
+                if (!hotCart.evicted) {
+                    hotCart.touch();
+                    return Optional.of(copy(hotCart.cart));
+                }
+            }
+        }
+    }
+
+    /**
+     * Applies the mutation to the cart in place. The mutation must throw before it changes the
+     * cart, if it throws at all.
+     */
+    public void update(Long userId, String sessionId, boolean createIfMissing, Consumer<Cart> mutation) {
+        String key = key(userId, sessionId);
+
+        while (true) {
+            HotCart hotCart = load(key, userId, sessionId, createIfMissing);
+
+            if (hotCart == null) {
+                throw new NotFoundException(ErrorCode.CART_DOES_NOT_EXIST.getMessage());
+            }
+
+            synchronized (hotCart) {
+                if (hotCart.evicted) {
+                    continue;
+                }
+
+                mutation.accept(hotCart.cart);
+
+                for (CartItem item : hotCart.cart.getItems()) {
+                    if (item.getId() == null) {
+                        item.setId(cartItemIds.next());
+                    }
+                }
+
+                hotCart.version++;
+                hotCart.touch();
+                return;
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${cart.hot-store.flush-interval}")
+    public void flush() {
+        if (!enabled) {
+            return;
+        }
+
+        writeBehind();
+        evict();
+    }
+
+    @PreDestroy
+    void close() {
+        if (enabled) {
+            writeBehind();
+        }
+    }
+
+    public int size() {
+        return carts.size();
+    }
+
+    /**
+     * Misses are loaded inside the map's compute, so a load never races with the eviction of the
+     * same cart and always reads what the last flush wrote.
+     */
+    private HotCart load(String key, Long userId, String sessionId, boolean createIfMissing) {
+        return carts.computeIfAbsent(key, ignored -> {
+            Optional<Cart> stored = userId != null
+                    ? cartRepository.findByUserId(userId)
+                    : cartRepository.findBySessionId(sessionId);
+
+            if (stored.isEmpty() && !createIfMissing) {
+                return null;
+            }
+
+            return new HotCart(stored.orElseGet(() -> Cart.builder()
+                    .id(cartIds.next())
+                    .userId(userId)
+                    .sessionId(userId == null ? sessionId : null)
+                    .items(new ArrayList<>())
+                    .build()
+            ));
+        });
+    }
+
+    private void writeBehind() {
+        List<Snapshot> snapshots = new ArrayList<>();
+
+        for (HotCart hotCart : carts.values()) {
+            synchronized (hotCart) {
+                if (hotCart.isDirty()) {
+                    snapshots.add(new Snapshot(hotCart, copy(hotCart.cart), hotCart.version));
+                }
+            }
+        }
+
+        if (snapshots.isEmpty()) {
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> cartRepository.upsertAll(
+                    snapshots.stream().map(Snapshot::cart).toList()
+            ));
+        } catch (RuntimeException e) {
+            log.warn("Failed to write behind {} carts, retrying on next flush", snapshots.size(), e);
+            return;
+        }
+
+        for (Snapshot snapshot : snapshots) {
+            synchronized (snapshot.hotCart()) {
+                snapshot.hotCart().persistedVersion = Math.max(snapshot.hotCart().persistedVersion, snapshot.version());
+            }
+        }
+    }
+
+    private void evict() {
+        long now = System.nanoTime();
+
+        carts.forEach((key, hotCart) -> {
+            if (now - hotCart.lastAccessNanos > idleTimeoutNanos) {
+                evict(key, hotCart);
+            }
+        });
+
+        int excess = carts.size() - maximumSize;
+
+        if (excess > 0) {
+            carts.entrySet()
+                    .stream()
+                    .sorted(Comparator.comparingLong(entry -> entry.getValue().lastAccessNanos))
+                    .limit(excess)
+                    .toList()
+                    .forEach(entry -> evict(entry.getKey(), entry.getValue()));
+        }
+    }
+
+    private void evict(String key, HotCart hotCart) {
+        carts.computeIfPresent(key, (ignored, current) -> {
+            synchronized (current) {
+                if (current != hotCart || current.isDirty()) {
+                    return current;
+                }
+
+                current.evicted = true;
+                return null;
+            }
+        });
+    }
+
+    private String key(Long userId, String sessionId) {
+        if (userId != null) {
+            return "user:" + userId;
+        } else if (sessionId != null && !sessionId.isBlank()) {
+            return "session:" + sessionId;
+        }
+
+        throw new BadRequestException(ErrorCode.MISSING_USER_OR_SESSION.getMessage());
+    }
+
+    private static Cart copy(Cart cart) {
+        Cart copy = Cart.builder()
+                .id(cart.getId())
+                .userId(cart.getUserId())
+                .sessionId(cart.getSessionId())
+                .lastActivityAt(cart.getLastActivityAt())
+                .items(new ArrayList<>(cart.getItems().size()))
+                .build();
+
+        for (CartItem item : cart.getItems()) {
+            copy.getItems().add(CartItem.builder()
+                    .id(item.getId())
+                    .cart(copy)
+                    .productId(item.getProductId())
+                    .quantity(item.getQuantity())
+                    .build()
+            );
+        }
+
+        return copy;
+    }
+
+    private record Snapshot(HotCart hotCart, Cart cart, long version) {
+    }
+
+    /**
+     * Hands out the block of IDs ending at each fetched sequence value, like Hibernate's pooled
+     * optimizer does with the same allocation size.
+     */
+    private final class SequenceBlock {
+
+        private final String sequenceName;
+
+        private long next = 1;
+
+        private long last;
+
+        private SequenceBlock(String sequenceName) {
+            this.sequenceName = sequenceName;
+        }
+
+        private synchronized long next() {
+            if (next > last) {
+                long value = cartRepository.nextSequenceValue(sequenceName);
+
+                if (value < SEQUENCE_BLOCK_SIZE) {
+                    value = cartRepository.nextSequenceValue(sequenceName);
+                }
+
+                next = value - SEQUENCE_BLOCK_SIZE + 1;
+                last = value;
+            }
+
+            return next++;
+        }
+    }
+}
@@ -20,4 +20,14 @@ public class CookieUtil {
                 .maxAge(Duration.ofDays(30))
                 .build();
     }
+
+    public static ResponseCookie deleteSessionCookie() {
+        return ResponseCookie.from("sessionId", "")
+                .httpOnly(true)
+                .secure(true)
+                .sameSite("Strict")
+                .path("/")
+                .maxAge(Duration.ZERO)
+                .build();
+    }
 }
@@ -0,0 +1,57 @@
+package com.ecommerce.cartservice.cleanup;
+
+import com.ecommerce.cartservice.repository.CartRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AnonymousCartSweeperTest {
+
+    @InjectMocks
+    private AnonymousCartSweeper anonymousCartSweeper;
+
+    @Mock
+    private CartRepository cartRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(anonymousCartSweeper, "retention", Duration.ofDays(30));
+        ReflectionTestUtils.setField(anonymousCartSweeper, "batchSize", 2);
+
+        when(transactionTemplate.execute(any())).thenAnswer(invocation -> {
+            TransactionCallback<?> action = invocation.getArgument(0);
+            return action.doInTransaction(mock(TransactionStatus.class));
+        });
+    }
+
+    @Test
+    void deleteStaleAnonymousCarts_shouldDeleteChunksUntilOneIsNotFull() {
+        Instant before = Instant.now().minus(Duration.ofDays(30));
+
+        when(cartRepository.deleteStaleAnonymousCarts(any(Instant.class), eq(2))).thenReturn(2, 2, 1);
+
+        anonymousCartSweeper.deleteStaleAnonymousCarts();
+
+        verify(cartRepository, times(3)).deleteStaleAnonymousCarts(argThat(cutoff -> !cutoff.isBefore(before)), eq(2));
+        verify(transactionTemplate, times(3)).execute(any());
+    }
+}
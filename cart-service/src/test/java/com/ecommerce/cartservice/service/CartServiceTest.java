@@ -6,6 +6,8 @@ import com.ecommerce.cartservice.mapper.CartMapper;
 import com.ecommerce.cartservice.model.Cart;
 import com.ecommerce.cartservice.model.CartItem;
 import com.ecommerce.cartservice.repository.CartRepository;
+import com.ecommerce.cartservice.snapshot.ProductSnapshotStore;
+import com.ecommerce.cartservice.store.HotCartStore;
 import com.ecommerce.exceptionlib.ErrorCode;
 import com.ecommerce.exceptionlib.exception.BadRequestException;
 import com.ecommerce.exceptionlib.exception.NotFoundException;
@@ -22,7 +24,9 @@ import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -44,6 +48,12 @@ class CartServiceTest {
     @Mock
     private CartMapper cartMapper;
 
+    @Mock
+    private ProductSnapshotStore productSnapshotStore;
+
+    @Mock
+    private HotCartStore hotCartStore;
+
     private Cart userCart;
 
     private Cart anonymousCart;
@@ -135,14 +145,14 @@ class CartServiceTest {
             userCartResponse.getItems().clear();
 
             when(cartRepository.findByUserId(1L)).thenReturn(Optional.empty());
-            when(cartMapper.cartToCartResponse(any(Cart.class), eq(Collections.emptyList()))).thenReturn(userCartResponse);
+            when(cartMapper.cartToCartResponse(any(Cart.class), eq(Collections.emptyMap()))).thenReturn(userCartResponse);
 
             CartResponse response = cartService.getCart(1L, null);
 
             assertThat(response).isNotNull();
             assertThat(response.getItems()).isEmpty();
             verify(cartRepository, times(1)).findByUserId(1L);
-            verify(cartMapper, times(1)).cartToCartResponse(any(Cart.class), eq(Collections.emptyList()));
+            verify(cartMapper, times(1)).cartToCartResponse(any(Cart.class), eq(Collections.emptyMap()));
             verifyNoMoreInteractions(productClient, cartMapper);
         }
 
@@ -151,13 +161,13 @@ class CartServiceTest {
             userCart.getItems().clear();
 
             when(cartRepository.findByUserId(1L)).thenReturn(Optional.of(userCart));
-            when(cartMapper.cartToCartResponse(userCart, Collections.emptyList())).thenReturn(userCartResponse);
+            when(cartMapper.cartToCartResponse(userCart, Collections.emptyMap())).thenReturn(userCartResponse);
 
             CartResponse response = cartService.getCart(1L, null);
 
             assertThat(response).isNotNull();
             verify(cartRepository, times(1)).findByUserId(1L);
-            verify(cartMapper, times(1)).cartToCartResponse(userCart, Collections.emptyList());
+            verify(cartMapper, times(1)).cartToCartResponse(userCart, Collections.emptyMap());
             verifyNoMoreInteractions(productClient, cartMapper);
         }
 
@@ -166,13 +176,13 @@ class CartServiceTest {
             anonymousCart.getItems().clear();
 
             when(cartRepository.findBySessionId("SessionId")).thenReturn(Optional.of(anonymousCart));
-            when(cartMapper.cartToCartResponse(anonymousCart, Collections.emptyList())).thenReturn(anonymousCartResponse);
+            when(cartMapper.cartToCartResponse(anonymousCart, Collections.emptyMap())).thenReturn(anonymousCartResponse);
 
             CartResponse response = cartService.getCart(null, "SessionId");
 
             assertThat(response).isNotNull();
             verify(cartRepository, times(1)).findBySessionId("SessionId");
-            verify(cartMapper, times(1)).cartToCartResponse(anonymousCart, Collections.emptyList());
+            verify(cartMapper, times(1)).cartToCartResponse(anonymousCart, Collections.emptyMap());
             verifyNoMoreInteractions(productClient, cartMapper);
         }
 
@@ -192,9 +202,12 @@ class CartServiceTest {
 
         @Test
         void getCart_shouldReturnUserCartResponse() {
+            Map<Long, ProductResponse> productsByIds = Map.of(1L, productsResponse.getFirst());
+
             when(cartRepository.findByUserId(1L)).thenReturn(Optional.of(userCart));
+            when(productSnapshotStore.getProducts(List.of(1L))).thenReturn(Map.of());
             when(productClient.getProductsByIds(List.of(1L))).thenReturn(productsResponse);
-            when(cartMapper.cartToCartResponse(userCart, productsResponse)).thenReturn(userCartResponse);
+            when(cartMapper.cartToCartResponse(userCart, productsByIds)).thenReturn(userCartResponse);
 
             CartResponse response = cartService.getCart(1L, null);
 
@@ -202,7 +215,22 @@ class CartServiceTest {
             assertThat(response.getItems()).hasSize(1);
             verify(cartRepository, times(1)).findByUserId(1L);
             verify(productClient, times(1)).getProductsByIds(List.of(1L));
-            verify(cartMapper, times(1)).cartToCartResponse(userCart, productsResponse);
+            verify(productSnapshotStore, times(1)).fill(productsResponse);
+            verify(cartMapper, times(1)).cartToCartResponse(userCart, productsByIds);
+        }
+
+        @Test
+        void getCart_shouldReadProductsFromSnapshotStore_withoutCallingProductService() {
+            Map<Long, ProductResponse> productsByIds = Map.of(1L, productsResponse.getFirst());
+
+            when(cartRepository.findByUserId(1L)).thenReturn(Optional.of(userCart));
+            when(productSnapshotStore.getProducts(List.of(1L))).thenReturn(productsByIds);
+            when(cartMapper.cartToCartResponse(userCart, productsByIds)).thenReturn(userCartResponse);
+
+            CartResponse response = cartService.getCart(1L, null);
+
+            assertThat(response).isSameAs(userCartResponse);
+            verifyNoInteractions(productClient);
         }
     }
 
@@ -222,6 +250,7 @@ class CartServiceTest {
 
             assertThat(userCart.getItems()).hasSize(1);
             assertEquals(3, userCart.getItems().getFirst().getQuantity());
+            assertThat(userCart.getLastActivityAt()).isNotNull();
             verify(productClient, times(1)).getProductById(req.getProductId());
             verify(cartRepository, times(1)).findByUserId(1L);
             verify(cartRepository, times(1)).save(userCart);
@@ -244,6 +273,21 @@ class CartServiceTest {
             verify(cartMapper, times(1)).addCartItemRequestToCartItem(userCart, req);
             verify(cartRepository, times(1)).save(userCart);
         }
+
+        @Test
+        void addItemToCart_shouldSkipProductServiceCheck_whenProductIsKnownLocally() {
+            AddCartItemRequest req = new AddCartItemRequest();
+            req.setProductId(1L);
+            req.setQuantity(2);
+
+            when(productSnapshotStore.contains(1L)).thenReturn(true);
+            when(cartRepository.findByUserId(1L)).thenReturn(Optional.of(userCart));
+
+            cartService.addItemToCart(1L, null, req);
+
+            assertEquals(3, userCart.getItems().getFirst().getQuantity());
+            verifyNoInteractions(productClient);
+        }
     }
 
     @Nested
@@ -361,5 +405,152 @@ class CartServiceTest {
                     .hasMessageContaining(ErrorCode.PRODUCT_WAS_NOT_FOUND_IN_CART.getMessage());
         }
     }
-}
 
+    @Nested
+    @DisplayName("mergeAnonymousCart() tests")
+    class MergeAnonymousCart {
+        @Test
+        void mergeAnonymousCart_shouldMergeSessionCartInRepository() {
+            cartService.mergeAnonymousCart(1L, "SessionId");
+
+            verify(cartRepository, times(1)).mergeSessionCart(eq("SessionId"), eq(1L), any());
+            verify(cartRepository, never()).save(any());
+        }
+
+        @Test
+        void mergeAnonymousCart_shouldThrowBadRequest_whenSessionIsBlank() {
+            assertThrows(BadRequestException.class, () -> cartService.mergeAnonymousCart(1L, " "));
+            verifyNoInteractions(cartRepository, hotCartStore);
+        }
+    }
+
+    @Nested
+    @DisplayName("hot cart store tests")
+    class HotStore {
+
+        @BeforeEach
+        void enableHotStore() {
+            when(hotCartStore.isEnabled()).thenReturn(true);
+        }
+
+        @Test
+        void getCart_shouldReadCartFromHotStore() {
+            Map<Long, ProductResponse> productsByIds = Map.of(1L, productsResponse.getFirst());
+
+            when(hotCartStore.find(1L, null)).thenReturn(Optional.of(userCart));
+            when(productSnapshotStore.getProducts(List.of(1L))).thenReturn(productsByIds);
+            when(cartMapper.cartToCartResponse(userCart, productsByIds)).thenReturn(userCartResponse);
+
+            assertThat(cartService.getCart(1L, null)).isSameAs(userCartResponse);
+            verifyNoInteractions(cartRepository);
+        }
+
+        @Test
+        void addItemToCart_shouldApplyChangeInHotStore_withoutSavingCart() {
+            AddCartItemRequest req = new AddCartItemRequest();
+            req.setProductId(1L);
+            req.setQuantity(2);
+
+            applyToCart(userCart);
+
+            cartService.addItemToCart(1L, null, req);
+
+            assertEquals(3, userCart.getItems().getFirst().getQuantity());
+            verify(hotCartStore, times(1)).update(eq(1L), isNull(), eq(true), any());
+            verifyNoInteractions(cartRepository);
+        }
+
+        @Test
+        void deleteCartItem_shouldPropagateNotFound_fromHotStoreMutation() {
+            applyToCart(userCart);
+
+            assertThrows(NotFoundException.class, () -> cartService.deleteCartItem(1L, null, 99L));
+            assertThat(userCart.getItems()).hasSize(1);
+            verifyNoInteractions(cartRepository);
+        }
+
+        @Test
+        void mergeAnonymousCart_shouldMoveSessionItemsIntoUserCart() {
+            CartItem otherItem = CartItem.builder()
+                    .id(3L)
+                    .cart(anonymousCart)
+                    .productId(2L)
+                    .quantity(4)
+                    .build();
+            anonymousCart.getItems().add(otherItem);
+
+            when(hotCartStore.find(null, "SessionId")).thenReturn(Optional.of(anonymousCart));
+            doAnswer(invocation -> {
+                Consumer<Cart> mutation = invocation.getArgument(3);
+                mutation.accept(anonymousCart);
+                return null;
+            }).when(hotCartStore).update(isNull(), eq("SessionId"), eq(false), any());
+            doAnswer(invocation -> {
+                Consumer<Cart> mutation = invocation.getArgument(3);
+                mutation.accept(userCart);
+                return null;
+            }).when(hotCartStore).update(eq(1L), isNull(), eq(true), any());
+
+            cartService.mergeAnonymousCart(1L, "SessionId");
+
+            assertThat(anonymousCart.getItems()).isEmpty();
+            assertThat(userCart.getItems()).hasSize(2);
+            assertEquals(2, userCart.getItems().get(0).getQuantity());
+            assertEquals(2L, userCart.getItems().get(1).getProductId());
+            assertEquals(4, userCart.getItems().get(1).getQuantity());
+            assertThat(userCart.getItems().get(1).getCart()).isSameAs(userCart);
+            verifyNoInteractions(cartRepository);
+        }
+
+        @Test
+        void mergeAnonymousCart_shouldKeepSessionItems_whenUserCartUpdateFails() {
+            when(hotCartStore.find(null, "SessionId")).thenReturn(Optional.of(anonymousCart));
+            doThrow(new IllegalStateException("Sequence unavailable"))
+                    .when(hotCartStore).update(eq(1L), isNull(), eq(true), any());
+
+            assertThrows(IllegalStateException.class, () -> cartService.mergeAnonymousCart(1L, "SessionId"));
+
+            assertThat(anonymousCart.getItems()).hasSize(1);
+            verify(hotCartStore, never()).update(isNull(), eq("SessionId"), anyBoolean(), any());
+        }
+
+        @Test
+        void mergeAnonymousCart_shouldKeepItemsAddedToSessionCartDuringMerge() {
+            Cart sessionSnapshot = Cart.builder()
+                    .sessionId("SessionId")
+                    .items(new ArrayList<>(List.of(CartItem.builder().id(2L).productId(1L).quantity(1).build())))
+                    .build();
+            anonymousCart.getItems().getFirst().setQuantity(3);
+
+            when(hotCartStore.find(null, "SessionId")).thenReturn(Optional.of(sessionSnapshot));
+            doAnswer(invocation -> {
+                Consumer<Cart> mutation = invocation.getArgument(3);
+                mutation.accept(invocation.getArgument(0) == null ? anonymousCart : userCart);
+                return null;
+            }).when(hotCartStore).update(any(), any(), anyBoolean(), any());
+
+            cartService.mergeAnonymousCart(1L, "SessionId");
+
+            assertEquals(2, userCart.getItems().getFirst().getQuantity());
+            assertEquals(2, anonymousCart.getItems().getFirst().getQuantity());
+        }
+
+        @Test
+        void mergeAnonymousCart_shouldDoNothing_whenSessionCartIsNotInHotStore() {
+            when(hotCartStore.find(null, "SessionId")).thenReturn(Optional.empty());
+
+            cartService.mergeAnonymousCart(1L, "SessionId");
+
+            verify(hotCartStore, never()).update(any(), any(), anyBoolean(), any());
+            verifyNoInteractions(cartRepository);
+        }
+
+        private void applyToCart(Cart cart) {
+            doAnswer(invocation -> {
+                Consumer<Cart> mutation = invocation.getArgument(3);
+                mutation.accept(cart);
+                return null;
+            }).when(hotCartStore).update(any(), any(), anyBoolean(), any());
+        }
+    }
+}
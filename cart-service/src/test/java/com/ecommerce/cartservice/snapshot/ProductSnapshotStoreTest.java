@@ -0,0 +1,135 @@
+package com.ecommerce.cartservice.snapshot;
+
+import com.ecommerce.cartservice.dto.ProductResponse;
+import com.ecommerce.cartservice.kafka.event.ProductSnapshotEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductSnapshotStoreTest {
+
+    private ProductSnapshotStore productSnapshotStore;
+
+    @BeforeEach
+    void setUp() {
+        productSnapshotStore = new ProductSnapshotStore();
+    }
+
+    @Test
+    void getProducts_shouldMissEverything_untilBothTopicsAreReplayed() {
+        productSnapshotStore.updateProduct(snapshot(1L, "Product"));
+        productSnapshotStore.markProductsReady();
+
+        assertTrue(productSnapshotStore.getProducts(List.of(1L)).isEmpty());
+
+        productSnapshotStore.markStockLevelsReady();
+
+        assertEquals(1, productSnapshotStore.getProducts(List.of(1L)).size());
+    }
+
+    @Test
+    void getProducts_shouldCombineProductWithAvailableQuantity() {
+        markReady();
+        productSnapshotStore.updateProduct(snapshot(1L, "Product"));
+        productSnapshotStore.updateProduct(snapshot(2L, "Other"));
+        productSnapshotStore.updateAvailableQuantity(1L, 7, 1L);
+
+        Map<Long, ProductResponse> products = productSnapshotStore.getProducts(List.of(1L, 2L, 3L));
+
+        assertEquals(2, products.size());
+        assertEquals("Product", products.get(1L).name());
+        assertEquals(7, products.get(1L).availableQuantity());
+        assertEquals(0, products.get(2L).availableQuantity());
+    }
+
+    @Test
+    void contains_shouldOnlyConfirmKnownProducts_onceReady() {
+        productSnapshotStore.updateProduct(snapshot(1L, "Product"));
+
+        assertFalse(productSnapshotStore.contains(1L));
+
+        markReady();
+
+        assertTrue(productSnapshotStore.contains(1L));
+        assertFalse(productSnapshotStore.contains(2L));
+    }
+
+    @Test
+    void removeProduct_shouldTurnProductIntoMiss() {
+        markReady();
+        productSnapshotStore.updateProduct(snapshot(1L, "Product"));
+
+        productSnapshotStore.removeProduct(1L);
+
+        assertTrue(productSnapshotStore.getProducts(List.of(1L)).isEmpty());
+    }
+
+    @Test
+    void updateAvailableQuantity_shouldDropOlderVersions() {
+        markReady();
+        productSnapshotStore.updateProduct(snapshot(1L, "Product"));
+        productSnapshotStore.updateAvailableQuantity(1L, 3, 8L);
+        productSnapshotStore.updateAvailableQuantity(1L, 5, 7L);
+
+        assertEquals(3, productSnapshotStore.getProducts(List.of(1L)).get(1L).availableQuantity());
+
+        productSnapshotStore.updateAvailableQuantity(1L, 2, 9L);
+
+        assertEquals(2, productSnapshotStore.getProducts(List.of(1L)).get(1L).availableQuantity());
+    }
+
+    @Test
+    void fill_shouldNotOverwriteProductsReceivedFromTopics() {
+        markReady();
+        productSnapshotStore.updateProduct(snapshot(1L, "Current"));
+        productSnapshotStore.updateAvailableQuantity(1L, 3, 1L);
+
+        productSnapshotStore.fill(List.of(
+                new ProductResponse(1L, "Stale", "Category", null, BigDecimal.ONE, 9, null),
+                new ProductResponse(2L, "Loaded", "Category", null, BigDecimal.TEN, 4, null)
+        ));
+
+        Map<Long, ProductResponse> products = productSnapshotStore.getProducts(List.of(1L, 2L));
+
+        assertEquals("Current", products.get(1L).name());
+        assertEquals(3, products.get(1L).availableQuantity());
+        assertEquals("Loaded", products.get(2L).name());
+        assertEquals(4, products.get(2L).availableQuantity());
+    }
+
+    @Test
+    void fill_shouldNotStoreProductsRemovedWhileTheyWereLoaded() {
+        markReady();
+
+        productSnapshotStore.removeProduct(1L);
+        productSnapshotStore.fill(List.of(new ProductResponse(1L, "Deleted", "Category", null, BigDecimal.ONE, 9, null)));
+
+        assertFalse(productSnapshotStore.contains(1L));
+        assertTrue(productSnapshotStore.getProducts(List.of(1L)).isEmpty());
+    }
+
+    @Test
+    void updateProduct_shouldNotBringBackRemovedProduct() {
+        markReady();
+        productSnapshotStore.updateProduct(snapshot(1L, "Product"));
+        productSnapshotStore.removeProduct(1L);
+
+        productSnapshotStore.updateProduct(snapshot(1L, "Late"));
+
+        assertFalse(productSnapshotStore.contains(1L));
+    }
+
+    private void markReady() {
+        productSnapshotStore.markProductsReady();
+        productSnapshotStore.markStockLevelsReady();
+    }
+
+    private ProductSnapshotEvent snapshot(Long productId, String name) {
+        return new ProductSnapshotEvent(productId, name, "Category", "Description", BigDecimal.valueOf(100), "/images/test.jpg");
+    }
+}
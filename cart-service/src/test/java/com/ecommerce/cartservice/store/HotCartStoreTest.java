@@ -0,0 +1,163 @@
+package com.ecommerce.cartservice.store;
+
+import com.ecommerce.cartservice.model.Cart;
+import com.ecommerce.cartservice.model.CartItem;
+import com.ecommerce.cartservice.repository.CartRepository;
+import com.ecommerce.exceptionlib.exception.BadRequestException;
+import com.ecommerce.exceptionlib.exception.NotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class HotCartStoreTest {
+
+    @Mock
+    private CartRepository cartRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private HotCartStore hotCartStore;
+
+    @BeforeEach
+    void setUp() {
+        hotCartStore = store(Duration.ofMinutes(30));
+    }
+
+    @Test
+    void update_shouldCreateCartAndAssignIdsFromSequenceBlocks() {
+        when(cartRepository.findByUserId(1L)).thenReturn(Optional.empty());
+        when(cartRepository.nextSequenceValue("cart_seq")).thenReturn(100L);
+        when(cartRepository.nextSequenceValue("cart_item_seq")).thenReturn(200L);
+
+        hotCartStore.update(1L, null, true, cart -> cart.getItems().add(item(cart, 5L, 1)));
+        hotCartStore.update(1L, null, true, cart -> cart.getItems().add(item(cart, 6L, 1)));
+
+        Cart cart = hotCartStore.find(1L, null).orElseThrow();
+
+        assertEquals(51L, cart.getId());
+        assertEquals(List.of(151L, 152L), cart.getItems().stream().map(CartItem::getId).toList());
+        verify(cartRepository, times(1)).findByUserId(1L);
+        verify(cartRepository, times(1)).nextSequenceValue("cart_item_seq");
+    }
+
+    @Test
+    void update_shouldThrowNotFound_whenCartDoesNotExistAndMayNotBeCreated() {
+        when(cartRepository.findBySessionId("SessionId")).thenReturn(Optional.empty());
+
+        assertThrows(NotFoundException.class, () -> hotCartStore.update(null, "SessionId", false, cart -> cart.getItems().clear()));
+        assertEquals(0, hotCartStore.size());
+    }
+
+    @Test
+    void find_shouldThrowBadRequest_whenUserAndSessionAreMissing() {
+        assertThrows(BadRequestException.class, () -> hotCartStore.find(null, " "));
+    }
+
+    @Test
+    void find_shouldReturnCopy_soCallersCannotChangeStoredCart() {
+        when(cartRepository.findByUserId(1L)).thenReturn(Optional.of(storedCart()));
+
+        hotCartStore.find(1L, null).orElseThrow().getItems().clear();
+
+        assertEquals(1, hotCartStore.find(1L, null).orElseThrow().getItems().size());
+    }
+
+    @Test
+    void flush_shouldWriteCoalescedChangesOnce() {
+        executeTransactions();
+        when(cartRepository.findByUserId(1L)).thenReturn(Optional.of(storedCart()));
+
+        hotCartStore.update(1L, null, false, cart -> cart.getItems().getFirst().setQuantity(2));
+        hotCartStore.update(1L, null, false, cart -> cart.getItems().getFirst().setQuantity(3));
+
+        hotCartStore.flush();
+        hotCartStore.flush();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Cart>> written = ArgumentCaptor.forClass(List.class);
+        verify(cartRepository, times(1)).upsertAll(written.capture());
+        assertEquals(3, written.getValue().getFirst().getItems().getFirst().getQuantity());
+    }
+
+    @Test
+    void flush_shouldKeepCartDirty_whenWriteFails() {
+        when(cartRepository.findByUserId(1L)).thenReturn(Optional.of(storedCart()));
+        doThrow(new IllegalStateException("Database unavailable")).doAnswer(invocation -> {
+            Consumer<TransactionStatus> action = invocation.getArgument(0);
+            action.accept(mock(TransactionStatus.class));
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+
+        hotCartStore.update(1L, null, false, cart -> cart.getItems().clear());
+
+        hotCartStore.flush();
+        hotCartStore.flush();
+
+        verify(cartRepository, times(1)).upsertAll(anyList());
+    }
+
+    @Test
+    void flush_shouldEvictIdleCartsOnlyOncePersisted() {
+        hotCartStore = store(Duration.ZERO);
+        executeTransactions();
+        when(cartRepository.findByUserId(1L)).thenReturn(Optional.of(storedCart()));
+
+        hotCartStore.update(1L, null, false, cart -> cart.getItems().clear());
+        hotCartStore.flush();
+
+        assertEquals(0, hotCartStore.size());
+        verify(cartRepository, times(1)).upsertAll(anyList());
+    }
+
+    private HotCartStore store(Duration idleTimeout) {
+        return new HotCartStore(true, 100, idleTimeout, cartRepository, transactionTemplate);
+    }
+
+    private void executeTransactions() {
+        doAnswer(invocation -> {
+            Consumer<TransactionStatus> action = invocation.getArgument(0);
+            action.accept(mock(TransactionStatus.class));
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    private Cart storedCart() {
+        Cart cart = Cart.builder()
+                .id(1L)
+                .userId(1L)
+                .items(new ArrayList<>())
+                .build();
+
+        CartItem item = item(cart, 5L, 1);
+        item.setId(10L);
+        cart.getItems().add(item);
+
+        return cart;
+    }
+
+    private CartItem item(Cart cart, Long productId, int quantity) {
+        return CartItem.builder()
+                .cart(cart)
+                .productId(productId)
+                .quantity(quantity)
+                .build();
+    }
+}
@@ -24,6 +24,10 @@ public enum ErrorCode {
     DELETE_IMAGE_FAILED("Failed to delete image"),
     CATEGORY_IN_USE("Category is in use and cannot be deleted"),
     INVALID_IMAGE_FORMAT("Image must be either in JPG or PNG format"),
+    IMAGE_NOT_FOUND("Image was not found"),
+    IMAGE_TOO_LARGE("Image exceeds the maximum allowed size"),
+    INVALID_CURSOR("Cursor is invalid or does not match the requested sorting"),
+    UNSUPPORTED_SORT_PROPERTY("Cursor pagination supports sorting only by id, name or price"),
 
     CART_DOES_NOT_EXIST("Cart does not exist"),
     PRODUCT_WAS_NOT_FOUND_IN_CART("Product was not found in cart"),
@@ -33,9 +37,13 @@ public enum ErrorCode {
     INSUFFICIENT_STOCK("Insufficient stock for product"),
     ORDER_CANNOT_BE_CANCELLED("Only orders with created status can be cancelled"),
     ORDER_NOT_FOUND("Order was not found"),
+    ORDER_CANCELLED_BY_CUSTOMER("Order was cancelled by the customer"),
 
     STOCK_CANT_BE_NEGATIVE("Stock cannot be negative"),
     NOT_ENOUGH_STOCK_AVAILABLE("Not enough stock available"),
+    STOCK_RESERVATION_BUSY("Stock reservation is busy, try again later"),
+    STOCK_RESERVATION_EXPIRED("Stock reservation expired before the order was completed"),
+    STOCK_CHANGE_NOT_PERSISTED("Stock change could not be persisted"),
 
     ;
 
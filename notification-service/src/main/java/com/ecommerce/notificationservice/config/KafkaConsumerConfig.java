@@ -2,6 +2,7 @@ package com.ecommerce.notificationservice.config;
 
 import com.ecommerce.notificationservice.kafka.event.OrderCancelledEvent;
 import com.ecommerce.notificationservice.kafka.event.OrderCreatedEvent;
+import com.ecommerce.notificationservice.kafka.event.StockThresholdCrossedEvent;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.springframework.beans.factory.annotation.Value;
@@ -82,4 +83,32 @@ public class KafkaConsumerConfig {
 
         return factory;
     }
+
+    @Bean
+    public ConsumerFactory<String, StockThresholdCrossedEvent> stockThresholdCrossedConsumerFactory() {
+        JsonDeserializer<StockThresholdCrossedEvent> deserializer = new JsonDeserializer<>(StockThresholdCrossedEvent.class, false);
+        deserializer.addTrustedPackages("*");
+        deserializer.setRemoveTypeHeaders(true);
+
+        Map<String, Object> props = new HashMap<>();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, deserializer);
+
+        return new DefaultKafkaConsumerFactory<>(
+                props,
+                new StringDeserializer(),
+                new ErrorHandlingDeserializer<>(deserializer)
+        );
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, StockThresholdCrossedEvent> stockThresholdCrossedListenerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, StockThresholdCrossedEvent> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(stockThresholdCrossedConsumerFactory());
+
+        return factory;
+    }
 }
@@ -0,0 +1,25 @@
+package com.ecommerce.notificationservice.kafka.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockThresholdCrossedEvent {
+
+    private Long productId;
+
+    private Level level;
+
+    private Integer freeQuantity;
+
+    public enum Level {
+        IN_STOCK,
+        LOW_STOCK,
+        SOLD_OUT
+    }
+}
@@ -0,0 +1,25 @@
+package com.ecommerce.notificationservice.kafka.listener;
+
+import com.ecommerce.notificationservice.kafka.event.StockThresholdCrossedEvent;
+import com.ecommerce.notificationservice.service.EmailService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class StockListener {
+
+    private final EmailService emailService;
+
+    @KafkaListener(
+            topics = "stock-threshold-crossed",
+            groupId = "${spring.kafka.consumer.group-id}",
+            containerFactory = "stockThresholdCrossedListenerFactory"
+    )
+    public void handleStockThresholdCrossedEvent(StockThresholdCrossedEvent event) {
+        if (event.getLevel() != StockThresholdCrossedEvent.Level.IN_STOCK) {
+            emailService.sendStockAlertEmail(event);
+        }
+    }
+}
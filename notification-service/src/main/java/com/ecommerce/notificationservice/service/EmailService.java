@@ -2,10 +2,13 @@ package com.ecommerce.notificationservice.service;
 
 import com.ecommerce.notificationservice.kafka.event.OrderCancelledEvent;
 import com.ecommerce.notificationservice.kafka.event.OrderCreatedEvent;
+import com.ecommerce.notificationservice.kafka.event.StockThresholdCrossedEvent;
 
 public interface EmailService {
 
     void sendOrderConfirmationEmail(OrderCreatedEvent event);
 
     void sendOrderCancelledEmail(OrderCancelledEvent event);
+
+    void sendStockAlertEmail(StockThresholdCrossedEvent event);
 }
@@ -2,7 +2,9 @@ package com.ecommerce.notificationservice.service;
 
 import com.ecommerce.notificationservice.kafka.event.OrderCancelledEvent;
 import com.ecommerce.notificationservice.kafka.event.OrderCreatedEvent;
+import com.ecommerce.notificationservice.kafka.event.StockThresholdCrossedEvent;
 import com.ecommerce.notificationservice.utils.OrderHtmlBuilder;
+import com.ecommerce.notificationservice.utils.StockHtmlBuilder;
 import jakarta.mail.internet.MimeMessage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -21,6 +23,9 @@ public class SpringEmailService implements EmailService {
     @Value("${spring.mail.from}")
     private String emailFrom;
 
+    @Value("${notification.stock-alert.recipient}")
+    private String stockAlertRecipient;
+
     @Override
     public void sendOrderConfirmationEmail(OrderCreatedEvent event) {
         sendEmail(emailFrom, event.getEmail(), "Order Confirmation", OrderHtmlBuilder.buildOrderCreatedHtmlContent(event));
@@ -31,6 +36,13 @@ public class SpringEmailService implements EmailService {
         sendEmail(emailFrom, event.getEmail(), "Order Cancelled", OrderHtmlBuilder.buildOrderCancelledHtmlContent(event));
     }
 
+    @Override
+    public void sendStockAlertEmail(StockThresholdCrossedEvent event) {
+        String subject = event.getLevel() == StockThresholdCrossedEvent.Level.SOLD_OUT ? "Sold Out" : "Low Stock";
+
+        sendEmail(emailFrom, stockAlertRecipient, subject + ": product #" + event.getProductId(), StockHtmlBuilder.buildStockAlertHtmlContent(event));
+    }
+
     private void sendEmail(String from, String to, String subject, String text) {
 
         try {
@@ -0,0 +1,23 @@
+package com.ecommerce.notificationservice.utils;
+
+import com.ecommerce.notificationservice.kafka.event.StockThresholdCrossedEvent;
+
+public class StockHtmlBuilder {
+
+    private StockHtmlBuilder() {}
+
+    public static String buildStockAlertHtmlContent(StockThresholdCrossedEvent event) {
+        String headline = event.getLevel() == StockThresholdCrossedEvent.Level.SOLD_OUT
+                ? "Product is sold out"
+                : "Product is running low on stock";
+
+        return new StringBuilder()
+                .append("<html><body style=\"font-family:Arial, sans-serif; line-height:1.6;\">")
+                .append("<h2 style=\"color:#2d3748\">").append(headline).append("</h2>")
+                .append("<p>Product <strong>#").append(event.getProductId()).append("</strong> has ")
+                .append(event.getFreeQuantity()).append(" units left to sell.</p>")
+                .append("<p style=\"color:gray; font-size:12px;\">&copy; 2025 E-Commerce App</p>")
+                .append("</body></html>")
+                .toString();
+    }
+}
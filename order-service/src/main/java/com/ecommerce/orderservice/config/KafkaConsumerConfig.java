@@ -1,5 +1,6 @@
 package com.ecommerce.orderservice.config;
 
+import com.ecommerce.orderservice.kafka.event.StockItemReservationResultEvent;
 import com.ecommerce.orderservice.kafka.event.StockReservationFailedEvent;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.common.serialization.StringDeserializer;
@@ -51,4 +52,33 @@ public class KafkaConsumerConfig {
 
         return factory;
     }
+
+    @Bean
+    public ConsumerFactory<String, StockItemReservationResultEvent> stockItemReservationResultConsumerFactory() {
+        JsonDeserializer<StockItemReservationResultEvent> jsonDeserializer = new JsonDeserializer<>(StockItemReservationResultEvent.class, false);
+        jsonDeserializer.addTrustedPackages("*");
+        jsonDeserializer.setRemoveTypeHeaders(true);
+
+        Map<String, Object> props = new HashMap<>();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ConsumerConfig.GROUP_ID_CONFIG, "order-service");
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class);
+
+        return new DefaultKafkaConsumerFactory<>(
+                props,
+                new StringDeserializer(),
+                new ErrorHandlingDeserializer<>(jsonDeserializer)
+        );
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, StockItemReservationResultEvent> stockItemReservationResultListenerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, StockItemReservationResultEvent> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(stockItemReservationResultConsumerFactory());
+
+        return factory;
+    }
 }
@@ -26,6 +26,15 @@ public class KafkaTopicConfig {
                 .build();
     }
 
+    @Bean
+    public NewTopic orderConfirmedTopic() {
+        return TopicBuilder
+                .name("order-confirmed")
+                .partitions(3)
+                .replicas(1)
+                .build();
+    }
+
     @Bean
     public NewTopic orderReservedTopic() {
         return TopicBuilder
@@ -34,4 +43,13 @@ public class KafkaTopicConfig {
                 .replicas(1)
                 .build();
     }
+
+    @Bean
+    public NewTopic stockItemReserveRequestedTopic() {
+        return TopicBuilder
+                .name("stock-item-reserve-requested")
+                .partitions(12)
+                .replicas(1)
+                .build();
+    }
 }
@@ -19,6 +19,8 @@ public class OrderResponse {
 
     private String status;
 
+    private boolean stockReserved;
+
     private LocalDateTime createdAt;
 
     private List<OrderItemResponse> items;
@@ -0,0 +1,15 @@
+package com.ecommerce.orderservice.kafka.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderConfirmedEvent {
+
+    private Long orderId;
+}
@@ -0,0 +1,19 @@
+package com.ecommerce.orderservice.kafka.event;
+
+import lombok.*;
+
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockItemReservationResultEvent {
+
+    private Long orderId;
+
+    private Long productId;
+
+    private boolean reserved;
+
+    private String reason;
+}
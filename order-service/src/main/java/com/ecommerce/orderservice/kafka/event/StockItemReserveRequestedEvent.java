@@ -0,0 +1,17 @@
+package com.ecommerce.orderservice.kafka.event;
+
+import lombok.*;
+
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockItemReserveRequestedEvent {
+
+    private Long orderId;
+
+    private Long productId;
+
+    private Integer quantity;
+}
@@ -1,5 +1,6 @@
 package com.ecommerce.orderservice.kafka.listener;
 
+import com.ecommerce.orderservice.kafka.event.StockItemReservationResultEvent;
 import com.ecommerce.orderservice.kafka.event.StockReservationFailedEvent;
 import com.ecommerce.orderservice.service.OrderService;
 import lombok.RequiredArgsConstructor;
@@ -24,4 +25,15 @@ public class StockEventListener {
         log.warn("Order reservation failed: {}", event);
         orderService.cancelOrder(event.getOrderId(), event.getReason());
     }
+
+    @KafkaListener(
+            topics = "stock-item-reservation-result",
+            groupId = "order-service",
+            containerFactory = "stockItemReservationResultListenerFactory"
+    )
+    public void handleStockItemReservationResult(StockItemReservationResultEvent event) {
+        log.info("StockEventListener handleStockItemReservationResult - order: {}, product: {}, reserved: {}",
+                event.getOrderId(), event.getProductId(), event.isReserved());
+        orderService.applyStockReservationResult(event);
+    }
 }
@@ -1,6 +1,7 @@
 package com.ecommerce.orderservice.kafka.publisher;
 
 import com.ecommerce.orderservice.kafka.event.OrderCancelledEvent;
+import com.ecommerce.orderservice.kafka.event.OrderConfirmedEvent;
 import com.ecommerce.orderservice.kafka.event.OrderCreatedEvent;
 import lombok.RequiredArgsConstructor;
 import org.springframework.kafka.core.KafkaTemplate;
@@ -19,4 +20,8 @@ public class OrderEventPublisher {
     public void publishOrderCancelledEvent(OrderCancelledEvent event) {
         kafkaTemplate.send("order-cancelled", String.valueOf(event.getOrderId()), event);
     }
+
+    public void publishOrderConfirmedEvent(OrderConfirmedEvent event) {
+        kafkaTemplate.send("order-confirmed", String.valueOf(event.getOrderId()), event);
+    }
 }
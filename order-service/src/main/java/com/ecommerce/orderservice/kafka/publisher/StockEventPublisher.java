@@ -1,6 +1,6 @@
 package com.ecommerce.orderservice.kafka.publisher;
 
-import com.ecommerce.orderservice.kafka.event.StockReserveRequestedEvent;
+import com.ecommerce.orderservice.kafka.event.StockItemReserveRequestedEvent;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.core.KafkaTemplate;
@@ -13,8 +13,12 @@ public class StockEventPublisher {
 
     private final KafkaTemplate<String, Object> kafkaTemplate;
 
-    public void publish(StockReserveRequestedEvent event) {
-        log.info("Publishing stock reserve requested event: {}", event);
-        kafkaTemplate.send("stock-reserve-requested", String.valueOf(event.getOrderId()), event);
+    /**
+     * Keyed by productId so all commands for a product land on one partition and are applied
+     * in order by a single stock-service consumer.
+     */
+    public void publish(StockItemReserveRequestedEvent event) {
+        log.info("Publishing stock item reserve requested event: {}", event);
+        kafkaTemplate.send("stock-item-reserve-requested", String.valueOf(event.getProductId()), event);
     }
 }
@@ -2,6 +2,7 @@ package com.ecommerce.orderservice.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -62,6 +63,10 @@ public class Order {
 
     private LocalDateTime updatedAt;
 
+    @Column(nullable = false)
+    @ColumnDefault("false")
+    private boolean stockReserved;
+
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true, fetch = LAZY)
     private List<OrderItem> items;
 
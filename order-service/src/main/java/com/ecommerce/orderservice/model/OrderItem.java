@@ -2,6 +2,7 @@ package com.ecommerce.orderservice.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.math.BigDecimal;
 
@@ -32,6 +33,10 @@ public class OrderItem {
     @Column(nullable = false)
     private Integer quantity;
 
+    @Column(nullable = false)
+    @ColumnDefault("false")
+    private boolean stockReserved;
+
     @ManyToOne(fetch = LAZY)
     @JoinColumn(name = "order_id")
     private Order order;
@@ -10,8 +10,10 @@ import com.ecommerce.orderservice.dto.OrderResponse;
 import com.ecommerce.orderservice.kafka.publisher.OrderEventPublisher;
 import com.ecommerce.orderservice.kafka.publisher.StockEventPublisher;
 import com.ecommerce.orderservice.kafka.event.OrderCancelledEvent;
+import com.ecommerce.orderservice.kafka.event.OrderConfirmedEvent;
 import com.ecommerce.orderservice.kafka.event.OrderCreatedEvent;
-import com.ecommerce.orderservice.kafka.event.StockReserveRequestedEvent;
+import com.ecommerce.orderservice.kafka.event.StockItemReservationResultEvent;
+import com.ecommerce.orderservice.kafka.event.StockItemReserveRequestedEvent;
 import com.ecommerce.orderservice.mapper.OrderEventMapper;
 import com.ecommerce.orderservice.mapper.OrderMapper;
 import com.ecommerce.orderservice.model.Order;
@@ -106,12 +108,9 @@ public class OrderService {
 
         orderEventPublisher.publishOrderCreatedEvent(orderCreatedEvent);
 
-        List<StockReserveRequestedEvent.ReserveItem> reserveItems = savedOrder.getItems()
-                .stream()
-                .map(item -> new StockReserveRequestedEvent.ReserveItem(item.getProductId(), item.getQuantity()))
-                .toList();
-        StockReserveRequestedEvent stockReserveRequestedEvent = new StockReserveRequestedEvent(savedOrder.getId(), reserveItems);
-        stockEventPublisher.publish(stockReserveRequestedEvent);
+        savedOrder.getItems().forEach(item -> stockEventPublisher.publish(
+                new StockItemReserveRequestedEvent(savedOrder.getId(), item.getProductId(), item.getQuantity())
+        ));
 
         if (userId != null) {
             cartClient.clearCart(userId);
@@ -147,16 +146,53 @@ public class OrderService {
 
         order.setOrderStatus(OrderStatus.CANCELLED);
         orderRepository.save(order);
+
+        orderEventPublisher.publishOrderCancelledEvent(
+                new OrderCancelledEvent(orderId, order.getEmail(), ErrorCode.ORDER_CANCELLED_BY_CUSTOMER.getMessage())
+        );
     }
 
     @Transactional
     public void cancelOrder(Long orderId, String reason) {
-        orderRepository.findById(orderId).ifPresent(order -> {
-            order.setOrderStatus(OrderStatus.CANCELLED);
-            orderRepository.save(order);
+        orderRepository.findById(orderId)
+                .filter(order -> order.getOrderStatus() == OrderStatus.CREATED)
+                .ifPresent(order -> {
+                    order.setOrderStatus(OrderStatus.CANCELLED);
+                    orderRepository.save(order);
+
+                    orderEventPublisher.publishOrderCancelledEvent(new OrderCancelledEvent(orderId, order.getEmail(), reason));
+                });
+    }
 
-            orderEventPublisher.publishOrderCancelledEvent(new OrderCancelledEvent(orderId, order.getEmail(), reason));
-        });
+    /**
+     * Aggregates the per-product reservation results of an order. Results are keyed by orderId,
+     * so all results of one order are applied sequentially. The first rejected item cancels the
+     * order, which releases the items that were already reserved; the order counts as reserved
+     * once every item has been confirmed, and is then confirmed to the stock service so its
+     * holds no longer expire.
+     */
+    @Transactional
+    public void applyStockReservationResult(StockItemReservationResultEvent result) {
+        if (!result.isReserved()) {
+            cancelOrder(result.getOrderId(), result.getReason());
+            return;
+        }
+
+        orderRepository.findById(result.getOrderId())
+                .filter(order -> order.getOrderStatus() == OrderStatus.CREATED && !order.isStockReserved())
+                .ifPresent(order -> {
+                    order.getItems()
+                            .stream()
+                            .filter(item -> item.getProductId().equals(result.getProductId()))
+                            .forEach(item -> item.setStockReserved(true));
+
+                    order.setStockReserved(order.getItems().stream().allMatch(OrderItem::isStockReserved));
+                    orderRepository.save(order);
+
+                    if (order.isStockReserved()) {
+                        orderEventPublisher.publishOrderConfirmedEvent(new OrderConfirmedEvent(order.getId()));
+                    }
+                });
     }
 
     private Order getOrderByIdAndUserIdOrThrow(Long orderId, Long userId) {
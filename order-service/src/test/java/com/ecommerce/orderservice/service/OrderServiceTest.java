@@ -6,13 +6,16 @@ import com.ecommerce.exceptionlib.exception.NotFoundException;
 import com.ecommerce.orderservice.client.CartClient;
 import com.ecommerce.orderservice.dto.*;
 import com.ecommerce.orderservice.kafka.event.OrderCancelledEvent;
+import com.ecommerce.orderservice.kafka.event.OrderConfirmedEvent;
 import com.ecommerce.orderservice.kafka.event.OrderCreatedEvent;
-import com.ecommerce.orderservice.kafka.event.StockReserveRequestedEvent;
+import com.ecommerce.orderservice.kafka.event.StockItemReservationResultEvent;
+import com.ecommerce.orderservice.kafka.event.StockItemReserveRequestedEvent;
 import com.ecommerce.orderservice.kafka.publisher.OrderEventPublisher;
 import com.ecommerce.orderservice.kafka.publisher.StockEventPublisher;
 import com.ecommerce.orderservice.mapper.OrderEventMapper;
 import com.ecommerce.orderservice.mapper.OrderMapper;
 import com.ecommerce.orderservice.model.Order;
+import com.ecommerce.orderservice.model.OrderItem;
 import com.ecommerce.orderservice.model.OrderStatus;
 import com.ecommerce.orderservice.repository.OrderRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -165,7 +168,11 @@ class OrderServiceTest {
             assertEquals(expectedResponse, result);
             verify(orderRepository, times(1)).save(any(Order.class));
             verify(orderEventPublisher, times(1)).publishOrderCreatedEvent(orderCreatedEvent);
-            verify(stockEventPublisher, times(1)).publish(any(StockReserveRequestedEvent.class));
+            ArgumentCaptor<StockItemReserveRequestedEvent> reserveEvent = ArgumentCaptor.forClass(StockItemReserveRequestedEvent.class);
+            verify(stockEventPublisher, times(1)).publish(reserveEvent.capture());
+            assertEquals(1L, reserveEvent.getValue().getOrderId());
+            assertEquals(1L, reserveEvent.getValue().getProductId());
+            assertEquals(2, reserveEvent.getValue().getQuantity());
             verify(cartClient, times(1)).clearCart(1L);
         }
 
@@ -199,7 +206,7 @@ class OrderServiceTest {
             assertEquals(expectedResponse, result);
             verify(orderRepository, times(1)).save(any(Order.class));
             verify(orderEventPublisher).publishOrderCreatedEvent(orderCreatedEvent);
-            verify(stockEventPublisher).publish(any(StockReserveRequestedEvent.class));
+            verify(stockEventPublisher).publish(any(StockItemReserveRequestedEvent.class));
             verify(cartClient).clearAnonymousCart("session");
         }
 
@@ -320,6 +327,7 @@ class OrderServiceTest {
             verify(orderRepository, times(1)).findByIdAndUserId(1L, 1L);
             verify(orderRepository, times(1)).save(orderArgumentCaptor.capture());
             assertEquals(OrderStatus.CANCELLED, orderArgumentCaptor.getValue().getOrderStatus());
+            verify(orderEventPublisher, times(1)).publishOrderCancelledEvent(any(OrderCancelledEvent.class));
         }
 
         @Test
@@ -334,6 +342,19 @@ class OrderServiceTest {
             verify(orderEventPublisher, times(1)).publishOrderCancelledEvent(any(OrderCancelledEvent.class));
         }
 
+        @Test
+        public void cancelOrder_shouldNotCancelOrderThatIsNoLongerCreated() {
+            order.setOrderStatus(OrderStatus.SHIPPED);
+
+            when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
+
+            orderService.cancelOrder(1L, ErrorCode.STOCK_RESERVATION_EXPIRED.getMessage());
+
+            assertEquals(OrderStatus.SHIPPED, order.getOrderStatus());
+            verify(orderRepository, never()).save(any(Order.class));
+            verifyNoInteractions(orderEventPublisher);
+        }
+
         @Test
         public void cancelOrder_shouldNotCancelOrderAndShouldNotPublishEvent() {
             when(orderRepository.findById(1L)).thenReturn(Optional.empty());
@@ -345,4 +366,58 @@ class OrderServiceTest {
             verifyNoMoreInteractions(orderRepository, orderEventPublisher);
         }
     }
-}
\ No newline at end of file
+
+    @Nested
+    @DisplayName("applyStockReservationResult() tests")
+    class ApplyStockReservationResult {
+        @BeforeEach
+        void setUp() {
+            order.setItems(List.of(
+                    OrderItem.builder().productId(1L).quantity(1).build(),
+                    OrderItem.builder().productId(2L).quantity(3).build()
+            ));
+        }
+
+        @Test
+        public void applyStockReservationResult_shouldMarkOrderReservedOnceAllItemsAreReserved() {
+            when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
+
+            orderService.applyStockReservationResult(new StockItemReservationResultEvent(1L, 1L, true, null));
+
+            assertFalse(order.isStockReserved());
+            assertTrue(order.getItems().getFirst().isStockReserved());
+
+            orderService.applyStockReservationResult(new StockItemReservationResultEvent(1L, 2L, true, null));
+
+            assertTrue(order.isStockReserved());
+            verify(orderRepository, times(2)).save(order);
+            verify(orderEventPublisher, times(1)).publishOrderConfirmedEvent(any(OrderConfirmedEvent.class));
+            verify(orderEventPublisher, never()).publishOrderCancelledEvent(any());
+        }
+
+        @Test
+        public void applyStockReservationResult_shouldCancelOrder_whenItemWasRejected() {
+            when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
+
+            orderService.applyStockReservationResult(
+                    new StockItemReservationResultEvent(1L, 2L, false, ErrorCode.NOT_ENOUGH_STOCK_AVAILABLE.getMessage())
+            );
+
+            assertEquals(OrderStatus.CANCELLED, order.getOrderStatus());
+            assertFalse(order.isStockReserved());
+            verify(orderEventPublisher, times(1)).publishOrderCancelledEvent(any(OrderCancelledEvent.class));
+        }
+
+        @Test
+        public void applyStockReservationResult_shouldIgnoreResultsForCancelledOrder() {
+            order.setOrderStatus(OrderStatus.CANCELLED);
+
+            when(orderRepository.findById(1L)).thenReturn(Optional.of(order));
+
+            orderService.applyStockReservationResult(new StockItemReservationResultEvent(1L, 1L, true, null));
+
+            assertFalse(order.getItems().getFirst().isStockReserved());
+            verify(orderRepository, never()).save(any(Order.class));
+        }
+    }
+}
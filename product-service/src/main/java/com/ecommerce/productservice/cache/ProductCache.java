@@ -0,0 +1,54 @@
+package com.ecommerce.productservice.cache;
+
+import com.ecommerce.productservice.dto.ProductResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Bounded read-through cache of catalog data keyed by product ID.
+ * Cached responses never carry stock, callers overlay availability on a copy.
+ */
+@Component
+public class ProductCache {
+
+    private final Cache<Long, ProductResponse> cache;
+
+    public ProductCache(
+            @Value("${product.cache.maximum-size}") long maximumSize,
+            @Value("${product.cache.expire-after-write}") Duration expireAfterWrite,
+            MeterRegistry meterRegistry
+    ) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "products");
+    }
+
+    public ProductResponse get(Long productId, Function<Long, ProductResponse> loader) {
+        return cache.get(productId, loader);
+    }
+
+    public Map<Long, ProductResponse> getAll(
+            Collection<Long> productIds,
+            Function<Set<? extends Long>, Map<Long, ProductResponse>> loader
+    ) {
+        return cache.getAll(productIds, loader);
+    }
+
+    public void evict(Long productId) {
+        cache.invalidate(productId);
+    }
+}
@@ -1,6 +1,7 @@
 package com.ecommerce.productservice.client;
 
 import com.ecommerce.productservice.dto.CreateStockRequest;
+import com.ecommerce.productservice.dto.CreateStocksRequest;
 import com.ecommerce.productservice.dto.StockResponse;
 import org.springframework.cloud.openfeign.CollectionFormat;
 import org.springframework.cloud.openfeign.FeignClient;
@@ -20,4 +21,7 @@ public interface StockClient {
 
     @PostMapping("/{productId}")
     StockResponse createStock(@PathVariable("productId") Long productId, @RequestBody CreateStockRequest createStockRequest);
+
+    @PostMapping("/batch")
+    List<StockResponse> createStocks(@RequestBody CreateStocksRequest createStocksRequest);
 }
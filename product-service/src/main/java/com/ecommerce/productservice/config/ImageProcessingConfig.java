@@ -0,0 +1,33 @@
+package com.ecommerce.productservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@EnableAsync
+@Configuration
+public class ImageProcessingConfig {
+
+    @Value("${product.image.derivatives.pool-size}")
+    private int poolSize;
+
+    @Value("${product.image.derivatives.queue-capacity}")
+    private int queueCapacity;
+
+    @Bean
+    public ThreadPoolTaskExecutor imageDerivativeExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("image-derivatives-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+
+        return executor;
+    }
+}
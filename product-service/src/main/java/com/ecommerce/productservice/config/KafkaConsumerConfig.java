@@ -0,0 +1,93 @@
+package com.ecommerce.productservice.config;
+
+import com.ecommerce.productservice.kafka.event.StockChangedEvent;
+import com.ecommerce.productservice.kafka.event.StockThresholdCrossedEvent;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@EnableKafka
+@Configuration
+public class KafkaConsumerConfig {
+
+    private static final int SNAPSHOT_MAX_POLL_RECORDS = 5000;
+
+    private static final long SNAPSHOT_IDLE_INTERVAL_MS = 5000;
+
+    @Value("${kafka.bootstrap-servers}")
+    private String bootstrapServers;
+
+    @Bean
+    public ConsumerFactory<String, StockChangedEvent> stockLevelsConsumerFactory() {
+        JsonDeserializer<StockChangedEvent> jsonDeserializer = new JsonDeserializer<>(StockChangedEvent.class, false);
+        jsonDeserializer.addTrustedPackages("*");
+        jsonDeserializer.setRemoveTypeHeaders(true);
+
+        Map<String, Object> props = new HashMap<>();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, SNAPSHOT_MAX_POLL_RECORDS);
+
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class);
+
+        return new DefaultKafkaConsumerFactory<>(
+                props,
+                new StringDeserializer(),
+                new ErrorHandlingDeserializer<>(jsonDeserializer)
+        );
+    }
+
+    /**
+     * Batch container with large polls so the snapshot replay is fast. The idle event marks the
+     * end of a replay that delivered no records at all.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, StockChangedEvent> stockLevelsListenerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, StockChangedEvent> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(stockLevelsConsumerFactory());
+        factory.setBatchListener(true);
+        factory.getContainerProperties().setIdleEventInterval(SNAPSHOT_IDLE_INTERVAL_MS);
+
+        return factory;
+    }
+
+    @Bean
+    public ConsumerFactory<String, StockThresholdCrossedEvent> stockThresholdCrossedConsumerFactory() {
+        JsonDeserializer<StockThresholdCrossedEvent> jsonDeserializer = new JsonDeserializer<>(StockThresholdCrossedEvent.class, false);
+        jsonDeserializer.addTrustedPackages("*");
+        jsonDeserializer.setRemoveTypeHeaders(true);
+
+        Map<String, Object> props = new HashMap<>();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class);
+
+        return new DefaultKafkaConsumerFactory<>(
+                props,
+                new StringDeserializer(),
+                new ErrorHandlingDeserializer<>(jsonDeserializer)
+        );
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, StockThresholdCrossedEvent> stockThresholdCrossedListenerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, StockThresholdCrossedEvent> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(stockThresholdCrossedConsumerFactory());
+
+        return factory;
+    }
+}
@@ -0,0 +1,25 @@
+package com.ecommerce.productservice.config;
+
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.common.config.TopicConfig;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+
+import java.time.Duration;
+
+@Configuration
+public class KafkaTopicConfig {
+
+    @Bean
+    public NewTopic productSnapshotsTopic() {
+        return TopicBuilder
+                .name("product-snapshots")
+                .partitions(3)
+                .replicas(1)
+                .compact()
+                .config(TopicConfig.MIN_CLEANABLE_DIRTY_RATIO_CONFIG, "0.1")
+                .config(TopicConfig.SEGMENT_MS_CONFIG, String.valueOf(Duration.ofHours(1).toMillis()))
+                .build();
+    }
+}
@@ -1,21 +0,0 @@
-package com.ecommerce.productservice.config;
-
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.context.annotation.Configuration;
-import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
-import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
-
-import java.nio.file.Paths;
-
-@Configuration
-public class StaticResourceConfig implements WebMvcConfigurer {
-
-    @Value("${product.image.upload-dir}")
-    private String uploadDir;
-
-    @Override
-    public void addResourceHandlers(ResourceHandlerRegistry registry) {
-        registry.addResourceHandler("/images/**")
-                .addResourceLocations("file:" + Paths.get(uploadDir).toAbsolutePath() + "/");
-    }
-}
@@ -0,0 +1,30 @@
+package com.ecommerce.productservice.controller;
+
+import com.ecommerce.productservice.image.ImageResponseWriter;
+import com.ecommerce.productservice.service.ImageService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/images")
+@RequiredArgsConstructor
+public class ImageController {
+
+    private final ImageService imageService;
+
+    private final ImageResponseWriter imageResponseWriter;
+
+    @GetMapping("/{fileName:.+}")
+    public void getImage(
+            @PathVariable("fileName") String fileName,
+            @RequestParam(value = "size", required = false) String size,
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) throws IOException {
+        imageResponseWriter.write(imageService.resolveImage(fileName, size), request, response);
+    }
+}
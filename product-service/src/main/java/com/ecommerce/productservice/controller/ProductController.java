@@ -3,16 +3,20 @@ package com.ecommerce.productservice.controller;
 import com.ecommerce.productservice.dto.*;
 import com.ecommerce.productservice.model.Product;
 import com.ecommerce.productservice.service.ImageService;
+import com.ecommerce.productservice.service.ProductImportService;
 import com.ecommerce.productservice.service.ProductService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
 import java.util.List;
 
 @RestController
@@ -24,6 +28,8 @@ public class ProductController {
 
     private final ImageService imageService;
 
+    private final ProductImportService productImportService;
+
     @GetMapping("/{productId}")
     public ResponseEntity<ProductResponse> getProductById(@PathVariable("productId") Long productId) {
         return ResponseEntity.ok(productService.getProductById(productId));
@@ -34,7 +40,25 @@ public class ProductController {
         Pageable pageable = filterRequest.toPageable();
         Specification<Product> specification = filterRequest.toSpecification();
 
-        return ResponseEntity.ok(productService.getAllProducts(pageable, specification));
+        return ResponseEntity.ok(productService.getAllProducts(pageable, specification, filterRequest.getKeyWord()));
+    }
+
+    @GetMapping(params = "facets=true")
+    public ResponseEntity<FacetedPagedResponse<ProductResponse>> getProductsWithFacets(@Valid ProductFilterRequest filterRequest) {
+        Pageable pageable = filterRequest.toPageable();
+        Specification<Product> specification = filterRequest.toSpecification();
+
+        return ResponseEntity.ok(productService.getAllProductsWithFacets(
+                pageable,
+                specification,
+                filterRequest.getKeyWord(),
+                filterRequest.getPriceBuckets()
+        ));
+    }
+
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorPagedResponse<ProductResponse>> scrollProducts(@Valid ProductFilterRequest filterRequest) {
+        return ResponseEntity.ok(productService.scrollProducts(filterRequest));
     }
 
     @GetMapping("/batch")
@@ -49,6 +73,15 @@ public class ProductController {
         return new ResponseEntity<>(product, HttpStatus.CREATED);
     }
 
+    @PostMapping(value = "/admin/import", consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<ProductImportResponse> importProducts(HttpServletRequest request) throws IOException {
+        ProductImportService.Format format = MediaType.APPLICATION_NDJSON.isCompatibleWith(MediaType.parseMediaType(request.getContentType()))
+                ? ProductImportService.Format.NDJSON
+                : ProductImportService.Format.CSV;
+
+        return ResponseEntity.ok(productImportService.importProducts(request.getInputStream(), format));
+    }
+
     @PutMapping("/admin/{productId}")
     public ResponseEntity<Void> updateProduct(@PathVariable("productId") Long productId, @Valid @RequestBody UpdateProductRequest request) {
         productService.updateProduct(productId, request);
@@ -68,6 +101,11 @@ public class ProductController {
         return ResponseEntity.ok(imageService.saveImage(file));
     }
 
+    @PostMapping(value = "/admin/images", consumes = {MediaType.IMAGE_JPEG_VALUE, MediaType.IMAGE_PNG_VALUE, MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<String> uploadImageStream(HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok(imageService.saveImage(request.getInputStream(), request.getContentLengthLong()));
+    }
+
     @PatchMapping("/admin/{productId}/images")
     public ResponseEntity<String> updateProductImage(
             @PathVariable("productId") Long productId,
@@ -75,4 +113,12 @@ public class ProductController {
     ) {
         return ResponseEntity.ok(productService.updateProductImage(productId, file));
     }
+
+    @PatchMapping(value = "/admin/{productId}/images", consumes = {MediaType.IMAGE_JPEG_VALUE, MediaType.IMAGE_PNG_VALUE, MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<String> updateProductImageStream(
+            @PathVariable("productId") Long productId,
+            HttpServletRequest request
+    ) throws IOException {
+        return ResponseEntity.ok(productService.updateProductImage(productId, request.getInputStream(), request.getContentLengthLong()));
+    }
 }
@@ -0,0 +1,28 @@
+package com.ecommerce.productservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CreateStocksRequest {
+
+    private List<StockItem> stocks;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class StockItem {
+
+        private Long productId;
+
+        private Integer availableQuantity;
+    }
+}
@@ -0,0 +1,12 @@
+package com.ecommerce.productservice.dto;
+
+import java.util.List;
+
+public record CursorPagedResponse<T>(
+        List<T> content,
+        int pageSize,
+        String nextCursor,
+        boolean hasNextPage,
+        Long totalElements
+) {
+}
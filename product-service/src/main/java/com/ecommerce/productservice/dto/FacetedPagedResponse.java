@@ -0,0 +1,28 @@
+package com.ecommerce.productservice.dto;
+
+import java.util.List;
+
+public record FacetedPagedResponse<T>(
+        List<T> content,
+        int pageNumber,
+        int pageSize,
+        long totalElements,
+        int totalPages,
+        boolean hasPreviousPage,
+        boolean hasNextPage,
+        ProductFacetsResponse facets
+) {
+
+    public static <T> FacetedPagedResponse<T> of(PagedResponse<T> page, ProductFacetsResponse facets) {
+        return new FacetedPagedResponse<>(
+                page.content(),
+                page.pageNumber(),
+                page.pageSize(),
+                page.totalElements(),
+                page.totalPages(),
+                page.hasPreviousPage(),
+                page.hasNextPage(),
+                facets
+        );
+    }
+}
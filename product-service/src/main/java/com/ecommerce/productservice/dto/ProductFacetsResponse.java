@@ -0,0 +1,24 @@
+package com.ecommerce.productservice.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public record ProductFacetsResponse(
+        List<CategoryFacet> categories,
+        List<PriceBucketFacet> priceBuckets
+) {
+
+    public record CategoryFacet(
+            Long categoryId,
+            String categoryName,
+            long count
+    ) {
+    }
+
+    public record PriceBucketFacet(
+            BigDecimal from,
+            BigDecimal to,
+            long count
+    ) {
+    }
+}
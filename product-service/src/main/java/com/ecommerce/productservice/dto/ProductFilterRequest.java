@@ -4,6 +4,8 @@ import com.ecommerce.productservice.model.Product;
 import com.ecommerce.productservice.specification.ProductSpecifications;
 import jakarta.validation.constraints.AssertTrue;
 import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.data.domain.PageRequest;
@@ -20,6 +22,7 @@ public class ProductFilterRequest {
 
     private Integer pageNumber = 0;
 
+    @Min(value = 1, message = "Page size must be at least 1")
     private Integer pageSize = 10;
 
     private List<Long> categoryIds;
@@ -36,6 +39,19 @@ public class ProductFilterRequest {
 
     private String sortDirection = "asc";
 
+    private String cursor;
+
+    private boolean includeTotal = false;
+
+    @Size(max = 20, message = "At most 20 price bucket boundaries are allowed")
+    private List<BigDecimal> priceBuckets = List.of(
+            BigDecimal.valueOf(25),
+            BigDecimal.valueOf(50),
+            BigDecimal.valueOf(100),
+            BigDecimal.valueOf(250),
+            BigDecimal.valueOf(500)
+    );
+
     @AssertTrue(message = "Minimum price must be less than or equal to maximum price")
     public boolean isPriceValid() {
         if (minPrice == null || maxPrice == null) {
@@ -45,16 +61,48 @@ public class ProductFilterRequest {
         return minPrice.compareTo(maxPrice) <= 0;
     }
 
+    @AssertTrue(message = "Price bucket boundaries must be positive and in ascending order")
+    public boolean isPriceBucketsValid() {
+        if (priceBuckets == null) {
+            return true;
+        }
+
+        for (int i = 0; i < priceBuckets.size(); i++) {
+            BigDecimal boundary = priceBuckets.get(i);
+
+            if (boundary == null || boundary.signum() <= 0) {
+                return false;
+            }
+            if (i > 0 && priceBuckets.get(i - 1).compareTo(boundary) >= 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
     public Pageable toPageable()  {
         return PageRequest.of(
                 pageNumber,
                 pageSize,
-                sortDirection.equalsIgnoreCase("desc")
+                isDescending()
                         ? Sort.by(sortBy).descending()
                         : Sort.by(sortBy).ascending()
         );
     }
 
+    public Sort toKeysetSort() {
+        Sort.Direction direction = isDescending() ? Sort.Direction.DESC : Sort.Direction.ASC;
+
+        return sortBy.equals("id")
+                ? Sort.by(direction, "id")
+                : Sort.by(direction, sortBy, "id");
+    }
+
+    public boolean isDescending() {
+        return sortDirection.equalsIgnoreCase("desc");
+    }
+
     public Specification<Product> toSpecification() {
         Specification<Product> specification = Specification.where(null);
 
@@ -67,9 +115,6 @@ public class ProductFilterRequest {
         if (maxPrice != null) {
             specification = specification.and(ProductSpecifications.hasMaxPrice(maxPrice));
         }
-        if (keyWord != null && !keyWord.isBlank()) {
-            specification = specification.and(ProductSpecifications.nameOrDescriptionContains(keyWord));
-        }
 
         return specification;
     }
@@ -0,0 +1,13 @@
+package com.ecommerce.productservice.dto;
+
+import java.util.List;
+
+public record ProductImportResponse(
+        long imported,
+        long failed,
+        List<RowFailure> failures
+) {
+
+    public record RowFailure(long row, String message) {
+    }
+}
@@ -6,7 +6,7 @@ import java.math.BigDecimal;
 
 @Getter
 @Setter
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class ProductResponse {
@@ -23,4 +23,6 @@ public class ProductResponse {
     private Integer availableQuantity;
 
     private String imageUrl;
+
+    private boolean soldOut;
 }
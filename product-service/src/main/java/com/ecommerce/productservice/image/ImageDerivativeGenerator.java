@@ -0,0 +1,136 @@
+package com.ecommerce.productservice.image;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Renders the {@link ImageVariant} derivatives of an uploaded original next to it.
+ * Variants are rendered from largest to smallest, each one downscaled from the previous.
+ */
+@Slf4j
+@Component
+public class ImageDerivativeGenerator {
+
+    private final float jpegQuality;
+
+    public ImageDerivativeGenerator(@Value("${product.image.derivatives.jpeg-quality}") float jpegQuality) {
+        this.jpegQuality = jpegQuality;
+    }
+
+    @Async("imageDerivativeExecutor")
+    public void generateAsync(Path original) {
+        try {
+            generate(original);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to generate derivatives for image {}", original.getFileName(), e);
+        }
+    }
+
+    public void generate(Path original) throws IOException {
+        BufferedImage source = ImageIO.read(original.toFile());
+
+        if (source == null) {
+            log.warn("Image {} could not be decoded, derivatives were not generated", original.getFileName());
+            return;
+        }
+
+        String fileName = original.getFileName().toString();
+        boolean png = fileName.toLowerCase().endsWith(".png");
+
+        BufferedImage current = source;
+
+        for (ImageVariant variant : ImageVariant.values()) {
+            if (!Files.exists(original)) {
+                return;
+            }
+
+            current = resize(current, variant.getMaxDimension(), png);
+            write(current, original.resolveSibling(variant.fileName(fileName)), png);
+        }
+    }
+
+    private BufferedImage resize(BufferedImage source, int maxDimension, boolean keepAlpha) {
+        double scale = Math.min(1.0, (double) maxDimension / Math.max(source.getWidth(), source.getHeight()));
+        int targetWidth = Math.max(1, (int) Math.round(source.getWidth() * scale));
+        int targetHeight = Math.max(1, (int) Math.round(source.getHeight() * scale));
+
+        BufferedImage current = source;
+        int width = source.getWidth();
+        int height = source.getHeight();
+
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+
+            current = draw(current, width, height, keepAlpha);
+        } while (width != targetWidth || height != targetHeight);
+
+        return current;
+    }
+
+    private BufferedImage draw(BufferedImage source, int width, int height, boolean keepAlpha) {
+        BufferedImage target = new BufferedImage(width, height, keepAlpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+
+        try {
+            if (!keepAlpha) {
+                graphics.setColor(Color.WHITE);
+                graphics.fillRect(0, 0, width, height);
+            }
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+
+        return target;
+    }
+
+    private void write(BufferedImage image, Path destination, boolean png) throws IOException {
+        Path temp = Files.createTempFile(destination.getParent(), ".derivative-", ".tmp");
+
+        try {
+            if (png) {
+                ImageIO.write(image, "png", temp.toFile());
+            } else {
+                writeJpeg(image, temp);
+            }
+
+            Files.move(temp, destination, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private void writeJpeg(BufferedImage image, Path destination) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(jpegQuality);
+        param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(destination.toFile())) {
+            writer.setOutput(output);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+}
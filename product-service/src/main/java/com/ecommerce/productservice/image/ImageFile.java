@@ -0,0 +1,10 @@
+package com.ecommerce.productservice.image;
+
+import java.nio.file.Path;
+
+/**
+ * Image resolved for a request. {@code immutable} is false when an original
+ * is served in place of a derivative that is not generated yet.
+ */
+public record ImageFile(Path path, boolean immutable) {
+}
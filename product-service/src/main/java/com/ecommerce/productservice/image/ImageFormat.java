@@ -0,0 +1,29 @@
+package com.ecommerce.productservice.image;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+@Getter
+@RequiredArgsConstructor
+public enum ImageFormat {
+
+    JPEG(".jpg", new byte[]{(byte) 0xFF, (byte) 0xD8, (byte) 0xFF}),
+    PNG(".png", new byte[]{(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'});
+
+    private final String extension;
+
+    private final byte[] signature;
+
+    public static Optional<ImageFormat> detect(byte[] header, int length) {
+        return Arrays.stream(values())
+                .filter(format -> format.matches(header, length))
+                .findFirst();
+    }
+
+    private boolean matches(byte[] header, int length) {
+        return length >= signature.length && Arrays.equals(header, 0, signature.length, signature, 0, signature.length);
+    }
+}
@@ -0,0 +1,138 @@
+package com.ecommerce.productservice.image;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRange;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Writes image files with validators, immutable caching and single byte range support.
+ * Large bodies are handed to the connector's sendfile when available, which leaves the copy to
+ * the kernel. Otherwise the range is copied through a buffer into the response stream.
+ */
+@Component
+public class ImageResponseWriter {
+
+    static final String SENDFILE_SUPPORT_ATTRIBUTE = "org.apache.tomcat.sendfile.support";
+    static final String SENDFILE_FILENAME_ATTRIBUTE = "org.apache.tomcat.sendfile.filename";
+    static final String SENDFILE_START_ATTRIBUTE = "org.apache.tomcat.sendfile.start";
+    static final String SENDFILE_END_ATTRIBUTE = "org.apache.tomcat.sendfile.end";
+
+    private static final long SENDFILE_MIN_SIZE = 48 * 1024;
+
+    private static final String IMMUTABLE_CACHE_CONTROL = CacheControl.maxAge(Duration.ofDays(365))
+            .cachePublic()
+            .immutable()
+            .getHeaderValue();
+
+    private static final String REVALIDATE_CACHE_CONTROL = CacheControl.noCache()
+            .cachePublic()
+            .getHeaderValue();
+
+    public void write(ImageFile image, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Path path = image.path();
+        String fileName = path.getFileName().toString();
+        long length = Files.size(path);
+        long lastModified = Files.getLastModifiedTime(path).toMillis();
+        String etag = "\"%x-%x-%x\"".formatted(fileName.hashCode(), length, lastModified);
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL, image.immutable() ? IMMUTABLE_CACHE_CONTROL : REVALIDATE_CACHE_CONTROL);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        if (new ServletWebRequest(request, response).checkNotModified(etag, lastModified)) {
+            return;
+        }
+
+        long start = 0;
+        long end = length - 1;
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+
+        if (rangeHeader != null && isIfRangeSatisfied(request, etag, lastModified)) {
+            List<HttpRange> ranges = parseRanges(rangeHeader);
+
+            if (ranges.size() == 1) {
+                HttpRange range = ranges.getFirst();
+
+                if (length == 0 || !isSatisfiable(range, length)) {
+                    response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                    return;
+                }
+
+                start = range.getRangeStart(length);
+                end = range.getRangeEnd(length);
+
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            }
+        }
+
+        long count = end - start + 1;
+
+        response.setContentType(MediaTypeFactory.getMediaType(fileName).orElse(MediaType.APPLICATION_OCTET_STREAM).toString());
+        response.setContentLengthLong(count);
+
+        if (count <= 0 || HttpMethod.HEAD.matches(request.getMethod())) {
+            return;
+        }
+
+        if (count >= SENDFILE_MIN_SIZE && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT_ATTRIBUTE))) {
+            request.setAttribute(SENDFILE_FILENAME_ATTRIBUTE, path.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START_ATTRIBUTE, start);
+            request.setAttribute(SENDFILE_END_ATTRIBUTE, end + 1);
+            return;
+        }
+
+        try (InputStream input = Files.newInputStream(path)) {
+            StreamUtils.copyRange(input, response.getOutputStream(), start, end);
+        }
+    }
+
+    private boolean isIfRangeSatisfied(HttpServletRequest request, String etag, long lastModified) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+
+        if (ifRange == null) {
+            return true;
+        }
+
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return ifRange.equals(etag);
+        }
+
+        try {
+            return request.getDateHeader(HttpHeaders.IF_RANGE) / 1000 == lastModified / 1000;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private List<HttpRange> parseRanges(String rangeHeader) {
+        try {
+            return HttpRange.parseRanges(rangeHeader);
+        } catch (IllegalArgumentException e) {
+            return List.of();
+        }
+    }
+
+    private boolean isSatisfiable(HttpRange range, long length) {
+        try {
+            return range.getRangeStart(length) <= range.getRangeEnd(length);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+}
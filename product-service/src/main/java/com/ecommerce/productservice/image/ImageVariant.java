@@ -0,0 +1,36 @@
+package com.ecommerce.productservice.image;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+@Getter
+@RequiredArgsConstructor
+public enum ImageVariant {
+
+    DETAIL("detail", 1200),
+    CARD("card", 480),
+    THUMBNAIL("thumbnail", 160);
+
+    private final String key;
+
+    private final int maxDimension;
+
+    public String fileName(String originalFileName) {
+        int extensionIndex = originalFileName.lastIndexOf('.');
+
+        if (extensionIndex <= 0) {
+            return originalFileName + "-" + key;
+        }
+
+        return originalFileName.substring(0, extensionIndex) + "-" + key + originalFileName.substring(extensionIndex);
+    }
+
+    public static Optional<ImageVariant> fromKey(String key) {
+        return Arrays.stream(values())
+                .filter(variant -> variant.key.equalsIgnoreCase(key))
+                .findFirst();
+    }
+}
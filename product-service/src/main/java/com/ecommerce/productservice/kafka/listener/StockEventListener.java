@@ -0,0 +1,84 @@
+package com.ecommerce.productservice.kafka.listener;
+
+import com.ecommerce.productservice.kafka.event.StockChangedEvent;
+import com.ecommerce.productservice.projection.StockAvailabilityProjection;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.context.event.EventListener;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.event.ListenerContainerIdleEvent;
+import org.springframework.kafka.listener.AbstractConsumerSeekAware;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the stock availability projection in sync with the compacted stock-levels topic. Every
+ * instance uses its own consumer group and replays the topic from the beginning when partitions
+ * are assigned, which loads the latest level of every product. The projection is marked ready
+ * once the replay has caught up with the end of all assigned partitions.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StockEventListener extends AbstractConsumerSeekAware {
+
+    private final StockAvailabilityProjection stockAvailabilityProjection;
+
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        super.onPartitionsAssigned(assignments, callback);
+        callback.seekToBeginning(assignments.keySet());
+    }
+
+    @KafkaListener(
+            id = "stockLevels",
+            idIsGroup = false,
+            topics = "stock-levels",
+            groupId = "${spring.application.name}-${random.uuid}",
+            containerFactory = "stockLevelsListenerFactory"
+    )
+    public void handleStockLevels(List<ConsumerRecord<String, StockChangedEvent>> records, Consumer<?, ?> consumer) {
+        for (ConsumerRecord<String, StockChangedEvent> record : records) {
+            if (record.value() == null) {
+                log.warn("Skipping unreadable stock level at {}-{}@{}", record.topic(), record.partition(), record.offset());
+                continue;
+            }
+
+            StockChangedEvent level = record.value();
+
+            stockAvailabilityProjection.update(
+                    level.getProductId(),
+                    level.getAvailableQuantity(),
+                    level.getVersion() == null ? 0 : level.getVersion()
+            );
+        }
+
+        if (!stockAvailabilityProjection.isReady() && isCaughtUp(consumer)) {
+            markReady();
+        }
+    }
+
+    @EventListener(condition = "event.listenerId.startsWith('stockLevels-')")
+    public void handleIdle(ListenerContainerIdleEvent event) {
+        if (!stockAvailabilityProjection.isReady() && event.getTopicPartitions() != null && !event.getTopicPartitions().isEmpty()) {
+            markReady();
+        }
+    }
+
+    private boolean isCaughtUp(Consumer<?, ?> consumer) {
+        return consumer
+                .assignment()
+                .stream()
+                .allMatch(partition -> consumer.currentLag(partition).orElse(-1) == 0);
+    }
+
+    private void markReady() {
+        stockAvailabilityProjection.markReady();
+        log.info("Stock availability projection loaded with {} products", stockAvailabilityProjection.size());
+    }
+}
@@ -0,0 +1,35 @@
+package com.ecommerce.productservice.kafka.listener;
+
+import com.ecommerce.productservice.kafka.event.StockThresholdCrossedEvent;
+import com.ecommerce.productservice.service.ProductService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Kept apart from {@link StockEventListener}, which replays its partitions from the beginning on
+ * every assignment; threshold crossings are consumed from the committed offsets of the shared
+ * group instead.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StockThresholdListener {
+
+    private final ProductService productService;
+
+    @KafkaListener(
+            topics = "stock-threshold-crossed",
+            groupId = "${spring.application.name}",
+            containerFactory = "stockThresholdCrossedListenerFactory"
+    )
+    public void handleStockThresholdCrossed(StockThresholdCrossedEvent event) {
+        log.info("Product {} crossed stock threshold: {}", event.getProductId(), event.getLevel());
+        productService.updateSoldOut(
+                event.getProductId(),
+                event.getLevel() == StockThresholdCrossedEvent.Level.SOLD_OUT,
+                event.getVersion() == null ? 0 : event.getVersion()
+        );
+    }
+}
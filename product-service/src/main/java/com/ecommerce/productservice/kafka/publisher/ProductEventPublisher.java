@@ -0,0 +1,28 @@
+package com.ecommerce.productservice.kafka.publisher;
+
+import com.ecommerce.productservice.kafka.event.ProductSnapshotEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class ProductEventPublisher {
+
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+
+    /**
+     * Publishes the current state of a product to the compacted product-snapshots topic, where
+     * the latest record per productId is what a consumer bootstraps from.
+     */
+    public void publishProductSnapshot(ProductSnapshotEvent event) {
+        kafkaTemplate.send("product-snapshots", String.valueOf(event.getProductId()), event);
+    }
+
+    /**
+     * Publishes a tombstone, so compaction eventually drops the product from the topic.
+     */
+    public void publishProductDeleted(Long productId) {
+        kafkaTemplate.send("product-snapshots", String.valueOf(productId), null);
+    }
+}
@@ -0,0 +1,71 @@
+package com.ecommerce.productservice.kafka.publisher;
+
+import com.ecommerce.productservice.mapper.ProductMapper;
+import com.ecommerce.productservice.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Publishes every product to the compacted product-snapshots topic on startup, so the topic
+ * holds a complete snapshot even for products that have not changed since it was created.
+ * Each page is read under row locks, so a concurrent update either commits first and is read
+ * here, or waits and publishes its own record after this one.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProductSnapshotSeeder {
+
+    private static final int SEED_PAGE_SIZE = 1000;
+
+    @Value("${product.snapshots.seed-on-startup}")
+    private boolean seedOnStartup;
+
+    private final ProductRepository productRepository;
+
+    private final ProductMapper productMapper;
+
+    private final ProductEventPublisher productEventPublisher;
+
+    private final TransactionTemplate transactionTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        if (!seedOnStartup) {
+            return;
+        }
+
+        long published = 0;
+        Long lastProductId = 0L;
+
+        try {
+            while (true) {
+                List<Long> productIds = productRepository.findIdsAfter(lastProductId, PageRequest.ofSize(SEED_PAGE_SIZE));
+
+                if (productIds.isEmpty()) {
+                    break;
+                }
+
+                transactionTemplate.executeWithoutResult(status -> productRepository
+                        .findAllForUpdate(productIds)
+                        .forEach(product -> productEventPublisher.publishProductSnapshot(productMapper.productToProductSnapshotEvent(product)))
+                );
+
+                published += productIds.size();
+                lastProductId = productIds.getLast();
+            }
+
+            log.info("Seeded product-snapshots topic with {} products", published);
+        } catch (RuntimeException e) {
+            log.warn("Seeding product-snapshots topic stopped after {} products", published, e);
+        }
+    }
+}
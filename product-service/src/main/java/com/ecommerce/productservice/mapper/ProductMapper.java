@@ -4,6 +4,7 @@ import com.ecommerce.productservice.dto.CreateProductRequest;
 import com.ecommerce.productservice.dto.PagedResponse;
 import com.ecommerce.productservice.dto.ProductResponse;
 import com.ecommerce.productservice.dto.UpdateProductRequest;
+import com.ecommerce.productservice.kafka.event.ProductSnapshotEvent;
 import com.ecommerce.productservice.model.Product;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
@@ -22,6 +23,7 @@ public interface ProductMapper {
     @Mapping(target = "price", source = "price")
     @Mapping(target = "availableQuantity", ignore = true)
     @Mapping(target = "imageUrl", source = "imageUrl")
+    @Mapping(target = "soldOut", source = "soldOut")
     ProductResponse productToProductResponse(Product product);
 
     @Mapping(target = "id", source = "product.id")
@@ -31,14 +33,25 @@ public interface ProductMapper {
     @Mapping(target = "price", source = "product.price")
     @Mapping(target = "availableQuantity", source = "availableQuantity")
     @Mapping(target = "imageUrl", source = "product.imageUrl")
+    @Mapping(target = "soldOut", source = "product.soldOut")
     ProductResponse productToProductResponse(Product product, Integer availableQuantity);
 
     @Mapping(target = "name", source = "name")
     @Mapping(target = "description", source = "description")
     @Mapping(target = "price", source = "price")
     @Mapping(target = "imageUrl", source = "imageUrl")
+    @Mapping(target = "soldOut", ignore = true)
+    @Mapping(target = "soldOutVersion", ignore = true)
     Product createProductRequestToProduct(CreateProductRequest request);
 
+    @Mapping(target = "productId", source = "id")
+    @Mapping(target = "name", source = "name")
+    @Mapping(target = "category", source = "category.name")
+    @Mapping(target = "description", source = "description")
+    @Mapping(target = "price", source = "price")
+    @Mapping(target = "imageUrl", source = "imageUrl")
+    ProductSnapshotEvent productToProductSnapshotEvent(Product product);
+
     void updateProductFromUpdateProductRequest(UpdateProductRequest request, @MappingTarget Product product);
 
     default PagedResponse<ProductResponse> pageToPagedResponse(Page<Product> productsPage) {
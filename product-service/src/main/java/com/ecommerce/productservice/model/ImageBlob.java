@@ -0,0 +1,30 @@
+package com.ecommerce.productservice.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * Number of products referencing a stored image. A blob is deleted only by the transaction that
+ * removes this row, which requires no references and no recent upload of the same content.
+ */
+@Table
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImageBlob {
+
+    @Id
+    private String imageUrl;
+
+    @Column(nullable = false)
+    private int referenceCount;
+
+    private Instant uploadedAt;
+}
@@ -2,12 +2,16 @@ package com.ecommerce.productservice.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.math.BigDecimal;
 
 import static jakarta.persistence.FetchType.LAZY;
 
-@Table
+@Table(indexes = {
+        @Index(name = "idx_product_name_id", columnList = "name, id"),
+        @Index(name = "idx_product_price_id", columnList = "price, id")
+})
 @Entity
 @Getter
 @Setter
@@ -17,7 +21,8 @@ import static jakarta.persistence.FetchType.LAZY;
 public class Product {
 
     @Id
-    @GeneratedValue
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_seq")
+    @SequenceGenerator(name = "product_seq", sequenceName = "product_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -33,4 +38,16 @@ public class Product {
     private BigDecimal price;
 
     private String imageUrl;
+
+    @Column(nullable = false)
+    @ColumnDefault("false")
+    private boolean soldOut;
+
+    /**
+     * Version of the stock level the sold out flag was last set from, so a threshold crossing
+     * that arrives after a newer one is not applied.
+     */
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private long soldOutVersion;
 }
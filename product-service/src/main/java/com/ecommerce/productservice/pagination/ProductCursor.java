@@ -0,0 +1,76 @@
+package com.ecommerce.productservice.pagination;
+
+import com.ecommerce.exceptionlib.ErrorCode;
+import com.ecommerce.exceptionlib.exception.BadRequestException;
+import com.ecommerce.productservice.model.Product;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Set;
+
+/**
+ * Opaque position in a keyset-paginated product listing: the sort key and ID of the last returned product.
+ */
+public record ProductCursor(
+        String sortBy,
+        boolean descending,
+        Long lastId,
+        String lastValue
+) {
+
+    public static final Set<String> SORTABLE_PROPERTIES = Set.of("id", "name", "price");
+
+    private static final String SEPARATOR = "\n";
+
+    public static ProductCursor after(Product product, String sortBy, boolean descending) {
+        String lastValue = switch (sortBy) {
+            case "name" -> product.getName();
+            case "price" -> product.getPrice().toPlainString();
+            default -> String.valueOf(product.getId());
+        };
+
+        return new ProductCursor(sortBy, descending, product.getId(), lastValue);
+    }
+
+    public static ProductCursor decode(String cursor) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = decoded.split(SEPARATOR, 4);
+
+            if (parts.length != 4 || !SORTABLE_PROPERTIES.contains(parts[0])) {
+                throw new BadRequestException(ErrorCode.INVALID_CURSOR.getMessage());
+            }
+
+            ProductCursor productCursor = new ProductCursor(parts[0], Boolean.parseBoolean(parts[1]), Long.valueOf(parts[2]), parts[3]);
+            productCursor.validateLastValue();
+
+            return productCursor;
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(ErrorCode.INVALID_CURSOR.getMessage());
+        }
+    }
+
+    /**
+     * Rejects a last value that is not a valid key of the sort property, so a tampered cursor
+     * fails here instead of when the seek predicate is built.
+     */
+    private void validateLastValue() {
+        switch (sortBy) {
+            case "price" -> new BigDecimal(lastValue);
+            case "id" -> {
+                if (!lastValue.equals(String.valueOf(lastId))) {
+                    throw new BadRequestException(ErrorCode.INVALID_CURSOR.getMessage());
+                }
+            }
+            default -> {
+            }
+        }
+    }
+
+    public String encode() {
+        String raw = String.join(SEPARATOR, sortBy, String.valueOf(descending), String.valueOf(lastId), lastValue);
+
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,109 @@
+package com.ecommerce.productservice.projection;
+
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2LongOpenHashMap;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Local read model of available stock per product, fed by the compacted stock-levels topic.
+ * It is ready once the topic has been replayed up to its end, until then callers fall back to
+ * stock-service.
+ */
+@Component
+public class StockAvailabilityProjection {
+
+    private static final int MISSING = -1;
+
+    private final Long2IntOpenHashMap availableQuantityByProductId = createMap();
+
+    private final Long2LongOpenHashMap versionByProductId = new Long2LongOpenHashMap();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private volatile boolean ready;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void markReady() {
+        ready = true;
+    }
+
+    /**
+     * Records a level known locally, such as the initial quantity of a created product. It only
+     * applies while no published level of the product is known.
+     */
+    public void update(long productId, int availableQuantity) {
+        update(productId, availableQuantity, 0);
+    }
+
+    /**
+     * Records a published level unless a newer version of the product is already applied. Levels
+     * of concurrent changes can be published out of order, so an older one is dropped.
+     */
+    public void update(long productId, int availableQuantity, long version) {
+        lock.writeLock().lock();
+        try {
+            if (availableQuantityByProductId.containsKey(productId) && versionByProductId.get(productId) > version) {
+                return;
+            }
+
+            availableQuantityByProductId.put(productId, availableQuantity);
+            versionByProductId.put(productId, version);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long productId) {
+        lock.writeLock().lock();
+        try {
+            availableQuantityByProductId.remove(productId);
+            versionByProductId.remove(productId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Map<Long, Integer> getAvailableQuantities(List<Long> productIds) {
+        Map<Long, Integer> availableQuantities = new HashMap<>(productIds.size() * 2);
+
+        lock.readLock().lock();
+        try {
+            for (Long productId : productIds) {
+                int availableQuantity = availableQuantityByProductId.get(productId.longValue());
+
+                if (availableQuantity != MISSING) {
+                    availableQuantities.put(productId, availableQuantity);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return availableQuantities;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return availableQuantityByProductId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static Long2IntOpenHashMap createMap() {
+        Long2IntOpenHashMap map = new Long2IntOpenHashMap();
+        map.defaultReturnValue(MISSING);
+
+        return map;
+    }
+}
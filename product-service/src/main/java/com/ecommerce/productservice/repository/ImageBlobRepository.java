@@ -0,0 +1,76 @@
+package com.ecommerce.productservice.repository;
+
+import com.ecommerce.productservice.model.ImageBlob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+public interface ImageBlobRepository extends JpaRepository<ImageBlob, String> {
+
+    @Transactional
+    @Modifying
+    @Query(
+            value = """
+                    insert into image_blob (image_url, reference_count) values (:imageUrl, 1)
+                    on conflict (image_url) do update set reference_count = image_blob.reference_count + 1
+                    """,
+            nativeQuery = true
+    )
+    void addReference(@Param("imageUrl") String imageUrl);
+
+    @Transactional
+    @Modifying
+    @Query(
+            value = "update image_blob set reference_count = reference_count - 1 where image_url = :imageUrl and reference_count > 0",
+            nativeQuery = true
+    )
+    void removeReference(@Param("imageUrl") String imageUrl);
+
+    @Transactional
+    @Modifying
+    @Query(
+            value = """
+                    insert into image_blob (image_url, reference_count, uploaded_at) values (:imageUrl, 0, :now)
+                    on conflict (image_url) do update set uploaded_at = :now
+                    """,
+            nativeQuery = true
+    )
+    void markUploaded(@Param("imageUrl") String imageUrl, @Param("now") Instant now);
+
+    /**
+     * Removes the row of an image nobody references and nobody uploaded since
+     * {@code uploadedBefore}. The row stays locked until the transaction ends.
+     */
+    @Modifying
+    @Query(
+            value = """
+                    delete from image_blob
+                    where image_url = :imageUrl and reference_count = 0
+                    and (uploaded_at is null or uploaded_at < :uploadedBefore)
+                    """,
+            nativeQuery = true
+    )
+    int deleteUnreferenced(@Param("imageUrl") String imageUrl, @Param("uploadedBefore") Instant uploadedBefore);
+
+    /**
+     * Counts the references of products saved before the table existed. Does nothing once
+     * any image has a row.
+     */
+    @Transactional
+    @Modifying
+    @Query(
+            value = """
+                    insert into image_blob (image_url, reference_count)
+                    select p.image_url, count(*) from product p
+                    where p.image_url is not null and not exists (select 1 from image_blob)
+                    group by p.image_url
+                    on conflict (image_url) do nothing
+                    """,
+            nativeQuery = true
+    )
+    int countExistingReferences();
+}
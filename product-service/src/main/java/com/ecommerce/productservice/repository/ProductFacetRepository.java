@@ -0,0 +1,19 @@
+package com.ecommerce.productservice.repository;
+
+import com.ecommerce.productservice.model.Product;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public interface ProductFacetRepository {
+
+    List<ProductFacetRow> countFacets(Specification<Product> specification, List<BigDecimal> priceBoundaries);
+
+    record ProductFacetRow(
+            Long categoryId,
+            String categoryName,
+            long[] priceBucketCounts
+    ) {
+    }
+}
@@ -0,0 +1,69 @@
+package com.ecommerce.productservice.repository;
+
+import com.ecommerce.productservice.model.Category;
+import com.ecommerce.productservice.model.Product;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.*;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Computes category and price bucket counts in a single grouped query.
+ * Buckets are summed as conditional aggregates so the GROUP BY only contains the category columns.
+ */
+public class ProductFacetRepositoryImpl implements ProductFacetRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<ProductFacetRow> countFacets(Specification<Product> specification, List<BigDecimal> priceBoundaries) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = criteriaBuilder.createTupleQuery();
+        Root<Product> root = query.from(Product.class);
+        Join<Product, Category> category = root.join("category", JoinType.LEFT);
+        Expression<BigDecimal> price = root.get("price");
+
+        List<Selection<?>> selections = new ArrayList<>();
+        selections.add(category.get("id"));
+        selections.add(category.get("name"));
+
+        for (int bucket = 0; bucket <= priceBoundaries.size(); bucket++) {
+            Predicate inBucket = criteriaBuilder.and(
+                    bucket == 0 ? criteriaBuilder.conjunction() : criteriaBuilder.greaterThanOrEqualTo(price, priceBoundaries.get(bucket - 1)),
+                    bucket == priceBoundaries.size() ? criteriaBuilder.conjunction() : criteriaBuilder.lessThan(price, priceBoundaries.get(bucket))
+            );
+
+            selections.add(criteriaBuilder.sum(criteriaBuilder.<Integer>selectCase().when(inBucket, 1).otherwise(0)));
+        }
+
+        Predicate predicate = specification.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+
+        query.multiselect(selections).groupBy(category.get("id"), category.get("name"));
+
+        return entityManager.createQuery(query)
+                .getResultList()
+                .stream()
+                .map(tuple -> toRow(tuple, priceBoundaries.size() + 1))
+                .toList();
+    }
+
+    private static ProductFacetRow toRow(Tuple tuple, int bucketCount) {
+        long[] priceBucketCounts = new long[bucketCount];
+
+        for (int bucket = 0; bucket < bucketCount; bucket++) {
+            Number count = (Number) tuple.get(bucket + 2);
+            priceBucketCounts[bucket] = count == null ? 0 : count.longValue();
+        }
+
+        return new ProductFacetRow(tuple.get(0, Long.class), tuple.get(1, String.class), priceBucketCounts);
+    }
+}
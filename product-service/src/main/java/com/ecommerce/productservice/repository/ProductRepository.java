@@ -1,16 +1,22 @@
 package com.ecommerce.productservice.repository;
 
 import com.ecommerce.productservice.model.Product;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
-public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product> {
+public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product>, ProductFacetRepository {
 
     @EntityGraph(attributePaths = "category")
     Optional<Product> findById(Long id);
@@ -21,4 +27,18 @@ public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpec
     boolean existsByCategory_Id(Long categoryId);
 
     Page<Product> findAllByCategory_Id(Long categoryId, Pageable pageable);
+
+    @Modifying
+    @Query("""
+            update Product p set p.soldOut = :soldOut, p.soldOutVersion = :version
+            where p.id = :productId and p.soldOutVersion <= :version
+            """)
+    int updateSoldOut(@Param("productId") Long productId, @Param("soldOut") boolean soldOut, @Param("version") long version);
+
+    @Query("select p.id from Product p where p.id > :afterProductId order by p.id")
+    List<Long> findIdsAfter(@Param("afterProductId") Long afterProductId, Pageable pageable);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select p from Product p where p.id in :productIds order by p.id")
+    List<Product> findAllForUpdate(@Param("productIds") Collection<Long> productIds);
 }
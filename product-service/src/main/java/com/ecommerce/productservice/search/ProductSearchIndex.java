@@ -0,0 +1,210 @@
+package com.ecommerce.productservice.search;
+
+import com.ecommerce.productservice.model.Product;
+import com.ecommerce.productservice.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index of product name and description tokens.
+ * Every query word is matched as a token prefix and all words must match (AND).
+ * <p>
+ * The index is built once the beans are created, which is before the web server and the
+ * listeners start, so every keyword query is answered from it.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProductSearchIndex implements SmartInitializingSingleton {
+
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final int REBUILD_PAGE_SIZE = 1000;
+
+    private final ProductRepository productRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Tokens tokens = new Tokens();
+
+    /**
+     * Tokens of the products indexed or removed (null) while a rebuild runs, replayed onto the new
+     * index before it is swapped in. Null when no rebuild runs.
+     */
+    private Map<Long, Set<String>> changesDuringRebuild;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    /**
+     * Builds a new index from the product table and swaps it in. Changes made while it is built are
+     * applied to both indexes, so none of them is lost or overwritten by an older row.
+     */
+    public synchronized void rebuild() {
+        lock.writeLock().lock();
+        try {
+            changesDuringRebuild = new HashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        try {
+            Tokens rebuilt = new Tokens();
+
+            Slice<Product> slice = productRepository.findAll(PageRequest.of(0, REBUILD_PAGE_SIZE, Sort.by("id")));
+            slice.forEach(product -> rebuilt.put(product.getId(), tokenize(product)));
+
+            while (slice.hasNext()) {
+                slice = productRepository.findAll(slice.nextPageable());
+                slice.forEach(product -> rebuilt.put(product.getId(), tokenize(product)));
+            }
+
+            lock.writeLock().lock();
+            try {
+                changesDuringRebuild.forEach(rebuilt::put);
+                tokens = rebuilt;
+
+                log.info("Product search index built with {} products and {} tokens", rebuilt.tokensByProductId.size(), rebuilt.productIdsByToken.size());
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            lock.writeLock().lock();
+            try {
+                changesDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    public void index(Product product) {
+        update(product.getId(), tokenize(product));
+    }
+
+    public void remove(Long productId) {
+        update(productId, null);
+    }
+
+    public Set<Long> search(String keyWord) {
+        Set<String> words = tokenize(keyWord);
+
+        if (words.isEmpty()) {
+            return Collections.emptySet();
+        }
+
+        lock.readLock().lock();
+        try {
+            List<Set<Long>> matchesPerWord = new ArrayList<>(words.size());
+
+            for (String word : words) {
+                Set<Long> matches = new HashSet<>();
+                tokens.productIdsByToken
+                        .subMap(word, true, word + Character.MAX_VALUE, true)
+                        .values()
+                        .forEach(matches::addAll);
+
+                if (matches.isEmpty()) {
+                    return Collections.emptySet();
+                }
+                matchesPerWord.add(matches);
+            }
+
+            matchesPerWord.sort(Comparator.comparingInt(Set::size));
+
+            Set<Long> result = matchesPerWord.getFirst();
+            for (int i = 1; i < matchesPerWord.size() && !result.isEmpty(); i++) {
+                result.retainAll(matchesPerWord.get(i));
+            }
+
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void update(Long productId, Set<String> productTokens) {
+        lock.writeLock().lock();
+        try {
+            tokens.put(productId, productTokens);
+
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.put(productId, productTokens);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static Set<String> tokenize(Product product) {
+        Set<String> tokens = tokenize(product.getName());
+        tokens.addAll(tokenize(product.getDescription()));
+
+        return tokens;
+    }
+
+    private static Set<String> tokenize(String text) {
+        Set<String> tokens = new HashSet<>();
+
+        if (text == null || text.isBlank()) {
+            return tokens;
+        }
+
+        for (String token : TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+
+        return tokens;
+    }
+
+    /**
+     * The two directions of the index. Guarded by the lock of the enclosing index once swapped in.
+     */
+    private static final class Tokens {
+
+        private final NavigableMap<String, Set<Long>> productIdsByToken = new TreeMap<>();
+
+        private final Map<Long, Set<String>> tokensByProductId = new HashMap<>();
+
+        /**
+         * Replaces the tokens of the product, or removes it when {@code tokens} is null.
+         */
+        void put(Long productId, Set<String> tokens) {
+            Set<String> previousTokens = tokensByProductId.remove(productId);
+
+            if (previousTokens != null) {
+                for (String token : previousTokens) {
+                    Set<Long> productIds = productIdsByToken.get(token);
+                    productIds.remove(productId);
+
+                    if (productIds.isEmpty()) {
+                        productIdsByToken.remove(token);
+                    }
+                }
+            }
+
+            if (tokens == null) {
+                return;
+            }
+
+            for (String token : tokens) {
+                productIdsByToken.computeIfAbsent(token, key -> new HashSet<>()).add(productId);
+            }
+            tokensByProductId.put(productId, tokens);
+        }
+    }
+}
@@ -3,63 +3,269 @@ package com.ecommerce.productservice.service;
 import com.ecommerce.exceptionlib.ErrorCode;
 import com.ecommerce.exceptionlib.exception.BadRequestException;
 import com.ecommerce.exceptionlib.exception.InternalServerException;
+import com.ecommerce.exceptionlib.exception.NotFoundException;
+import com.ecommerce.productservice.image.ImageDerivativeGenerator;
+import com.ecommerce.productservice.image.ImageFile;
+import com.ecommerce.productservice.image.ImageFormat;
+import com.ecommerce.productservice.image.ImageVariant;
+import com.ecommerce.productservice.repository.ImageBlobRepository;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
 import java.util.List;
-import java.util.UUID;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * Stores images content-addressed, so identical uploads share one blob. The products referencing
+ * a blob are counted in the image_blob table, in the transaction that changes the product, and
+ * the blob is deleted only together with its row. The count is shared by all instances.
+ */
+@Slf4j
 @Service
 @RequiredArgsConstructor
-public class ImageService {
+public class ImageService implements SmartInitializingSingleton {
 
     @Value("${product.image.upload-dir}")
     private String uploadDir;
 
+    @Value("${product.image.max-size}")
+    private DataSize maxSize;
+
     private static final List<String> ALLOWED_TYPES = List.of("image/jpeg", "image/png");
 
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final int LOCK_STRIPES = 64;
+
+    /**
+     * How long an uploaded blob is protected from deletion, so the product that is about to
+     * reference it can be saved first. A product saved later is rejected if its blob is gone.
+     */
+    private static final Duration UPLOAD_GRACE = Duration.ofHours(1);
+
+    private final ReentrantLock[] blobLocks = createLocks();
+
+    private final ImageDerivativeGenerator imageDerivativeGenerator;
+
+    private final ImageBlobRepository imageBlobRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        int counted = imageBlobRepository.countExistingReferences();
+
+        if (counted > 0) {
+            log.info("Counted the references of {} existing images", counted);
+        }
+    }
+
     public String saveImage(MultipartFile file) {
 
         if (file.isEmpty() || !ALLOWED_TYPES.contains(file.getContentType().toLowerCase())) {
             throw new BadRequestException(ErrorCode.INVALID_IMAGE_FORMAT.getMessage());
         }
 
+        try (InputStream input = file.getInputStream()) {
+            return saveImage(input, file.getSize());
+        } catch (IOException e) {
+            throw new InternalServerException(ErrorCode.IMAGE_UPLOAD_FAILED.getMessage());
+        }
+    }
+
+    public String saveImage(InputStream input, long contentLength) {
+        long maxBytes = maxSize.toBytes();
+
+        if (contentLength > maxBytes) {
+            throw new BadRequestException(ErrorCode.IMAGE_TOO_LARGE.getMessage());
+        }
+
         try {
-            String fileName = UUID.randomUUID() + "_" + file.getOriginalFilename();
-            Path destination = Paths.get(uploadDir).toAbsolutePath().resolve(fileName).normalize();
-            Files.createDirectories(destination.getParent());
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read = input.readNBytes(buffer, 0, buffer.length);
 
-            file.transferTo(destination.toFile());
+            ImageFormat format = ImageFormat.detect(buffer, read)
+                    .orElseThrow(() -> new BadRequestException(ErrorCode.INVALID_IMAGE_FORMAT.getMessage()));
 
-            return "/images/" + fileName;
-        } catch (IOException e) {
+            Path root = Paths.get(uploadDir).toAbsolutePath().normalize();
+            Files.createDirectories(root);
+
+            Path temp = Files.createTempFile(root, ".upload-", ".tmp");
+
+            try {
+                MessageDigest digest = MessageDigest.getInstance("SHA-256");
+                long size = 0;
+
+                try (OutputStream output = Files.newOutputStream(temp)) {
+                    while (read > 0) {
+                        size += read;
+
+                        if (size > maxBytes) {
+                            throw new BadRequestException(ErrorCode.IMAGE_TOO_LARGE.getMessage());
+                        }
+
+                        digest.update(buffer, 0, read);
+                        output.write(buffer, 0, read);
+                        read = input.read(buffer);
+                    }
+                }
+
+                String fileName = HexFormat.of().formatHex(digest.digest()) + format.getExtension();
+                String imageUrl = "/images/" + fileName;
+                Path destination = root.resolve(fileName);
+
+                // Marked before the blob is looked at: a concurrent delete either sees the mark
+                // or has removed the blob, which is then stored again below.
+                imageBlobRepository.markUploaded(imageUrl, Instant.now());
+
+                ReentrantLock lock = lockFor(fileName);
+
+                lock.lock();
+                try {
+                    if (!Files.exists(destination)) {
+                        Files.move(temp, destination, StandardCopyOption.ATOMIC_MOVE);
+                        imageDerivativeGenerator.generateAsync(destination);
+                    }
+                } finally {
+                    lock.unlock();
+                }
+
+                return imageUrl;
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException | NoSuchAlgorithmException e) {
             throw new InternalServerException(ErrorCode.IMAGE_UPLOAD_FAILED.getMessage());
         }
     }
 
-    public String replaceProductImage(String oldImageUrl, MultipartFile file) {
-        String imageUrl = saveImage(file);
-        deleteImage(oldImageUrl);
+    public ImageFile resolveImage(String fileName, String size) {
+        Path root = Paths.get(uploadDir).toAbsolutePath().normalize();
+        Path original = root.resolve(fileName).normalize();
+
+        if (!root.equals(original.getParent())) {
+            throw new NotFoundException(ErrorCode.IMAGE_NOT_FOUND.getMessage());
+        }
 
-        return imageUrl;
+        Optional<ImageVariant> variant = ImageVariant.fromKey(size);
+
+        if (variant.isPresent()) {
+            Path derivative = original.resolveSibling(variant.get().fileName(original.getFileName().toString()));
+
+            if (Files.isRegularFile(derivative)) {
+                return new ImageFile(derivative, true);
+            }
+        }
+
+        if (!Files.isRegularFile(original)) {
+            throw new NotFoundException(ErrorCode.IMAGE_NOT_FOUND.getMessage());
+        }
+
+        return new ImageFile(original, variant.isEmpty());
+    }
+
+    /**
+     * Counts a reference of a product to the image, in the transaction saving the product. The
+     * counted row stays locked until that transaction ends, so the blob can't be deleted before
+     * the product is visible. Images already deleted are rejected.
+     */
+    public void addReference(String imageUrl) {
+        if (imageUrl == null || imageUrl.isBlank()) return;
+
+        imageBlobRepository.addReference(imageUrl);
+
+        if (imageUrl.startsWith("/images/") && !Files.isRegularFile(blobPath(imageUrl))) {
+            throw new BadRequestException(ErrorCode.IMAGE_NOT_FOUND.getMessage());
+        }
     }
-    
+
+    /**
+     * Removes a reference of a product to the image, and deletes the blob once none is left.
+     * Inside a transaction the delete runs after the commit, so a rollback never leaves a row
+     * pointing at a missing blob.
+     */
     public void deleteImage(String imageUrl) {
         if (imageUrl == null || imageUrl.isBlank()) return;
-        
-        try {
-            String fileName = Paths.get(imageUrl).getFileName().toString();
-            Path filePath = Paths.get(uploadDir).resolve(fileName).normalize();
 
-            Files.deleteIfExists(filePath);
-        } catch (IOException e) {
-            throw new InternalServerException(ErrorCode.DELETE_IMAGE_FAILED.getMessage());
+        imageBlobRepository.removeReference(imageUrl);
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            deleteUnreferencedImage(imageUrl);
+            return;
         }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                try {
+                    deleteUnreferencedImage(imageUrl);
+                } catch (RuntimeException e) {
+                    log.warn("Image {} could not be deleted", imageUrl, e);
+                }
+            }
+        });
+    }
+
+    /**
+     * The blob is deleted while the deleted row is still locked, so a reference or an upload of
+     * the same content on any instance waits for it and then sees the blob gone.
+     */
+    private void deleteUnreferencedImage(String imageUrl) {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (imageBlobRepository.deleteUnreferenced(imageUrl, Instant.now().minus(UPLOAD_GRACE)) == 0) return;
+
+            Path filePath = blobPath(imageUrl);
+
+            try {
+                Files.deleteIfExists(filePath);
+
+                for (ImageVariant variant : ImageVariant.values()) {
+                    Files.deleteIfExists(filePath.resolveSibling(variant.fileName(filePath.getFileName().toString())));
+                }
+            } catch (IOException e) {
+                throw new InternalServerException(ErrorCode.DELETE_IMAGE_FAILED.getMessage());
+            }
+        });
+    }
+
+    private Path blobPath(String imageUrl) {
+        String fileName = Paths.get(imageUrl).getFileName().toString();
+
+        return Paths.get(uploadDir).resolve(fileName).normalize();
+    }
+
+    private ReentrantLock lockFor(String fileName) {
+        return blobLocks[Math.floorMod(fileName.hashCode(), LOCK_STRIPES)];
+    }
+
+    private static ReentrantLock[] createLocks() {
+        ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new ReentrantLock();
+        }
+
+        return locks;
     }
 }
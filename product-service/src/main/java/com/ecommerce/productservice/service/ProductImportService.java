@@ -0,0 +1,270 @@
+package com.ecommerce.productservice.service;
+
+import com.ecommerce.exceptionlib.ErrorCode;
+import com.ecommerce.productservice.client.StockClient;
+import com.ecommerce.productservice.dto.CreateProductRequest;
+import com.ecommerce.productservice.dto.CreateStocksRequest;
+import com.ecommerce.productservice.dto.ProductImportResponse;
+import com.ecommerce.productservice.dto.ProductImportResponse.RowFailure;
+import com.ecommerce.productservice.kafka.publisher.ProductEventPublisher;
+import com.ecommerce.productservice.mapper.ProductMapper;
+import com.ecommerce.productservice.model.Category;
+import com.ecommerce.productservice.model.Product;
+import com.ecommerce.productservice.projection.StockAvailabilityProjection;
+import com.ecommerce.productservice.repository.CategoryRepository;
+import com.ecommerce.productservice.repository.ProductRepository;
+import com.ecommerce.productservice.search.ProductSearchIndex;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Imports a streamed product feed in chunks. Every chunk is inserted as one JDBC batch and,
+ * once committed, its stocks are created with a single stock-service call. If that call keeps
+ * failing the chunk's products are deleted again, so a chunk is either imported completely or
+ * reported as failed row by row.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProductImportService {
+
+    private static final int MAX_REPORTED_FAILURES = 1000;
+
+    private static final int STOCK_CREATION_ATTEMPTS = 3;
+
+    private static final CsvMapper CSV_MAPPER = CsvMapper.builder()
+            .enable(CsvParser.Feature.TRIM_SPACES)
+            .enable(CsvParser.Feature.EMPTY_STRING_AS_NULL)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .build();
+
+    @Value("${product.import.chunk-size}")
+    private int chunkSize;
+
+    private final ProductRepository productRepository;
+
+    private final CategoryRepository categoryRepository;
+
+    private final ProductMapper productMapper;
+
+    private final StockClient stockClient;
+
+    private final ProductSearchIndex productSearchIndex;
+
+    private final StockAvailabilityProjection stockAvailabilityProjection;
+
+    private final ProductEventPublisher productEventPublisher;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ObjectMapper objectMapper;
+
+    private final Validator validator;
+
+    public enum Format {
+        CSV,
+        NDJSON
+    }
+
+    public ProductImportResponse importProducts(InputStream input, Format format) {
+        Map<Long, Category> categories = categoryRepository.findAll()
+                .stream()
+                .collect(Collectors.toMap(Category::getId, Function.identity()));
+
+        ImportResult result = new ImportResult();
+        List<ImportRow> chunk = new ArrayList<>(chunkSize);
+
+        try (MappingIterator<CreateProductRequest> rows = reader(format).readValues(input)) {
+            long rowNumber = 0;
+
+            while (true) {
+                rowNumber++;
+                CreateProductRequest request;
+
+                try {
+                    if (!rows.hasNextValue()) {
+                        break;
+                    }
+
+                    request = rows.nextValue();
+                } catch (JsonMappingException e) {
+                    result.fail(rowNumber, e.getOriginalMessage());
+                    continue;
+                } catch (JsonProcessingException e) {
+                    result.fail(rowNumber, "Malformed input: " + e.getOriginalMessage());
+                    break;
+                }
+
+                String error = validate(request, categories);
+
+                if (error != null) {
+                    result.fail(rowNumber, error);
+                    continue;
+                }
+
+                chunk.add(new ImportRow(rowNumber, request));
+
+                if (chunk.size() == chunkSize) {
+                    writeChunk(chunk, categories, result);
+                    chunk.clear();
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Product import input could not be read", e);
+            result.fail(0, "Input could not be read: " + e.getMessage());
+        }
+
+        if (!chunk.isEmpty()) {
+            writeChunk(chunk, categories, result);
+        }
+
+        return result.toResponse();
+    }
+
+    private void writeChunk(List<ImportRow> chunk, Map<Long, Category> categories, ImportResult result) {
+        List<Product> products = new ArrayList<>(chunk.size());
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (ImportRow row : chunk) {
+                    Product product = productMapper.createProductRequestToProduct(row.request());
+                    product.setCategory(categories.get(row.request().getCategoryId()));
+                    products.add(product);
+                }
+
+                productRepository.saveAll(products);
+            });
+        } catch (RuntimeException e) {
+            log.warn("Failed to import chunk of {} products starting at row {}", chunk.size(), chunk.getFirst().rowNumber(), e);
+            chunk.forEach(row -> result.fail(row.rowNumber(), "Chunk could not be imported: " + e.getMessage()));
+            return;
+        }
+
+        List<CreateStocksRequest.StockItem> stocks = new ArrayList<>(chunk.size());
+
+        for (int i = 0; i < chunk.size(); i++) {
+            stocks.add(new CreateStocksRequest.StockItem(products.get(i).getId(), chunk.get(i).request().getAvailableQuantity()));
+        }
+
+        try {
+            createStocks(new CreateStocksRequest(stocks));
+        } catch (RuntimeException e) {
+            log.warn("Failed to create stocks for chunk of {} products starting at row {}", chunk.size(), chunk.getFirst().rowNumber(), e);
+            deleteProducts(products);
+            chunk.forEach(row -> result.fail(row.rowNumber(), "Chunk could not be imported: " + e.getMessage()));
+            return;
+        }
+
+        for (int i = 0; i < chunk.size(); i++) {
+            Product product = products.get(i);
+
+            productSearchIndex.index(product);
+            productEventPublisher.publishProductSnapshot(productMapper.productToProductSnapshotEvent(product));
+            stockAvailabilityProjection.update(product.getId(), chunk.get(i).request().getAvailableQuantity());
+        }
+
+        result.imported += chunk.size();
+    }
+
+    /**
+     * Stocks are created only after the products are committed, so stock-service never holds
+     * rows for products that do not exist. Stock-service skips stocks it already has, which makes
+     * a retry after a lost response safe.
+     */
+    private void createStocks(CreateStocksRequest request) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                stockClient.createStocks(request);
+                return;
+            } catch (RuntimeException e) {
+                if (attempt == STOCK_CREATION_ATTEMPTS) {
+                    throw e;
+                }
+
+                log.debug("Stock creation attempt {} failed, retrying", attempt, e);
+            }
+        }
+    }
+
+    private void deleteProducts(List<Product> products) {
+        List<Long> productIds = products.stream().map(Product::getId).toList();
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> productRepository.deleteAllByIdInBatch(productIds));
+        } catch (RuntimeException e) {
+            log.error("Failed to delete imported products {} without stock", productIds, e);
+        }
+    }
+
+    private String validate(CreateProductRequest request, Map<Long, Category> categories) {
+        Set<ConstraintViolation<CreateProductRequest>> violations = validator.validate(request);
+
+        if (!violations.isEmpty()) {
+            return violations
+                    .stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+
+        if (!categories.containsKey(request.getCategoryId())) {
+            return ErrorCode.CATEGORY_NOT_FOUND.getMessage();
+        }
+
+        return null;
+    }
+
+    private ObjectReader reader(Format format) {
+        return switch (format) {
+            case CSV -> CSV_MAPPER.readerFor(CreateProductRequest.class).with(CsvSchema.emptySchema().withHeader());
+            case NDJSON -> objectMapper.readerFor(CreateProductRequest.class);
+        };
+    }
+
+    private record ImportRow(long rowNumber, CreateProductRequest request) {
+    }
+
+    private static class ImportResult {
+
+        private long imported;
+
+        private long failed;
+
+        private final List<RowFailure> failures = new ArrayList<>();
+
+        private void fail(long rowNumber, String message) {
+            failed++;
+
+            if (failures.size() < MAX_REPORTED_FAILURES) {
+                failures.add(new RowFailure(rowNumber, message));
+            }
+        }
+
+        private ProductImportResponse toResponse() {
+            return new ProductImportResponse(imported, failed, failures);
+        }
+    }
+}
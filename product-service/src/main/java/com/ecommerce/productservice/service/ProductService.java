@@ -1,23 +1,41 @@
 package com.ecommerce.productservice.service;
 
 import com.ecommerce.exceptionlib.ErrorCode;
+import com.ecommerce.exceptionlib.exception.BadRequestException;
 import com.ecommerce.exceptionlib.exception.NotFoundException;
+import com.ecommerce.productservice.cache.ProductCache;
 import com.ecommerce.productservice.client.StockClient;
 import com.ecommerce.productservice.dto.*;
+import com.ecommerce.productservice.kafka.event.ProductSnapshotEvent;
+import com.ecommerce.productservice.kafka.publisher.ProductEventPublisher;
 import com.ecommerce.productservice.mapper.ProductMapper;
 import com.ecommerce.productservice.model.Category;
 import com.ecommerce.productservice.model.Product;
+import com.ecommerce.productservice.pagination.ProductCursor;
+import com.ecommerce.productservice.projection.StockAvailabilityProjection;
+import com.ecommerce.productservice.repository.ProductFacetRepository.ProductFacetRow;
 import com.ecommerce.productservice.repository.ProductRepository;
+import com.ecommerce.productservice.search.ProductSearchIndex;
+import com.ecommerce.productservice.specification.ProductSpecifications;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
@@ -34,42 +52,55 @@ public class ProductService {
 
     private final StockClient stockClient;
 
-    @Transactional(readOnly = true)
-    public ProductResponse getProductById(Long productId) {
-        Product product = getProductByIdOrThrow(productId);
-        ProductResponse productResponse = productMapper.productToProductResponse(product);
+    private final ProductSearchIndex productSearchIndex;
 
-        StockResponse stock = stockClient.getStockByProductId(productId);
+    private final ProductCache productCache;
 
-        productResponse.setAvailableQuantity(stock.availableQuantity());
+    private final StockAvailabilityProjection stockAvailabilityProjection;
+
+    private final ProductEventPublisher productEventPublisher;
+
+    public ProductResponse getProductById(Long productId) {
+        ProductResponse product = productCache.get(
+                productId,
+                id -> productMapper.productToProductResponse(getProductByIdOrThrow(id))
+        );
 
-        return productResponse;
+        return product.toBuilder()
+                .availableQuantity(getAvailableQuantity(productId))
+                .build();
     }
 
     @Transactional(readOnly = true)
     public PagedResponse<ProductResponse> getAllProducts(
             Pageable pageable,
-            Specification<Product> specification
+            Specification<Product> specification,
+            String keyWord
     ) {
-        Page<Product> productsPage = productRepository.findAll(specification, pageable);
+        return getPage(pageable, withKeyWord(specification, keyWord));
+    }
 
-        List<Long> productIds = productsPage.getContent().stream().map(Product::getId).toList();
+    @Transactional(readOnly = true)
+    public FacetedPagedResponse<ProductResponse> getAllProductsWithFacets(
+            Pageable pageable,
+            Specification<Product> specification,
+            String keyWord,
+            List<BigDecimal> priceBoundaries
+    ) {
+        Specification<Product> filter = withKeyWord(specification, keyWord);
+        List<BigDecimal> boundaries = priceBoundaries == null ? List.of() : priceBoundaries;
 
-        List<StockResponse> stocks = stockClient.getStocksByProductIds(productIds);
-        Map<Long, Integer> stockMap = stocks.stream().collect(Collectors.toMap(StockResponse::productId, StockResponse::availableQuantity));
+        PagedResponse<ProductResponse> page = getPage(pageable, filter);
+        ProductFacetsResponse facets = toFacetsResponse(productRepository.countFacets(filter, boundaries), boundaries);
 
-        List<ProductResponse> productResponse = productsPage
-                .getContent()
-                .stream()
-                .map(product -> {
-                    Integer availableQuantity = stockMap.getOrDefault(product.getId(), 0);
+        return FacetedPagedResponse.of(page, facets);
+    }
 
-                    return productMapper.productToProductResponse(product, availableQuantity);
-                })
-                .toList();
+    private PagedResponse<ProductResponse> getPage(Pageable pageable, Specification<Product> specification) {
+        Page<Product> productsPage = productRepository.findAll(specification, pageable);
 
         return new PagedResponse<>(
-                productResponse,
+                toProductResponses(productsPage.getContent()),
                 productsPage.getNumber(),
                 productsPage.getSize(),
                 productsPage.getTotalElements(),
@@ -80,19 +111,59 @@ public class ProductService {
     }
 
     @Transactional(readOnly = true)
+    public CursorPagedResponse<ProductResponse> scrollProducts(ProductFilterRequest filterRequest) {
+        if (!ProductCursor.SORTABLE_PROPERTIES.contains(filterRequest.getSortBy())) {
+            throw new BadRequestException(ErrorCode.UNSUPPORTED_SORT_PROPERTY.getMessage());
+        }
+
+        Specification<Product> specification = withKeyWord(filterRequest.toSpecification(), filterRequest.getKeyWord());
+        Long totalElements = filterRequest.isIncludeTotal() ? productRepository.count(specification) : null;
+
+        if (filterRequest.getCursor() != null && !filterRequest.getCursor().isBlank()) {
+            ProductCursor cursor = ProductCursor.decode(filterRequest.getCursor());
+
+            if (!cursor.sortBy().equals(filterRequest.getSortBy()) || cursor.descending() != filterRequest.isDescending()) {
+                throw new BadRequestException(ErrorCode.INVALID_CURSOR.getMessage());
+            }
+
+            specification = specification.and(ProductSpecifications.isAfter(cursor));
+        }
+
+        int pageSize = filterRequest.getPageSize();
+        Sort sort = filterRequest.toKeysetSort();
+
+        List<Product> products = productRepository.findBy(
+                specification,
+                query -> query.sortBy(sort).limit(pageSize + 1).all()
+        );
+
+        boolean hasNextPage = products.size() > pageSize;
+        List<Product> content = hasNextPage ? products.subList(0, pageSize) : products;
+        String nextCursor = hasNextPage
+                ? ProductCursor.after(content.getLast(), filterRequest.getSortBy(), filterRequest.isDescending()).encode()
+                : null;
+
+        return new CursorPagedResponse<>(
+                toProductResponses(content),
+                pageSize,
+                nextCursor,
+                hasNextPage,
+                totalElements
+        );
+    }
+
     public List<ProductResponse> getProductsByIds(List<Long> productIds) {
-        List<Product> products = productRepository.findAllById(productIds);
+        Map<Long, ProductResponse> products = productCache.getAll(productIds, this::loadProductResponses);
 
-        List<StockResponse> stocks = stockClient.getStocksByProductIds(productIds);
-        Map<Long, Integer> stockMap = stocks.stream().collect(Collectors.toMap(StockResponse::productId, StockResponse::availableQuantity));
+        Map<Long, Integer> stockMap = getAvailableQuantities(productIds);
 
         return products
+                .values()
                 .stream()
-                .map(product -> {
-                    Integer availableQuantity = stockMap.getOrDefault(product.getId(), 0);
-
-                    return productMapper.productToProductResponse(product, availableQuantity);
-                })
+                .map(product -> product.toBuilder()
+                        .availableQuantity(stockMap.getOrDefault(product.getId(), 0))
+                        .build()
+                )
                 .toList();
     }
 
@@ -104,9 +175,18 @@ public class ProductService {
         product.setCategory(category);
 
         productRepository.save(product);
+        imageService.addReference(product.getImageUrl());
 
         stockClient.createStock(product.getId(), new CreateStockRequest(request.getAvailableQuantity()));
 
+        ProductSnapshotEvent snapshot = productMapper.productToProductSnapshotEvent(product);
+
+        afterCommit(() -> {
+            productSearchIndex.index(product);
+            productEventPublisher.publishProductSnapshot(snapshot);
+            stockAvailabilityProjection.update(product.getId(), request.getAvailableQuantity());
+        });
+
         return productMapper.productToProductResponse(product, request.getAvailableQuantity());
     }
 
@@ -114,33 +194,177 @@ public class ProductService {
     public void updateProduct(Long productId, UpdateProductRequest request) {
         Product product = getProductByIdOrThrow(productId);
         Category category = categoryService.getCategoryByIdOrThrow(request.getCategoryId());
+        String oldImageUrl = product.getImageUrl();
 
         productMapper.updateProductFromUpdateProductRequest(request, product);
         product.setCategory(category);
 
         productRepository.save(product);
+
+        ProductSnapshotEvent snapshot = productMapper.productToProductSnapshotEvent(product);
+
+        afterCommit(() -> {
+            productSearchIndex.index(product);
+            productCache.evict(productId);
+            productEventPublisher.publishProductSnapshot(snapshot);
+        });
+
+        if (!Objects.equals(oldImageUrl, product.getImageUrl())) {
+            imageService.addReference(product.getImageUrl());
+            imageService.deleteImage(oldImageUrl);
+        }
     }
 
     @Transactional
     public void deleteProductById(Long productId) {
         Product product = getProductByIdOrThrow(productId);
 
-        imageService.deleteImage(product.getImageUrl());
         productRepository.deleteById(productId);
+        imageService.deleteImage(product.getImageUrl());
+
+        afterCommit(() -> {
+            productSearchIndex.remove(productId);
+            productCache.evict(productId);
+            stockAvailabilityProjection.remove(productId);
+            productEventPublisher.publishProductDeleted(productId);
+        });
     }
 
     @Transactional
+    public void updateSoldOut(Long productId, boolean soldOut, long version) {
+        if (productRepository.updateSoldOut(productId, soldOut, version) > 0) {
+            afterCommit(() -> productCache.evict(productId));
+        }
+    }
+
     public String updateProductImage(Long productId, MultipartFile file) {
+        return updateProductImage(productId, () -> imageService.saveImage(file));
+    }
+
+    public String updateProductImage(Long productId, InputStream image, long contentLength) {
+        return updateProductImage(productId, () -> imageService.saveImage(image, contentLength));
+    }
+
+    private String updateProductImage(Long productId, Supplier<String> imageUpload) {
         Product product = getProductByIdOrThrow(productId);
 
-        String newImageUrl = imageService.replaceProductImage(product.getImageUrl(), file);
+        String oldImageUrl = product.getImageUrl();
+        String newImageUrl = imageUpload.get();
+
+        // Counted before the product is saved: if the save fails the count only keeps the blob.
+        if (!newImageUrl.equals(oldImageUrl)) {
+            imageService.addReference(newImageUrl);
+        }
 
         product.setImageUrl(newImageUrl);
         productRepository.save(product);
+        productCache.evict(productId);
+        productEventPublisher.publishProductSnapshot(productMapper.productToProductSnapshotEvent(product));
+
+        if (!newImageUrl.equals(oldImageUrl)) {
+            imageService.deleteImage(oldImageUrl);
+        }
 
         return newImageUrl;
     }
 
+    private ProductFacetsResponse toFacetsResponse(List<ProductFacetRow> rows, List<BigDecimal> priceBoundaries) {
+        long[] priceBucketCounts = new long[priceBoundaries.size() + 1];
+        List<ProductFacetsResponse.CategoryFacet> categories = new ArrayList<>(rows.size());
+
+        for (ProductFacetRow row : rows) {
+            long categoryCount = 0;
+
+            for (int bucket = 0; bucket < priceBucketCounts.length; bucket++) {
+                priceBucketCounts[bucket] += row.priceBucketCounts()[bucket];
+                categoryCount += row.priceBucketCounts()[bucket];
+            }
+
+            if (categoryCount > 0) {
+                categories.add(new ProductFacetsResponse.CategoryFacet(row.categoryId(), row.categoryName(), categoryCount));
+            }
+        }
+
+        List<ProductFacetsResponse.PriceBucketFacet> priceBuckets = new ArrayList<>(priceBucketCounts.length);
+
+        for (int bucket = 0; bucket < priceBucketCounts.length; bucket++) {
+            BigDecimal from = bucket == 0 ? BigDecimal.ZERO : priceBoundaries.get(bucket - 1);
+            BigDecimal to = bucket == priceBoundaries.size() ? null : priceBoundaries.get(bucket);
+
+            priceBuckets.add(new ProductFacetsResponse.PriceBucketFacet(from, to, priceBucketCounts[bucket]));
+        }
+
+        return new ProductFacetsResponse(categories, priceBuckets);
+    }
+
+    private List<ProductResponse> toProductResponses(List<Product> products) {
+        List<Long> productIds = products.stream().map(Product::getId).toList();
+
+        Map<Long, Integer> stockMap = getAvailableQuantities(productIds);
+
+        return products
+                .stream()
+                .map(product -> {
+                    Integer availableQuantity = stockMap.getOrDefault(product.getId(), 0);
+
+                    return productMapper.productToProductResponse(product, availableQuantity);
+                })
+                .toList();
+    }
+
+    private Integer getAvailableQuantity(Long productId) {
+        if (stockAvailabilityProjection.isReady()) {
+            return getAvailableQuantities(List.of(productId)).getOrDefault(productId, 0);
+        }
+
+        return stockClient.getStockByProductId(productId).availableQuantity();
+    }
+
+    private Map<Long, Integer> getAvailableQuantities(List<Long> productIds) {
+        if (stockAvailabilityProjection.isReady()) {
+            return stockAvailabilityProjection.getAvailableQuantities(productIds);
+        }
+
+        return stockClient.getStocksByProductIds(productIds)
+                .stream()
+                .collect(Collectors.toMap(StockResponse::productId, StockResponse::availableQuantity));
+    }
+
+    private Map<Long, ProductResponse> loadProductResponses(Set<? extends Long> productIds) {
+        return productRepository.findAllById(List.copyOf(productIds))
+                .stream()
+                .collect(Collectors.toMap(Product::getId, productMapper::productToProductResponse));
+    }
+
+    private Specification<Product> withKeyWord(Specification<Product> specification, String keyWord) {
+        if (keyWord == null || keyWord.isBlank()) {
+            return specification;
+        }
+
+        Set<Long> productIds = productSearchIndex.search(keyWord);
+
+        return specification.and(ProductSpecifications.hasIds(productIds));
+    }
+
+    /**
+     * Runs the action once the surrounding transaction has committed, or right away outside of
+     * one. Evicting before the commit would let a concurrent read cache the old row again, and
+     * indexing or publishing before it could leave entries for changes that were rolled back.
+     */
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
     private Product getProductByIdOrThrow(Long productId) {
         return productRepository.findById(productId).orElseThrow(() -> new NotFoundException(ErrorCode.PRODUCT_NOT_FOUND.getMessage()));
     }
@@ -0,0 +1,24 @@
+package com.ecommerce.productservice.specification;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Registers {@code in_array(value, array)}, rendered as {@code value = any(array)}. Unlike an IN
+ * list the array is a single bind parameter, and PostgreSQL still answers it from the index.
+ * Registered through {@code META-INF/services}.
+ */
+public class ArrayFunctionContributor implements FunctionContributor {
+
+    public static final String IN_ARRAY = "in_array";
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        functionContributions.getFunctionRegistry().registerPattern(
+                IN_ARRAY,
+                "(?1 = any(?2))",
+                functionContributions.getTypeConfiguration().getBasicTypeRegistry().resolve(StandardBasicTypes.BOOLEAN)
+        );
+    }
+}
@@ -1,11 +1,15 @@
 package com.ecommerce.productservice.specification;
 
 import com.ecommerce.productservice.model.Product;
+import com.ecommerce.productservice.pagination.ProductCursor;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
 import jakarta.persistence.criteria.Predicate;
 import org.springframework.data.jpa.domain.Specification;
 
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 public class ProductSpecifications {
@@ -22,13 +26,28 @@ public class ProductSpecifications {
         return (root, query, criteriaBuilder) -> criteriaBuilder.lessThanOrEqualTo(root.get("price"), maxPrice);
     }
 
+    /**
+     * Binds the ids as one array parameter, so the query size and the number of bind parameters
+     * stay the same however many ids there are.
+     */
+    public static Specification<Product> hasIds(Collection<Long> productIds) {
+        return (root, query, criteriaBuilder) -> productIds.isEmpty()
+                ? criteriaBuilder.disjunction()
+                : criteriaBuilder.isTrue(criteriaBuilder.function(
+                        ArrayFunctionContributor.IN_ARRAY,
+                        Boolean.class,
+                        root.get("id"),
+                        criteriaBuilder.literal(productIds.toArray(Long[]::new))
+                ));
+    }
+
     public static Specification<Product> nameOrDescriptionContains(String keyWord) {
         return (root, query, criteriaBuilder) -> {
             String[] words = keyWord.toLowerCase().split("\\s+");
             List<Predicate> predicates = new ArrayList<>();
 
             for (String word : words)  {
-                String likePattern = "%" + keyWord + "%";
+                String likePattern = "%" + word + "%";
 
                 Predicate nameContains = criteriaBuilder.like(criteriaBuilder.lower(root.get("name")), likePattern);
                 Predicate descriptionContains = criteriaBuilder.like(criteriaBuilder.lower(root.get("description")), likePattern);
@@ -40,4 +59,43 @@ public class ProductSpecifications {
             return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
         };
     }
+
+    public static Specification<Product> isAfter(ProductCursor cursor) {
+        return (root, query, criteriaBuilder) -> {
+            Expression<Long> id = root.get("id");
+
+            return switch (cursor.sortBy()) {
+                case "name" -> seek(criteriaBuilder, root.get("name"), cursor.lastValue(), id, cursor);
+                case "price" -> seek(criteriaBuilder, root.get("price"), new BigDecimal(cursor.lastValue()), id, cursor);
+                default -> beyond(criteriaBuilder, id, cursor.lastId(), cursor.descending());
+            };
+        };
+    }
+
+    private static <T extends Comparable<? super T>> Predicate seek(
+            CriteriaBuilder criteriaBuilder,
+            Expression<T> sortKey,
+            T lastValue,
+            Expression<Long> id,
+            ProductCursor cursor
+    ) {
+        Predicate beyondSortKey = beyond(criteriaBuilder, sortKey, lastValue, cursor.descending());
+        Predicate sameSortKeyBeyondId = criteriaBuilder.and(
+                criteriaBuilder.equal(sortKey, lastValue),
+                beyond(criteriaBuilder, id, cursor.lastId(), cursor.descending())
+        );
+
+        return criteriaBuilder.or(beyondSortKey, sameSortKeyBeyondId);
+    }
+
+    private static <T extends Comparable<? super T>> Predicate beyond(
+            CriteriaBuilder criteriaBuilder,
+            Expression<T> expression,
+            T value,
+            boolean descending
+    ) {
+        return descending
+                ? criteriaBuilder.lessThan(expression, value)
+                : criteriaBuilder.greaterThan(expression, value);
+    }
 }
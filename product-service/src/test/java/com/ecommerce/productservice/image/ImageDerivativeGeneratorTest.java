@@ -0,0 +1,62 @@
+package com.ecommerce.productservice.image;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImageDerivativeGeneratorTest {
+
+    private final ImageDerivativeGenerator imageDerivativeGenerator = new ImageDerivativeGenerator(0.8f);
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void generate_shouldWriteDownscaledVariantsNextToOriginal() throws IOException {
+        Path original = tempDir.resolve("photo.jpg");
+        ImageIO.write(new BufferedImage(2400, 1200, BufferedImage.TYPE_INT_RGB), "jpeg", original.toFile());
+
+        imageDerivativeGenerator.generate(original);
+
+        BufferedImage detail = ImageIO.read(tempDir.resolve("photo-detail.jpg").toFile());
+        BufferedImage card = ImageIO.read(tempDir.resolve("photo-card.jpg").toFile());
+        BufferedImage thumbnail = ImageIO.read(tempDir.resolve("photo-thumbnail.jpg").toFile());
+
+        assertEquals(1200, detail.getWidth());
+        assertEquals(600, detail.getHeight());
+        assertEquals(480, card.getWidth());
+        assertEquals(240, card.getHeight());
+        assertEquals(160, thumbnail.getWidth());
+        assertEquals(80, thumbnail.getHeight());
+    }
+
+    @Test
+    void generate_shouldNotUpscaleSmallImages() throws IOException {
+        Path original = tempDir.resolve("small.png");
+        ImageIO.write(new BufferedImage(100, 50, BufferedImage.TYPE_INT_ARGB), "png", original.toFile());
+
+        imageDerivativeGenerator.generate(original);
+
+        BufferedImage detail = ImageIO.read(tempDir.resolve("small-detail.png").toFile());
+
+        assertEquals(100, detail.getWidth());
+        assertEquals(50, detail.getHeight());
+        assertTrue(Files.exists(tempDir.resolve("small-thumbnail.png")));
+    }
+
+    @Test
+    void generate_shouldSkipUndecodableFiles() throws IOException {
+        Path original = Files.writeString(tempDir.resolve("broken.jpg"), "not an image");
+
+        imageDerivativeGenerator.generate(original);
+
+        assertFalse(Files.exists(tempDir.resolve("broken-thumbnail.jpg")));
+    }
+}
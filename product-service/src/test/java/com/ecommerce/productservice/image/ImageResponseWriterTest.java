@@ -0,0 +1,108 @@
+package com.ecommerce.productservice.image;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImageResponseWriterTest {
+
+    private final ImageResponseWriter imageResponseWriter = new ImageResponseWriter();
+
+    @TempDir
+    Path tempDir;
+
+    private Path image;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        image = Files.write(tempDir.resolve("photo.jpg"), "0123456789".getBytes());
+    }
+
+    @Test
+    void write_shouldWriteBodyWithImmutableCacheHeaders() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/images/photo.jpg");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        imageResponseWriter.write(new ImageFile(image, true), request, response);
+
+        assertEquals(200, response.getStatus());
+        assertEquals("0123456789", response.getContentAsString());
+        assertEquals("image/jpeg", response.getContentType());
+        assertTrue(response.getHeader(HttpHeaders.CACHE_CONTROL).contains("immutable"));
+        assertNotNull(response.getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void write_shouldNotMarkFallbackImmutable() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/images/photo.jpg");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        imageResponseWriter.write(new ImageFile(image, false), request, response);
+
+        assertEquals("no-cache, public", response.getHeader(HttpHeaders.CACHE_CONTROL));
+    }
+
+    @Test
+    void write_shouldReturnNotModified_whenEtagMatches() throws IOException {
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        imageResponseWriter.write(new ImageFile(image, true), new MockHttpServletRequest("GET", "/images/photo.jpg"), first);
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/images/photo.jpg");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, first.getHeader(HttpHeaders.ETAG));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        imageResponseWriter.write(new ImageFile(image, true), request, response);
+
+        assertEquals(304, response.getStatus());
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    void write_shouldWriteRequestedRange() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/images/photo.jpg");
+        request.addHeader(HttpHeaders.RANGE, "bytes=2-5");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        imageResponseWriter.write(new ImageFile(image, true), request, response);
+
+        assertEquals(206, response.getStatus());
+        assertEquals("bytes 2-5/10", response.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertEquals("2345", response.getContentAsString());
+    }
+
+    @Test
+    void write_shouldRejectUnsatisfiableRange() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/images/photo.jpg");
+        request.addHeader(HttpHeaders.RANGE, "bytes=20-30");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        imageResponseWriter.write(new ImageFile(image, true), request, response);
+
+        assertEquals(416, response.getStatus());
+        assertEquals("bytes */10", response.getHeader(HttpHeaders.CONTENT_RANGE));
+    }
+
+    @Test
+    void write_shouldDelegateToSendfile_whenSupportedAndLargeEnough() throws IOException {
+        Path large = Files.write(tempDir.resolve("large.png"), new byte[64 * 1024]);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/images/large.png");
+        request.setAttribute(ImageResponseWriter.SENDFILE_SUPPORT_ATTRIBUTE, Boolean.TRUE);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        imageResponseWriter.write(new ImageFile(large, true), request, response);
+
+        assertEquals(large.toAbsolutePath().toString(), request.getAttribute(ImageResponseWriter.SENDFILE_FILENAME_ATTRIBUTE));
+        assertEquals(0L, request.getAttribute(ImageResponseWriter.SENDFILE_START_ATTRIBUTE));
+        assertEquals(64L * 1024, request.getAttribute(ImageResponseWriter.SENDFILE_END_ATTRIBUTE));
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+}
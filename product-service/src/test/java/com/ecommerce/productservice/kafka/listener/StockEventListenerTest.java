@@ -0,0 +1,68 @@
+package com.ecommerce.productservice.kafka.listener;
+
+import com.ecommerce.productservice.kafka.event.StockChangedEvent;
+import com.ecommerce.productservice.projection.StockAvailabilityProjection;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.listener.ConsumerSeekAware.ConsumerSeekCallback;
+
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StockEventListenerTest {
+
+    private static final TopicPartition PARTITION = new TopicPartition("stock-levels", 0);
+
+    @Mock
+    private Consumer<?, ?> consumer;
+
+    private StockAvailabilityProjection stockAvailabilityProjection;
+
+    private StockEventListener stockEventListener;
+
+    @BeforeEach
+    void setUp() {
+        stockAvailabilityProjection = new StockAvailabilityProjection();
+        stockEventListener = new StockEventListener(stockAvailabilityProjection);
+    }
+
+    @Test
+    void onPartitionsAssigned_shouldReplayFromBeginning() {
+        ConsumerSeekCallback callback = mock(ConsumerSeekCallback.class);
+
+        stockEventListener.onPartitionsAssigned(Map.of(PARTITION, 42L), callback);
+
+        verify(callback, times(1)).seekToBeginning(Set.of(PARTITION));
+    }
+
+    @Test
+    void handleStockLevels_shouldApplyLevelsAndBecomeReadyOnceCaughtUp() {
+        when(consumer.assignment()).thenReturn(Set.of(PARTITION));
+        when(consumer.currentLag(PARTITION)).thenReturn(OptionalLong.of(1), OptionalLong.of(0));
+
+        stockEventListener.handleStockLevels(List.of(record(0, new StockChangedEvent(1L, 5, 0, 1L))), consumer);
+
+        assertFalse(stockAvailabilityProjection.isReady());
+
+        stockEventListener.handleStockLevels(List.of(record(1, new StockChangedEvent(1L, 3, 2, 2L)), record(2, null)), consumer);
+
+        assertTrue(stockAvailabilityProjection.isReady());
+        assertEquals(Map.of(1L, 3), stockAvailabilityProjection.getAvailableQuantities(List.of(1L)));
+    }
+
+    private ConsumerRecord<String, StockChangedEvent> record(long offset, StockChangedEvent event) {
+        return new ConsumerRecord<>(PARTITION.topic(), PARTITION.partition(), offset, "1", event);
+    }
+}
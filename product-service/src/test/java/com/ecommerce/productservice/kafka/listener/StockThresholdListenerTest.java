@@ -0,0 +1,30 @@
+package com.ecommerce.productservice.kafka.listener;
+
+import com.ecommerce.productservice.kafka.event.StockThresholdCrossedEvent;
+import com.ecommerce.productservice.service.ProductService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StockThresholdListenerTest {
+
+    @InjectMocks
+    private StockThresholdListener stockThresholdListener;
+
+    @Mock
+    private ProductService productService;
+
+    @Test
+    void handleStockThresholdCrossed_shouldMarkProductSoldOutOnlyWhenSoldOut() {
+        stockThresholdListener.handleStockThresholdCrossed(new StockThresholdCrossedEvent(1L, StockThresholdCrossedEvent.Level.SOLD_OUT, 0, 7L));
+        stockThresholdListener.handleStockThresholdCrossed(new StockThresholdCrossedEvent(2L, StockThresholdCrossedEvent.Level.LOW_STOCK, 2, null));
+
+        verify(productService, times(1)).updateSoldOut(1L, true, 7L);
+        verify(productService, times(1)).updateSoldOut(2L, false, 0L);
+    }
+}
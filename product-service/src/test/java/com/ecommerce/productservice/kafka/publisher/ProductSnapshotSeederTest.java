@@ -0,0 +1,81 @@
+package com.ecommerce.productservice.kafka.publisher;
+
+import com.ecommerce.productservice.kafka.event.ProductSnapshotEvent;
+import com.ecommerce.productservice.mapper.ProductMapper;
+import com.ecommerce.productservice.model.Product;
+import com.ecommerce.productservice.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductSnapshotSeederTest {
+
+    @InjectMocks
+    private ProductSnapshotSeeder productSnapshotSeeder;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ProductMapper productMapper;
+
+    @Mock
+    private ProductEventPublisher productEventPublisher;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(productSnapshotSeeder, "seedOnStartup", true);
+    }
+
+    @Test
+    void seed_shouldPublishEveryProductPageByPageUnderRowLocks() {
+        doAnswer(invocation -> {
+            Consumer<TransactionStatus> action = invocation.getArgument(0);
+            action.accept(mock(TransactionStatus.class));
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+
+        Product first = Product.builder().id(1L).build();
+        Product second = Product.builder().id(2L).build();
+        ProductSnapshotEvent firstSnapshot = new ProductSnapshotEvent();
+        ProductSnapshotEvent secondSnapshot = new ProductSnapshotEvent();
+
+        when(productRepository.findIdsAfter(eq(0L), any(Pageable.class))).thenReturn(List.of(1L, 2L));
+        when(productRepository.findIdsAfter(eq(2L), any(Pageable.class))).thenReturn(List.of());
+        when(productRepository.findAllForUpdate(List.of(1L, 2L))).thenReturn(List.of(first, second));
+        when(productMapper.productToProductSnapshotEvent(first)).thenReturn(firstSnapshot);
+        when(productMapper.productToProductSnapshotEvent(second)).thenReturn(secondSnapshot);
+
+        productSnapshotSeeder.seed();
+
+        verify(productEventPublisher, times(1)).publishProductSnapshot(firstSnapshot);
+        verify(productEventPublisher, times(1)).publishProductSnapshot(secondSnapshot);
+    }
+
+    @Test
+    void seed_shouldDoNothing_whenDisabled() {
+        ReflectionTestUtils.setField(productSnapshotSeeder, "seedOnStartup", false);
+
+        productSnapshotSeeder.seed();
+
+        verifyNoInteractions(productRepository, productEventPublisher);
+    }
+}
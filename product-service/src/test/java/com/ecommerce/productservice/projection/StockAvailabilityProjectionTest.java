@@ -0,0 +1,48 @@
+package com.ecommerce.productservice.projection;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StockAvailabilityProjectionTest {
+
+    private final StockAvailabilityProjection stockAvailabilityProjection = new StockAvailabilityProjection();
+
+    @Test
+    void isReady_shouldBeFalseUntilMarkedReady() {
+        stockAvailabilityProjection.update(1L, 5);
+
+        assertFalse(stockAvailabilityProjection.isReady());
+
+        stockAvailabilityProjection.markReady();
+
+        assertTrue(stockAvailabilityProjection.isReady());
+    }
+
+    @Test
+    void update_shouldOverwriteAndRemoveShouldDrop() {
+        stockAvailabilityProjection.update(1L, 5);
+        stockAvailabilityProjection.update(1L, 0);
+        stockAvailabilityProjection.update(2L, 4);
+        stockAvailabilityProjection.remove(2L);
+
+        assertEquals(Map.of(1L, 0), stockAvailabilityProjection.getAvailableQuantities(List.of(1L, 2L)));
+        assertEquals(1, stockAvailabilityProjection.size());
+    }
+
+    @Test
+    void update_shouldDropOlderVersionsAndLocalLevelsOncePublished() {
+        stockAvailabilityProjection.update(1L, 5, 8L);
+        stockAvailabilityProjection.update(1L, 7, 7L);
+        stockAvailabilityProjection.update(1L, 9);
+
+        assertEquals(Map.of(1L, 5), stockAvailabilityProjection.getAvailableQuantities(List.of(1L)));
+
+        stockAvailabilityProjection.update(1L, 4, 9L);
+
+        assertEquals(Map.of(1L, 4), stockAvailabilityProjection.getAvailableQuantities(List.of(1L)));
+    }
+}
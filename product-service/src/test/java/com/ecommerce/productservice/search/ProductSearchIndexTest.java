@@ -0,0 +1,99 @@
+package com.ecommerce.productservice.search;
+
+import com.ecommerce.productservice.model.Product;
+import com.ecommerce.productservice.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProductSearchIndexTest {
+
+    @InjectMocks
+    private ProductSearchIndex productSearchIndex;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @BeforeEach
+    void setUp() {
+        productSearchIndex.index(Product.builder().id(1L).name("Red Running Shoes").description("Lightweight trail shoe").build());
+        productSearchIndex.index(Product.builder().id(2L).name("Blue Running Shirt").description(null).build());
+        productSearchIndex.index(Product.builder().id(3L).name("Red Cap").description("Cotton, one-size").build());
+    }
+
+    @Test
+    void search_shouldMatchAllWords() {
+        assertEquals(Set.of(1L), productSearchIndex.search("red running"));
+        assertEquals(Set.of(1L, 2L), productSearchIndex.search("RUNNING"));
+    }
+
+    @Test
+    void search_shouldMatchTokenPrefixesInDescription() {
+        assertEquals(Set.of(1L), productSearchIndex.search("trail"));
+        assertEquals(Set.of(3L), productSearchIndex.search("cott one"));
+    }
+
+    @Test
+    void search_shouldReturnEmptyWhenAnyWordDoesNotMatch() {
+        assertTrue(productSearchIndex.search("red jacket").isEmpty());
+        assertTrue(productSearchIndex.search("  ").isEmpty());
+    }
+
+    @Test
+    void index_shouldReplaceTokensOfUpdatedProduct() {
+        productSearchIndex.index(Product.builder().id(3L).name("Green Cap").description(null).build());
+
+        assertEquals(Set.of(1L), productSearchIndex.search("red"));
+        assertEquals(Set.of(3L), productSearchIndex.search("green"));
+    }
+
+    @Test
+    void remove_shouldDropProductFromResults() {
+        productSearchIndex.remove(1L);
+
+        assertEquals(Set.of(2L), productSearchIndex.search("running"));
+        assertTrue(productSearchIndex.search("trail").isEmpty());
+    }
+
+    @Test
+    void rebuild_shouldReplaceIndexWithAllProducts() {
+        when(productRepository.findAll(any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(Product.builder().id(4L).name("Wool Socks").build())));
+
+        productSearchIndex.rebuild();
+
+        assertEquals(Set.of(4L), productSearchIndex.search("wool"));
+        assertTrue(productSearchIndex.search("red").isEmpty());
+    }
+
+    @Test
+    void rebuild_shouldKeepChangesMadeWhileItRuns() {
+        when(productRepository.findAll(any(Pageable.class))).thenAnswer(invocation -> {
+            productSearchIndex.index(Product.builder().id(4L).name("Cashmere Socks").build());
+            productSearchIndex.remove(5L);
+
+            return new PageImpl<>(List.of(
+                    Product.builder().id(4L).name("Wool Socks").build(),
+                    Product.builder().id(5L).name("Wool Scarf").build()
+            ));
+        });
+
+        productSearchIndex.rebuild();
+
+        assertEquals(Set.of(4L), productSearchIndex.search("cashmere"));
+        assertTrue(productSearchIndex.search("wool").isEmpty());
+    }
+}
@@ -2,21 +2,36 @@ package com.ecommerce.productservice.service;
 
 import com.ecommerce.exceptionlib.exception.BadRequestException;
 import com.ecommerce.exceptionlib.exception.InternalServerException;
+import com.ecommerce.exceptionlib.exception.NotFoundException;
+import com.ecommerce.productservice.image.ImageDerivativeGenerator;
+import com.ecommerce.productservice.image.ImageFile;
+import com.ecommerce.productservice.repository.ImageBlobRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -30,32 +45,63 @@ class ImageServiceTest {
     @Mock
     private MultipartFile multipartFile;
 
+    @Mock
+    private ImageDerivativeGenerator imageDerivativeGenerator;
+
+    @Mock
+    private ImageBlobRepository imageBlobRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
     @TempDir
     Path tempDir;
 
+    private static final byte[] JPEG = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF, 'i', 'm', 'a', 'g', 'e'};
+
+    private static final byte[] PNG = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n', 'i', 'm', 'a', 'g', 'e'};
+
     @BeforeEach
     void setUp() {
         ReflectionTestUtils.setField(imageService, "uploadDir", tempDir.toString());
+        ReflectionTestUtils.setField(imageService, "maxSize", DataSize.ofKilobytes(100));
     }
 
     @Nested
     @DisplayName("saveImage() Tests")
     class SaveImage {
         @Test
-        void saveImage_shouldSaveAndReturnUrl() throws IOException {
+        void saveImage_shouldSaveUnderContentHashAndReturnUrl() throws IOException {
             when(multipartFile.isEmpty()).thenReturn(false);
             when(multipartFile.getContentType()).thenReturn("image/jpeg");
-            when(multipartFile.getOriginalFilename()).thenReturn("test.jpg");
-            doAnswer(invocation -> {
-                Path dest = (Path) invocation.getArgument(0, java.io.File.class).toPath();
-                Files.createFile(dest);
-                return null;
-            }).when(multipartFile).transferTo(any(java.io.File.class));
+            when(multipartFile.getInputStream()).thenReturn(new ByteArrayInputStream(JPEG));
 
             String url = imageService.saveImage(multipartFile);
 
-            assertTrue(url.startsWith("/images/"));
-            assertTrue(Files.exists(tempDir.resolve(url.replace("/images/", ""))));
+            Path stored = tempDir.resolve(url.replace("/images/", ""));
+            assertEquals("/images/f962ea3aef41845bd53efa514b61032a5d6ef6bc80efc68a43454a0328a8420b.jpg", url);
+            assertArrayEquals(JPEG, Files.readAllBytes(stored));
+            verify(imageDerivativeGenerator, times(1)).generateAsync(stored.toAbsolutePath().normalize());
+            verify(imageBlobRepository, times(1)).markUploaded(eq(url), any(Instant.class));
+        }
+
+        @Test
+        void saveImage_shouldReuseExistingBlob_whenSameContentUploadedTwice() throws IOException {
+            when(multipartFile.isEmpty()).thenReturn(false);
+            when(multipartFile.getContentType()).thenReturn("image/png");
+            when(multipartFile.getInputStream())
+                    .thenReturn(new ByteArrayInputStream(PNG))
+                    .thenReturn(new ByteArrayInputStream(PNG));
+
+            String first = imageService.saveImage(multipartFile);
+            String second = imageService.saveImage(multipartFile);
+
+            assertEquals(first, second);
+            assertTrue(first.endsWith(".png"));
+            try (var files = Files.list(tempDir)) {
+                assertEquals(1, files.count());
+            }
+            verify(imageDerivativeGenerator, times(1)).generateAsync(any(Path.class));
         }
 
         @Test
@@ -77,52 +123,199 @@ class ImageServiceTest {
         void saveImage_shouldThrowInternalServerException_whenIOException() throws IOException {
             when(multipartFile.isEmpty()).thenReturn(false);
             when(multipartFile.getContentType()).thenReturn("image/png");
-            when(multipartFile.getOriginalFilename()).thenReturn("test.png");
-            doThrow(new IOException()).when(multipartFile).transferTo(any(java.io.File.class));
+            when(multipartFile.getInputStream()).thenThrow(new IOException());
 
             assertThrows(InternalServerException.class, () -> imageService.saveImage(multipartFile));
         }
     }
 
     @Nested
-    @DisplayName("replaceProductImage() tests")
-    class ReplaceProductImage {
+    @DisplayName("saveImage() streaming tests")
+    class SaveImageStream {
         @Test
-        void replaceProductImage_shouldDeleteOldAndReturnNewUrl() throws IOException {
-            when(multipartFile.isEmpty()).thenReturn(false);
-            when(multipartFile.getContentType()).thenReturn("image/jpeg");
-            when(multipartFile.getOriginalFilename()).thenReturn("new.jpg");
-            doAnswer(invocation -> {
-                Path dest = (Path) invocation.getArgument(0, java.io.File.class).toPath();
-                Files.createFile(dest);
-                return null;
-            }).when(multipartFile).transferTo(any(java.io.File.class));
+        void saveImage_shouldPickExtensionFromMagicBytes() {
+            String url = imageService.saveImage(new ByteArrayInputStream(PNG), PNG.length);
+
+            assertTrue(url.endsWith(".png"));
+        }
+
+        @Test
+        void saveImage_shouldRejectUnknownMagicBytesWithoutStoringAnything() throws IOException {
+            InputStream input = new ByteArrayInputStream("%PDF-1.7 not an image".getBytes());
+
+            assertThrows(BadRequestException.class, () -> imageService.saveImage(input, -1));
+            try (var files = Files.list(tempDir)) {
+                assertEquals(0, files.count());
+            }
+        }
+
+        @Test
+        void saveImage_shouldRejectDeclaredOversizedBodyBeforeReading() throws IOException {
+            InputStream input = mock(InputStream.class);
+
+            assertThrows(BadRequestException.class, () -> imageService.saveImage(input, DataSize.ofKilobytes(101).toBytes()));
+            verifyNoInteractions(input);
+        }
+
+        @Test
+        void saveImage_shouldRejectOversizedBodyWhileStreaming() throws IOException {
+            byte[] oversized = new byte[(int) DataSize.ofKilobytes(200).toBytes()];
+            System.arraycopy(JPEG, 0, oversized, 0, JPEG.length);
+
+            assertThrows(BadRequestException.class, () -> imageService.saveImage(new ByteArrayInputStream(oversized), -1));
+            try (var files = Files.list(tempDir)) {
+                assertEquals(0, files.count());
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("resolveImage() tests")
+    class ResolveImage {
+        @Test
+        void resolveImage_shouldReturnImmutableOriginal_whenNoSizeRequested() throws IOException {
+            Path original = Files.createFile(tempDir.resolve("photo.jpg"));
+
+            ImageFile image = imageService.resolveImage("photo.jpg", null);
+
+            assertEquals(original.toAbsolutePath().normalize(), image.path());
+            assertTrue(image.immutable());
+        }
+
+        @Test
+        void resolveImage_shouldReturnDerivative_whenGenerated() throws IOException {
+            Files.createFile(tempDir.resolve("photo.jpg"));
+            Path thumbnail = Files.createFile(tempDir.resolve("photo-thumbnail.jpg"));
+
+            ImageFile image = imageService.resolveImage("photo.jpg", "thumbnail");
+
+            assertEquals(thumbnail.toAbsolutePath().normalize(), image.path());
+            assertTrue(image.immutable());
+        }
+
+        @Test
+        void resolveImage_shouldFallBackToRevalidatedOriginal_whenDerivativeMissing() throws IOException {
+            Path original = Files.createFile(tempDir.resolve("photo.jpg"));
 
-            String oldFileName = "old.jpg";
-            Path oldFile = tempDir.resolve(oldFileName);
-            Files.createFile(oldFile);
-            String oldImageUrl = "/images/" + oldFileName;
+            ImageFile image = imageService.resolveImage("photo.jpg", "card");
 
-            String url = imageService.replaceProductImage(oldImageUrl, multipartFile);
+            assertEquals(original.toAbsolutePath().normalize(), image.path());
+            assertFalse(image.immutable());
+        }
 
-            assertTrue(url.startsWith("/images/"));
-            assertFalse(Files.exists(oldFile));
+        @Test
+        void resolveImage_shouldThrowNotFound_whenMissingOrOutsideUploadDir() {
+            assertThrows(NotFoundException.class, () -> imageService.resolveImage("missing.jpg", null));
+            assertThrows(NotFoundException.class, () -> imageService.resolveImage("../secret.jpg", null));
+        }
+    }
+
+    @Nested
+    @DisplayName("addReference() tests")
+    class AddReference {
+        @Test
+        void addReference_shouldCountReference() throws IOException {
+            Files.createFile(tempDir.resolve("photo.jpg"));
+
+            imageService.addReference("/images/photo.jpg");
+
+            verify(imageBlobRepository, times(1)).addReference("/images/photo.jpg");
+        }
+
+        @Test
+        void addReference_shouldThrowBadRequest_whenBlobWasDeleted() {
+            assertThrows(BadRequestException.class, () -> imageService.addReference("/images/missing.jpg"));
+        }
+
+        @Test
+        void addReference_shouldIgnoreMissingImageUrl() {
+            imageService.addReference(null);
+
+            verifyNoInteractions(imageBlobRepository);
         }
     }
 
     @Nested
     @DisplayName("deleteImage() tests")
     class DeleteImage {
+        @BeforeEach
+        void setUp() {
+            lenient().doAnswer(invocation -> {
+                Consumer<TransactionStatus> action = invocation.getArgument(0);
+                action.accept(mock(TransactionStatus.class));
+                return null;
+            }).when(transactionTemplate).executeWithoutResult(any());
+        }
+
         @Test
         void deleteImage_shouldDeleteFile() throws IOException {
             String fileName = "delete.jpg";
             Path file = tempDir.resolve(fileName);
             Files.createFile(file);
             String imageUrl = "/images/" + fileName;
+            when(imageBlobRepository.deleteUnreferenced(eq(imageUrl), any(Instant.class))).thenReturn(1);
 
             assertTrue(Files.exists(file));
             imageService.deleteImage(imageUrl);
 
+            assertFalse(Files.exists(file));
+            verify(imageBlobRepository, times(1)).removeReference(imageUrl);
+        }
+
+        @Test
+        void deleteImage_shouldDeleteDerivatives() throws IOException {
+            Path file = Files.createFile(tempDir.resolve("delete.jpg"));
+            Path thumbnail = Files.createFile(tempDir.resolve("delete-thumbnail.jpg"));
+            Path card = Files.createFile(tempDir.resolve("delete-card.jpg"));
+            when(imageBlobRepository.deleteUnreferenced(eq("/images/delete.jpg"), any(Instant.class))).thenReturn(1);
+
+            imageService.deleteImage("/images/delete.jpg");
+
+            assertFalse(Files.exists(file));
+            assertFalse(Files.exists(thumbnail));
+            assertFalse(Files.exists(card));
+        }
+
+        @Test
+        void deleteImage_shouldKeepFile_whenStillReferencedOrRecentlyUploaded() throws IOException {
+            Path file = Files.createFile(tempDir.resolve("shared.jpg"));
+            when(imageBlobRepository.deleteUnreferenced(eq("/images/shared.jpg"), any(Instant.class))).thenReturn(0);
+
+            imageService.deleteImage("/images/shared.jpg");
+
+            assertTrue(Files.exists(file));
+        }
+
+        @Test
+        void deleteImage_shouldSpareBlobsUploadedWithinTheGracePeriod() {
+            Instant before = Instant.now();
+
+            imageService.deleteImage("/images/shared.jpg");
+
+            ArgumentCaptor<Instant> uploadedBefore = ArgumentCaptor.forClass(Instant.class);
+            verify(imageBlobRepository).deleteUnreferenced(eq("/images/shared.jpg"), uploadedBefore.capture());
+            assertFalse(uploadedBefore.getValue().isAfter(before.minus(Duration.ofMinutes(59))));
+        }
+
+        @Test
+        void deleteImage_shouldDeleteFile_onlyAfterCommit() throws IOException {
+            Path file = Files.createFile(tempDir.resolve("delete.jpg"));
+            when(imageBlobRepository.deleteUnreferenced(eq("/images/delete.jpg"), any(Instant.class))).thenReturn(1);
+
+            TransactionSynchronizationManager.initSynchronization();
+
+            try {
+                imageService.deleteImage("/images/delete.jpg");
+
+                assertTrue(Files.exists(file));
+                verify(imageBlobRepository, times(1)).removeReference("/images/delete.jpg");
+                verify(imageBlobRepository, never()).deleteUnreferenced(any(), any());
+
+                TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            } finally {
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+
             assertFalse(Files.exists(file));
         }
 
@@ -138,6 +331,7 @@ class ImageServiceTest {
             Path file = tempDir.resolve(fileName);
             Files.createFile(file);
             String imageUrl = "/images/" + fileName;
+            when(imageBlobRepository.deleteUnreferenced(eq(imageUrl), any(Instant.class))).thenReturn(1);
             // Make file read-only to cause IOException
             file.toFile().setReadOnly();
 
@@ -0,0 +1,203 @@
+package com.ecommerce.productservice.service;
+
+import com.ecommerce.exceptionlib.exception.InternalServerException;
+import com.ecommerce.productservice.client.StockClient;
+import com.ecommerce.productservice.dto.CreateProductRequest;
+import com.ecommerce.productservice.dto.CreateStocksRequest;
+import com.ecommerce.productservice.dto.ProductImportResponse;
+import com.ecommerce.productservice.kafka.publisher.ProductEventPublisher;
+import com.ecommerce.productservice.mapper.ProductMapper;
+import com.ecommerce.productservice.model.Category;
+import com.ecommerce.productservice.model.Product;
+import com.ecommerce.productservice.projection.StockAvailabilityProjection;
+import com.ecommerce.productservice.repository.CategoryRepository;
+import com.ecommerce.productservice.repository.ProductRepository;
+import com.ecommerce.productservice.search.ProductSearchIndex;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductImportServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @Mock
+    private ProductMapper productMapper;
+
+    @Mock
+    private StockClient stockClient;
+
+    @Mock
+    private ProductSearchIndex productSearchIndex;
+
+    @Mock
+    private StockAvailabilityProjection stockAvailabilityProjection;
+
+    @Mock
+    private ProductEventPublisher productEventPublisher;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private ProductImportService productImportService;
+
+    @BeforeEach
+    void setUp() {
+        productImportService = new ProductImportService(
+                productRepository,
+                categoryRepository,
+                productMapper,
+                stockClient,
+                productSearchIndex,
+                stockAvailabilityProjection,
+                productEventPublisher,
+                transactionTemplate,
+                new ObjectMapper(),
+                Validation.buildDefaultValidatorFactory().getValidator()
+        );
+        ReflectionTestUtils.setField(productImportService, "chunkSize", 2);
+
+        AtomicLong ids = new AtomicLong();
+
+        when(categoryRepository.findAll()).thenReturn(List.of(new Category(1L, "Category")));
+        when(productMapper.createProductRequestToProduct(any(CreateProductRequest.class)))
+                .thenAnswer(invocation -> {
+                    CreateProductRequest request = invocation.getArgument(0);
+                    return Product.builder().name(request.getName()).price(request.getPrice()).build();
+                });
+        when(productRepository.saveAll(anyList()))
+                .thenAnswer(invocation -> {
+                    List<Product> products = invocation.getArgument(0);
+                    products.forEach(product -> product.setId(ids.incrementAndGet()));
+                    return products;
+                });
+        doAnswer(invocation -> {
+            Consumer<TransactionStatus> action = invocation.getArgument(0);
+            action.accept(mock(TransactionStatus.class));
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    @Test
+    void importProducts_shouldImportCsvInChunksAndReportInvalidRows() {
+        InputStream csv = input("""
+                name,categoryId,description,price,availableQuantity
+                First,1,,10.00,5
+                Broken,1,,-1,5
+                Second,1,"Quoted, description",20.00,3
+                Third,1,,30.00,0
+                Orphan,99,,30.00,1
+                """);
+
+        ProductImportResponse response = productImportService.importProducts(csv, ProductImportService.Format.CSV);
+
+        assertEquals(3, response.imported());
+        assertEquals(2, response.failed());
+        assertEquals(List.of(2L, 5L), response.failures().stream().map(ProductImportResponse.RowFailure::row).toList());
+        assertEquals("Category was not found", response.failures().get(1).message());
+
+        ArgumentCaptor<CreateStocksRequest> stocks = ArgumentCaptor.forClass(CreateStocksRequest.class);
+        verify(stockClient, times(2)).createStocks(stocks.capture());
+        assertEquals(2, stocks.getAllValues().getFirst().getStocks().size());
+        assertEquals(3, stocks.getAllValues().getFirst().getStocks().get(1).getAvailableQuantity());
+        verify(productRepository, times(2)).saveAll(anyList());
+        verify(productSearchIndex, times(3)).index(any(Product.class));
+        verify(stockAvailabilityProjection, times(1)).update(1L, 5);
+        verify(productEventPublisher, times(3)).publishProductSnapshot(any());
+    }
+
+    @Test
+    void importProducts_shouldSkipUnmappableNdjsonRowsAndContinue() {
+        InputStream ndjson = input("""
+                {"name":"First","categoryId":1,"price":"not a number","availableQuantity":1}
+                {"name":"Second","categoryId":1,"price":12.5,"availableQuantity":4}
+                """);
+
+        ProductImportResponse response = productImportService.importProducts(ndjson, ProductImportService.Format.NDJSON);
+
+        assertEquals(1, response.imported());
+        assertEquals(1, response.failed());
+        assertEquals(1L, response.failures().getFirst().row());
+        verify(stockAvailabilityProjection, times(1)).update(1L, 4);
+    }
+
+    @Test
+    void importProducts_shouldReportWholeChunk_whenStockCreationFails() {
+        when(stockClient.createStocks(any(CreateStocksRequest.class)))
+                .thenThrow(new InternalServerException("Stock service unavailable"));
+
+        InputStream ndjson = input("""
+                {"name":"First","categoryId":1,"price":10,"availableQuantity":1}
+                {"name":"Second","categoryId":1,"price":20,"availableQuantity":2}
+                """);
+
+        ProductImportResponse response = productImportService.importProducts(ndjson, ProductImportService.Format.NDJSON);
+
+        assertEquals(0, response.imported());
+        assertEquals(2, response.failed());
+        verify(stockClient, times(3)).createStocks(any(CreateStocksRequest.class));
+        verify(productRepository, times(1)).deleteAllByIdInBatch(List.of(1L, 2L));
+        verifyNoInteractions(productSearchIndex, stockAvailabilityProjection, productEventPublisher);
+    }
+
+    @Test
+    void importProducts_shouldRetryStockCreation_afterProductsAreCommitted() {
+        List<String> calls = new ArrayList<>();
+
+        doAnswer(invocation -> {
+            calls.add("transaction");
+            Consumer<TransactionStatus> action = invocation.getArgument(0);
+            action.accept(mock(TransactionStatus.class));
+            calls.add("commit");
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        when(stockClient.createStocks(any(CreateStocksRequest.class)))
+                .thenAnswer(invocation -> {
+                    calls.add("createStocks");
+                    throw new InternalServerException("Stock service unavailable");
+                })
+                .thenAnswer(invocation -> {
+                    calls.add("createStocks");
+                    return List.of();
+                });
+
+        InputStream ndjson = input("""
+                {"name":"First","categoryId":1,"price":10,"availableQuantity":1}
+                """);
+
+        ProductImportResponse response = productImportService.importProducts(ndjson, ProductImportService.Format.NDJSON);
+
+        assertEquals(1, response.imported());
+        assertEquals(List.of("transaction", "commit", "createStocks", "createStocks"), calls);
+        verify(productRepository, never()).deleteAllByIdInBatch(anyList());
+        verify(stockAvailabilityProjection, times(1)).update(1L, 1);
+    }
+
+    private InputStream input(String content) {
+        return new ByteArrayInputStream(content.getBytes());
+    }
+}
@@ -1,29 +1,53 @@
 package com.ecommerce.productservice.service;
 
+import com.ecommerce.exceptionlib.exception.BadRequestException;
 import com.ecommerce.exceptionlib.exception.NotFoundException;
+import com.ecommerce.productservice.cache.ProductCache;
 import com.ecommerce.productservice.client.StockClient;
 import com.ecommerce.productservice.dto.*;
+import com.ecommerce.productservice.kafka.event.ProductSnapshotEvent;
+import com.ecommerce.productservice.kafka.publisher.ProductEventPublisher;
 import com.ecommerce.productservice.mapper.ProductMapper;
 import com.ecommerce.productservice.model.Category;
 import com.ecommerce.productservice.model.Product;
+import com.ecommerce.productservice.pagination.ProductCursor;
+import com.ecommerce.productservice.projection.StockAvailabilityProjection;
+import com.ecommerce.productservice.repository.ProductFacetRepository;
 import com.ecommerce.productservice.repository.ProductRepository;
+import com.ecommerce.productservice.search.ProductSearchIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
+import org.mockito.InOrder;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -50,6 +74,18 @@ class ProductServiceTest {
     @Mock
     private StockClient stockClient;
 
+    @Mock
+    private ProductSearchIndex productSearchIndex;
+
+    @Mock
+    private StockAvailabilityProjection stockAvailabilityProjection;
+
+    @Mock
+    private ProductEventPublisher productEventPublisher;
+
+    @Spy
+    private ProductCache productCache = new ProductCache(100, Duration.ofMinutes(1), new SimpleMeterRegistry());
+
     private Product product;
 
     private Category category;
@@ -99,6 +135,21 @@ class ProductServiceTest {
             verify(stockClient, times(1)).getStockByProductId(1L);
         }
 
+        @Test
+        void getProductById_shouldServeRepeatedReadsFromCache() {
+            when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+            when(productMapper.productToProductResponse(product)).thenReturn(productResponse);
+            when(stockClient.getStockByProductId(1L)).thenReturn(new StockResponse(1L, 3), new StockResponse(1L, 2));
+
+            ProductResponse first = productService.getProductById(1L);
+            ProductResponse second = productService.getProductById(1L);
+
+            assertEquals(3, first.getAvailableQuantity());
+            assertEquals(2, second.getAvailableQuantity());
+            verify(productRepository, times(1)).findById(1L);
+            verify(stockClient, times(2)).getStockByProductId(1L);
+        }
+
         @Test
         void getProductById_shouldThrowNotFound() {
             when(productRepository.findById(1L)).thenReturn(Optional.empty());
@@ -118,7 +169,7 @@ class ProductServiceTest {
         when(stockClient.getStocksByProductIds(anyList())).thenReturn(List.of(stockResponse));
         when(productMapper.productToProductResponse(any(Product.class), anyInt())).thenReturn(productResponse);
 
-        PagedResponse<ProductResponse> result = productService.getAllProducts(pageRequest, Specification.where(null));
+        PagedResponse<ProductResponse> result = productService.getAllProducts(pageRequest, Specification.where(null), null);
 
         assertNotNull(result);
         assertEquals(1, result.content().size());
@@ -132,20 +183,205 @@ class ProductServiceTest {
         verify(productRepository, times(1)).findAll(any(Specification.class), eq(pageRequest));
         verify(stockClient, times(1)).getStocksByProductIds(List.of(product.getId()));
         verify(productMapper, times(1)).productToProductResponse(eq(product), eq(stockResponse.availableQuantity()));
+        verifyNoInteractions(productSearchIndex);
+    }
+
+    @Test
+    void getAllProducts_shouldUseStockProjectionWhenReady() {
+        PageRequest pageRequest = PageRequest.of(0, 10);
+        Page<Product> page = new PageImpl<>(List.of(product), pageRequest, 1);
+
+        when(productRepository.findAll(any(Specification.class), eq(pageRequest))).thenReturn(page);
+        when(stockAvailabilityProjection.isReady()).thenReturn(true);
+        when(stockAvailabilityProjection.getAvailableQuantities(List.of(1L))).thenReturn(Map.of(1L, 7));
+        when(productMapper.productToProductResponse(any(Product.class), anyInt())).thenReturn(productResponse);
+
+        productService.getAllProducts(pageRequest, Specification.where(null), null);
+
+        verify(productMapper, times(1)).productToProductResponse(product, 7);
+        verifyNoInteractions(stockClient);
+    }
+
+    @Test
+    void getAllProducts_withKeyWord_shouldSearchIndex() {
+        PageRequest pageRequest = PageRequest.of(0, 10);
+        Page<Product> page = new PageImpl<>(List.of(product), pageRequest, 1);
+
+        when(productSearchIndex.search("test")).thenReturn(Set.of(1L));
+        when(productRepository.findAll(any(Specification.class), eq(pageRequest))).thenReturn(page);
+        when(stockClient.getStocksByProductIds(anyList())).thenReturn(List.of(stockResponse));
+        when(productMapper.productToProductResponse(any(Product.class), anyInt())).thenReturn(productResponse);
+
+        PagedResponse<ProductResponse> result = productService.getAllProducts(pageRequest, Specification.where(null), "test");
+
+        assertEquals(1, result.content().size());
+        verify(productSearchIndex, times(1)).search("test");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void getAllProducts_withKeyWord_shouldBindAllIndexMatchesAsOneArray() {
+        PageRequest pageRequest = PageRequest.of(0, 10);
+        Set<Long> productIds = LongStream.rangeClosed(1, 5000).boxed().collect(Collectors.toSet());
+
+        when(productSearchIndex.search("test")).thenReturn(productIds);
+        when(productRepository.findAll(any(Specification.class), eq(pageRequest))).thenReturn(Page.empty(pageRequest));
+
+        productService.getAllProducts(pageRequest, Specification.where(null), "test");
+
+        ArgumentCaptor<Specification<Product>> specification = ArgumentCaptor.forClass(Specification.class);
+        verify(productRepository).findAll(specification.capture(), eq(pageRequest));
+
+        Root<Product> root = mock(Root.class, RETURNS_DEEP_STUBS);
+        CriteriaBuilder criteriaBuilder = mock(CriteriaBuilder.class, RETURNS_DEEP_STUBS);
+
+        specification.getValue().toPredicate(root, mock(CriteriaQuery.class), criteriaBuilder);
+
+        ArgumentCaptor<Long[]> boundIds = ArgumentCaptor.forClass(Long[].class);
+        verify(criteriaBuilder).literal(boundIds.capture());
+        assertEquals(productIds, Set.of(boundIds.getValue()));
+        verify(criteriaBuilder, never()).like(any(), anyString());
+        verify(root.get("id"), never()).in(anyCollection());
+    }
+
+    @Test
+    void getAllProductsWithFacets_shouldAggregateCategoryAndPriceBucketCounts() {
+        PageRequest pageRequest = PageRequest.of(0, 10);
+        Page<Product> page = new PageImpl<>(List.of(product), pageRequest, 1);
+        List<BigDecimal> boundaries = List.of(BigDecimal.valueOf(50), BigDecimal.valueOf(100));
+
+        when(productRepository.findAll(any(Specification.class), eq(pageRequest))).thenReturn(page);
+        when(productRepository.countFacets(any(Specification.class), eq(boundaries))).thenReturn(List.of(
+                new ProductFacetRepository.ProductFacetRow(1L, "Category", new long[]{2, 0, 1}),
+                new ProductFacetRepository.ProductFacetRow(2L, "Other", new long[]{1, 4, 0})
+        ));
+        when(stockClient.getStocksByProductIds(anyList())).thenReturn(List.of(stockResponse));
+        when(productMapper.productToProductResponse(any(Product.class), anyInt())).thenReturn(productResponse);
+
+        FacetedPagedResponse<ProductResponse> result = productService.getAllProductsWithFacets(pageRequest, Specification.where(null), null, boundaries);
+
+        assertEquals(1, result.content().size());
+        assertEquals(
+                List.of(
+                        new ProductFacetsResponse.CategoryFacet(1L, "Category", 3),
+                        new ProductFacetsResponse.CategoryFacet(2L, "Other", 5)
+                ),
+                result.facets().categories()
+        );
+        assertEquals(
+                List.of(
+                        new ProductFacetsResponse.PriceBucketFacet(BigDecimal.ZERO, BigDecimal.valueOf(50), 3),
+                        new ProductFacetsResponse.PriceBucketFacet(BigDecimal.valueOf(50), BigDecimal.valueOf(100), 4),
+                        new ProductFacetsResponse.PriceBucketFacet(BigDecimal.valueOf(100), null, 1)
+                ),
+                result.facets().priceBuckets()
+        );
+        verify(productRepository, times(1)).countFacets(any(Specification.class), eq(boundaries));
+    }
+
+    @Nested
+    @DisplayName("scrollProducts() tests")
+    class ScrollProducts {
+        @Test
+        void scrollProducts_shouldReturnNextCursorWhenMoreProductsExist() {
+            Product product2 = Product.builder().id(2L).name("B").price(BigDecimal.valueOf(20)).build();
+            Product product3 = Product.builder().id(3L).name("C").price(BigDecimal.valueOf(30)).build();
+            ProductFilterRequest filterRequest = new ProductFilterRequest();
+            filterRequest.setPageSize(2);
+            filterRequest.setSortBy("price");
+
+            when(productRepository.findBy(any(Specification.class), any())).thenReturn(List.of(product, product2, product3));
+            when(stockClient.getStocksByProductIds(List.of(1L, 2L))).thenReturn(List.of(stockResponse));
+            when(productMapper.productToProductResponse(any(Product.class), anyInt())).thenReturn(productResponse);
+
+            CursorPagedResponse<ProductResponse> result = productService.scrollProducts(filterRequest);
+
+            assertEquals(2, result.content().size());
+            assertTrue(result.hasNextPage());
+            assertNull(result.totalElements());
+            assertEquals("20", ProductCursor.decode(result.nextCursor()).lastValue());
+            assertEquals(2L, ProductCursor.decode(result.nextCursor()).lastId());
+            verify(productRepository, never()).count(any(Specification.class));
+        }
+
+        @Test
+        void scrollProducts_shouldCountOnlyWhenRequested() {
+            ProductFilterRequest filterRequest = new ProductFilterRequest();
+            filterRequest.setIncludeTotal(true);
+
+            when(productRepository.count(any(Specification.class))).thenReturn(1L);
+            when(productRepository.findBy(any(Specification.class), any())).thenReturn(List.of(product));
+            when(stockClient.getStocksByProductIds(List.of(1L))).thenReturn(List.of(stockResponse));
+            when(productMapper.productToProductResponse(any(Product.class), anyInt())).thenReturn(productResponse);
+
+            CursorPagedResponse<ProductResponse> result = productService.scrollProducts(filterRequest);
+
+            assertFalse(result.hasNextPage());
+            assertNull(result.nextCursor());
+            assertEquals(1L, result.totalElements());
+        }
+
+        @Test
+        void scrollProducts_shouldRejectCursorFromDifferentSorting() {
+            ProductFilterRequest filterRequest = new ProductFilterRequest();
+            filterRequest.setSortBy("name");
+            filterRequest.setCursor(new ProductCursor("price", false, 1L, "10").encode());
+
+            assertThrows(BadRequestException.class, () -> productService.scrollProducts(filterRequest));
+        }
+
+        @Test
+        void scrollProducts_shouldRejectTamperedPriceCursor() {
+            ProductFilterRequest filterRequest = new ProductFilterRequest();
+            filterRequest.setSortBy("price");
+            filterRequest.setCursor(new ProductCursor("price", false, 1L, "not-a-price").encode());
+
+            assertThrows(BadRequestException.class, () -> productService.scrollProducts(filterRequest));
+            verify(productRepository, never()).findBy(any(Specification.class), any());
+        }
+
+        @Test
+        void scrollProducts_shouldRejectUnsupportedSortProperty() {
+            ProductFilterRequest filterRequest = new ProductFilterRequest();
+            filterRequest.setSortBy("description");
+
+            assertThrows(BadRequestException.class, () -> productService.scrollProducts(filterRequest));
+            verifyNoInteractions(productRepository);
+        }
     }
 
     @Test
     void getProductsByIds_shouldReturnList() {
         when(productRepository.findAllById(anyList())).thenReturn(List.of(product));
         when(stockClient.getStocksByProductIds(anyList())).thenReturn(List.of(stockResponse));
-        when(productMapper.productToProductResponse(any(Product.class), anyInt())).thenReturn(productResponse);
+        when(productMapper.productToProductResponse(any(Product.class))).thenReturn(productResponse);
 
         List<ProductResponse> result = productService.getProductsByIds(List.of(1L));
 
         assertEquals(1, result.size());
+        assertEquals(stockResponse.availableQuantity(), result.getFirst().getAvailableQuantity());
         verify(productRepository, times(1)).findAllById(anyList());
         verify(stockClient, times(1)).getStocksByProductIds(anyList());
-        verify(productMapper, times(1)).productToProductResponse(any(Product.class), anyInt());
+        verify(productMapper, times(1)).productToProductResponse(any(Product.class));
+    }
+
+    @Test
+    void getProductsByIds_shouldLoadOnlyMissingProducts() {
+        Product product2 = Product.builder().id(2L).name("Second").category(category).price(BigDecimal.TEN).build();
+        ProductResponse productResponse2 = ProductResponse.builder().id(2L).name("Second").build();
+
+        when(productRepository.findAllById(List.of(1L))).thenReturn(List.of(product));
+        when(productRepository.findAllById(List.of(2L))).thenReturn(List.of(product2));
+        when(productMapper.productToProductResponse(product)).thenReturn(productResponse);
+        when(productMapper.productToProductResponse(product2)).thenReturn(productResponse2);
+        when(stockClient.getStocksByProductIds(anyList())).thenReturn(List.of(stockResponse));
+
+        productService.getProductsByIds(List.of(1L));
+        List<ProductResponse> result = productService.getProductsByIds(List.of(1L, 2L));
+
+        assertEquals(2, result.size());
+        verify(productRepository, times(1)).findAllById(List.of(1L));
+        verify(productRepository, times(1)).findAllById(List.of(2L));
     }
 
     @Nested
@@ -168,9 +404,37 @@ class ProductServiceTest {
             verify(categoryService, times(1)).getCategoryByIdOrThrow(1L);
             verify(productMapper, times(1)).createProductRequestToProduct(req);
             verify(productRepository, times(1)).save(product);
+            verify(imageService, times(1)).addReference(product.getImageUrl());
+            verify(productSearchIndex, times(1)).index(product);
             verify(stockClient, times(1)).createStock(eq(product.getId()), any(CreateStockRequest.class));
+            verify(stockAvailabilityProjection, times(1)).update(product.getId(), 10);
+            verify(productEventPublisher, times(1)).publishProductSnapshot(any());
             verify(productMapper, times(1)).productToProductResponse(product, req.getAvailableQuantity());
         }
+
+        @Test
+        void createProduct_shouldNotPublishSnapshot_whenTransactionRollsBack() {
+            CreateProductRequest req = new CreateProductRequest();
+            req.setCategoryId(1L);
+            req.setAvailableQuantity(10);
+
+            when(categoryService.getCategoryByIdOrThrow(1L)).thenReturn(category);
+            when(productMapper.createProductRequestToProduct(req)).thenReturn(product);
+            when(stockClient.createStock(eq(product.getId()), any(CreateStockRequest.class))).thenThrow(new RuntimeException("Stock service unavailable"));
+
+            TransactionSynchronizationManager.initSynchronization();
+
+            try {
+                assertThrows(RuntimeException.class, () -> productService.createProduct(req));
+
+                TransactionSynchronizationManager.getSynchronizations()
+                        .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+            } finally {
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+
+            verifyNoInteractions(productEventPublisher, stockAvailabilityProjection, productSearchIndex);
+        }
     }
 
     @Nested
@@ -185,14 +449,41 @@ class ProductServiceTest {
             req.setPrice(BigDecimal.valueOf(150.0));
             req.setImageUrl("/images/test.jpg");
 
+            ProductSnapshotEvent snapshot = new ProductSnapshotEvent();
+
             when(productRepository.findById(1L)).thenReturn(Optional.of(product));
             when(categoryService.getCategoryByIdOrThrow(1L)).thenReturn(category);
+            when(productMapper.productToProductSnapshotEvent(product)).thenReturn(snapshot);
 
             productService.updateProduct(1L, req);
 
             verify(productRepository, times(1)).findById(1L);
             verify(categoryService, times(1)).getCategoryByIdOrThrow(req.getCategoryId());
             verify(productRepository, times(1)).save(product);
+            verify(productSearchIndex, times(1)).index(product);
+            verify(productCache, times(1)).evict(1L);
+            verify(productEventPublisher, times(1)).publishProductSnapshot(snapshot);
+            verify(imageService, never()).addReference(any());
+            verify(imageService, never()).deleteImage(any());
+        }
+
+        @Test
+        void updateProduct_shouldMoveImageReference_whenImageChanged() {
+            UpdateProductRequest req = new UpdateProductRequest();
+            req.setCategoryId(1L);
+            req.setImageUrl("/images/other.jpg");
+
+            when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+            when(categoryService.getCategoryByIdOrThrow(1L)).thenReturn(category);
+            doAnswer(invocation -> {
+                product.setImageUrl(req.getImageUrl());
+                return null;
+            }).when(productMapper).updateProductFromUpdateProductRequest(req, product);
+
+            productService.updateProduct(1L, req);
+
+            verify(imageService, times(1)).addReference("/images/other.jpg");
+            verify(imageService, times(1)).deleteImage("/images/test.jpg");
         }
     }
 
@@ -205,9 +496,55 @@ class ProductServiceTest {
 
             productService.deleteProductById(1L);
 
+            InOrder inOrder = inOrder(productRepository, imageService);
+            inOrder.verify(productRepository, times(1)).deleteById(1L);
+            inOrder.verify(imageService, times(1)).deleteImage(product.getImageUrl());
             verify(productRepository, times(1)).findById(1L);
-            verify(imageService, times(1)).deleteImage(product.getImageUrl());
-            verify(productRepository, times(1)).deleteById(1L);
+            verify(productSearchIndex, times(1)).remove(1L);
+            verify(productCache, times(1)).evict(1L);
+            verify(stockAvailabilityProjection, times(1)).remove(1L);
+            verify(productEventPublisher, times(1)).publishProductDeleted(1L);
+        }
+    }
+
+    @Nested
+    @DisplayName("updateSoldOut() tests")
+    class UpdateSoldOut {
+        @Test
+        void updateSoldOut_shouldEvictCachedProduct_whenFlagChanged() {
+            when(productRepository.updateSoldOut(1L, true, 7L)).thenReturn(1);
+
+            productService.updateSoldOut(1L, true, 7L);
+
+            verify(productCache, times(1)).evict(1L);
+        }
+
+        @Test
+        void updateSoldOut_shouldEvictCachedProduct_onlyAfterCommit() {
+            when(productRepository.updateSoldOut(1L, true, 7L)).thenReturn(1);
+
+            TransactionSynchronizationManager.initSynchronization();
+
+            try {
+                productService.updateSoldOut(1L, true, 7L);
+
+                verify(productCache, never()).evict(any());
+
+                TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            } finally {
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+
+            verify(productCache, times(1)).evict(1L);
+        }
+
+        @Test
+        void updateSoldOut_shouldKeepCache_whenNewerLevelWasAlreadyApplied() {
+            when(productRepository.updateSoldOut(1L, false, 7L)).thenReturn(0);
+
+            productService.updateSoldOut(1L, false, 7L);
+
+            verify(productCache, never()).evict(any());
         }
     }
 
@@ -218,14 +555,44 @@ class ProductServiceTest {
         void updateProductImage_shouldUpdateImage() {
             MultipartFile file = mock(MultipartFile.class);
             when(productRepository.findById(1L)).thenReturn(Optional.of(product));
-            when(imageService.replaceProductImage(anyString(), eq(file))).thenReturn("/images/new.jpg");
+            when(imageService.saveImage(file)).thenReturn("/images/new.jpg");
 
             String url = productService.updateProductImage(1L, file);
 
             assertEquals("/images/new.jpg", url);
+            assertEquals("/images/new.jpg", product.getImageUrl());
             verify(productRepository, times(1)).findById(1L);
-            verify(imageService, times(1)).replaceProductImage(anyString(), eq(file));
+            verify(imageService, times(1)).saveImage(file);
+            verify(imageService, times(1)).addReference("/images/new.jpg");
+            verify(productRepository, times(1)).save(product);
+            verify(productCache, times(1)).evict(1L);
+            verify(productEventPublisher, times(1)).publishProductSnapshot(any());
+            verify(imageService, times(1)).deleteImage("/images/test.jpg");
+        }
+
+        @Test
+        void updateProductImage_shouldStoreStreamedImage() {
+            InputStream image = new ByteArrayInputStream(new byte[0]);
+            when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+            when(imageService.saveImage(image, 10L)).thenReturn("/images/new.jpg");
+
+            String url = productService.updateProductImage(1L, image, 10L);
+
+            assertEquals("/images/new.jpg", url);
             verify(productRepository, times(1)).save(product);
+            verify(imageService, times(1)).deleteImage("/images/test.jpg");
+        }
+
+        @Test
+        void updateProductImage_shouldKeepImage_whenSameContentUploaded() {
+            MultipartFile file = mock(MultipartFile.class);
+            when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+            when(imageService.saveImage(file)).thenReturn("/images/test.jpg");
+
+            productService.updateProductImage(1L, file);
+
+            verify(imageService, never()).addReference(anyString());
+            verify(imageService, never()).deleteImage(anyString());
         }
     }
 }
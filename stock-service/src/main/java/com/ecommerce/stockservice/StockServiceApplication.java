@@ -3,7 +3,9 @@ package com.ecommerce.stockservice;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
+@EnableScheduling
 @EnableDiscoveryClient
 @SpringBootApplication(scanBasePackages = {
         "com.ecommerce.stockservice",
@@ -1,17 +1,26 @@
 package com.ecommerce.stockservice.config;
 
+import com.ecommerce.stockservice.dto.OrderCancelledEvent;
+import com.ecommerce.stockservice.dto.OrderConfirmedEvent;
+import com.ecommerce.stockservice.dto.StockItemReserveRequestedEvent;
 import com.ecommerce.stockservice.dto.StockReserveRequestedEvent;
+import com.ecommerce.stockservice.kafka.event.StockItemReservationResultEvent;
+import com.ecommerce.stockservice.kafka.event.StockReservationFailedEvent;
+import com.ecommerce.stockservice.kafka.publisher.StockEventPublisher;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.NestedExceptionUtils;
 import org.springframework.kafka.annotation.EnableKafka;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.listener.DefaultErrorHandler;
 import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.util.backoff.FixedBackOff;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -23,6 +32,15 @@ public class KafkaConsumerConfig {
     @Value("${kafka.bootstrap-servers}")
     private String bootstrapServers;
 
+    @Value("${stock.reservation.batch.max-poll-records}")
+    private int reserveMaxPollRecords;
+
+    @Value("${stock.reservation.batch.concurrency}")
+    private int reserveConcurrency;
+
+    @Value("${stock.reservation.item.concurrency}")
+    private int reserveItemConcurrency;
+
     @Bean
     public ConsumerFactory<String, StockReserveRequestedEvent> stockReserveRequestedConsumerFactory() {
         JsonDeserializer<StockReserveRequestedEvent> jsonDeserializer = new JsonDeserializer<>(StockReserveRequestedEvent.class, false);
@@ -33,6 +51,7 @@ public class KafkaConsumerConfig {
         props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         props.put(ConsumerConfig.GROUP_ID_CONFIG, "stock-service");
         props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, reserveMaxPollRecords);
 
         props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
         props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class);
@@ -44,18 +63,140 @@ public class KafkaConsumerConfig {
         );
     }
 
+    /**
+     * Batch container: a whole poll is reserved in one transaction. Per-order rejections are
+     * published by the listener; a failing batch is retried and, once retries are exhausted,
+     * every order in it is reported as failed.
+     */
     @Bean
-    public ConcurrentKafkaListenerContainerFactory<String, StockReserveRequestedEvent> stockReserveRequestedListenerFactory() {
+    public ConcurrentKafkaListenerContainerFactory<String, StockReserveRequestedEvent> stockReserveRequestedListenerFactory(
+            StockEventPublisher stockEventPublisher
+    ) {
         ConcurrentKafkaListenerContainerFactory<String, StockReserveRequestedEvent> factory = new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(stockReserveRequestedConsumerFactory());
+        factory.setBatchListener(true);
+        factory.setConcurrency(reserveConcurrency);
+        factory.setCommonErrorHandler(new DefaultErrorHandler(
+                (record, exception) -> {
+                    if (record.value() instanceof StockReserveRequestedEvent event) {
+                        stockEventPublisher.publishReservationFailed(
+                                new StockReservationFailedEvent(event.getOrderId(), NestedExceptionUtils.getMostSpecificCause(exception).getMessage())
+                        );
+                    }
+                },
+                new FixedBackOff(2000L, 2L)
+        ));
 
         return factory;
     }
 
     @Bean
-    public ConcurrentKafkaListenerContainerFactory<String, StockReserveRequestedEvent> stockReserveRequestedDltListenerFactory() {
-        ConcurrentKafkaListenerContainerFactory<String, StockReserveRequestedEvent> factory = new ConcurrentKafkaListenerContainerFactory<>();
-        factory.setConsumerFactory(stockReserveRequestedConsumerFactory());
+    public ConsumerFactory<String, StockItemReserveRequestedEvent> stockItemReserveRequestedConsumerFactory() {
+        JsonDeserializer<StockItemReserveRequestedEvent> jsonDeserializer = new JsonDeserializer<>(StockItemReserveRequestedEvent.class, false);
+        jsonDeserializer.addTrustedPackages("*");
+        jsonDeserializer.setRemoveTypeHeaders(true);
+
+        Map<String, Object> props = new HashMap<>();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ConsumerConfig.GROUP_ID_CONFIG, "stock-service");
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, reserveMaxPollRecords);
+
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class);
+
+        return new DefaultKafkaConsumerFactory<>(
+                props,
+                new StringDeserializer(),
+                new ErrorHandlingDeserializer<>(jsonDeserializer)
+        );
+    }
+
+    /**
+     * Per-product commands are keyed by productId, so every product is owned by exactly one
+     * consumer thread and its commands are applied in order without contending for the row
+     * with other threads. Concurrency should match the partition count of the topic. A batch
+     * that keeps failing reports each of its items as not reserved.
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, StockItemReserveRequestedEvent> stockItemReserveRequestedListenerFactory(
+            StockEventPublisher stockEventPublisher
+    ) {
+        ConcurrentKafkaListenerContainerFactory<String, StockItemReserveRequestedEvent> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(stockItemReserveRequestedConsumerFactory());
+        factory.setBatchListener(true);
+        factory.setConcurrency(reserveItemConcurrency);
+        factory.setCommonErrorHandler(new DefaultErrorHandler(
+                (record, exception) -> {
+                    if (record.value() instanceof StockItemReserveRequestedEvent event) {
+                        stockEventPublisher.publishItemReservationResult(new StockItemReservationResultEvent(
+                                event.getOrderId(),
+                                event.getProductId(),
+                                false,
+                                NestedExceptionUtils.getMostSpecificCause(exception).getMessage()
+                        ));
+                    }
+                },
+                new FixedBackOff(2000L, 2L)
+        ));
+
+        return factory;
+    }
+
+    @Bean
+    public ConsumerFactory<String, OrderCancelledEvent> orderCancelledConsumerFactory() {
+        JsonDeserializer<OrderCancelledEvent> jsonDeserializer = new JsonDeserializer<>(OrderCancelledEvent.class, false);
+        jsonDeserializer.addTrustedPackages("*");
+        jsonDeserializer.setRemoveTypeHeaders(true);
+
+        Map<String, Object> props = new HashMap<>();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ConsumerConfig.GROUP_ID_CONFIG, "stock-service");
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class);
+
+        return new DefaultKafkaConsumerFactory<>(
+                props,
+                new StringDeserializer(),
+                new ErrorHandlingDeserializer<>(jsonDeserializer)
+        );
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, OrderCancelledEvent> orderCancelledListenerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, OrderCancelledEvent> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(orderCancelledConsumerFactory());
+
+        return factory;
+    }
+
+    @Bean
+    public ConsumerFactory<String, OrderConfirmedEvent> orderConfirmedConsumerFactory() {
+        JsonDeserializer<OrderConfirmedEvent> jsonDeserializer = new JsonDeserializer<>(OrderConfirmedEvent.class, false);
+        jsonDeserializer.addTrustedPackages("*");
+        jsonDeserializer.setRemoveTypeHeaders(true);
+
+        Map<String, Object> props = new HashMap<>();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ConsumerConfig.GROUP_ID_CONFIG, "stock-service");
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class);
+
+        return new DefaultKafkaConsumerFactory<>(
+                props,
+                new StringDeserializer(),
+                new ErrorHandlingDeserializer<>(jsonDeserializer)
+        );
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, OrderConfirmedEvent> orderConfirmedListenerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, OrderConfirmedEvent> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(orderConfirmedConsumerFactory());
 
         return factory;
     }
@@ -1,10 +1,13 @@
 package com.ecommerce.stockservice.config;
 
 import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.common.config.TopicConfig;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.config.TopicBuilder;
 
+import java.time.Duration;
+
 @Configuration
 public class KafkaTopicConfig {
 
@@ -16,4 +19,43 @@ public class KafkaTopicConfig {
                 .replicas(1)
                 .build();
     }
-}
\ No newline at end of file
+
+    @Bean
+    public NewTopic stockChangedTopic() {
+        return TopicBuilder
+                .name("stock-changed")
+                .partitions(3)
+                .replicas(1)
+                .build();
+    }
+
+    @Bean
+    public NewTopic stockLevelsTopic() {
+        return TopicBuilder
+                .name("stock-levels")
+                .partitions(3)
+                .replicas(1)
+                .compact()
+                .config(TopicConfig.MIN_CLEANABLE_DIRTY_RATIO_CONFIG, "0.1")
+                .config(TopicConfig.SEGMENT_MS_CONFIG, String.valueOf(Duration.ofHours(1).toMillis()))
+                .build();
+    }
+
+    @Bean
+    public NewTopic stockThresholdCrossedTopic() {
+        return TopicBuilder
+                .name("stock-threshold-crossed")
+                .partitions(3)
+                .replicas(1)
+                .build();
+    }
+
+    @Bean
+    public NewTopic stockItemReservationResultTopic() {
+        return TopicBuilder
+                .name("stock-item-reservation-result")
+                .partitions(3)
+                .replicas(1)
+                .build();
+    }
+}
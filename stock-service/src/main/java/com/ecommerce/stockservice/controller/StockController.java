@@ -1,16 +1,22 @@
 package com.ecommerce.stockservice.controller;
 
 import com.ecommerce.stockservice.dto.CreateStockRequest;
+import com.ecommerce.stockservice.dto.CreateStocksRequest;
 import com.ecommerce.stockservice.dto.ReserveStockRequest;
+import com.ecommerce.stockservice.dto.StockAdjustmentResponse;
 import com.ecommerce.stockservice.dto.StockResponse;
 import com.ecommerce.stockservice.dto.UpdateStockRequest;
+import com.ecommerce.stockservice.service.StockAdjustmentService;
+import com.ecommerce.stockservice.service.StockReservationService;
 import com.ecommerce.stockservice.service.StockService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.InputStream;
 import java.util.List;
 
 @RestController
@@ -20,6 +26,10 @@ public class StockController {
 
     private final StockService stockService;
 
+    private final StockReservationService stockReservationService;
+
+    private final StockAdjustmentService stockAdjustmentService;
+
     @GetMapping("/{productId}")
     public ResponseEntity<StockResponse> getStockByProductId(@PathVariable("productId") Long productId) {
         return ResponseEntity.ok(stockService.getStockByProductId(productId));
@@ -40,6 +50,16 @@ public class StockController {
         return new ResponseEntity<>(stock, HttpStatus.CREATED);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<List<StockResponse>> createStocks(@Valid @RequestBody CreateStocksRequest createStocksRequest) {
+        return new ResponseEntity<>(stockService.createStocks(createStocksRequest), HttpStatus.CREATED);
+    }
+
+    @PatchMapping(value = "/batch", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StockAdjustmentResponse> adjustStocks(InputStream body) {
+        return ResponseEntity.ok(stockAdjustmentService.adjustStocks(body));
+    }
+
     @PatchMapping("/{productId}")
     public ResponseEntity<Void> updateStockQuantity(
             @PathVariable("productId") Long productId,
@@ -55,7 +75,7 @@ public class StockController {
             @PathVariable("productId") Long productId,
             @Valid @RequestBody ReserveStockRequest reserveStockRequest
     ) {
-        stockService.reserveStockByProductId(productId, reserveStockRequest);
+        stockReservationService.reserveStockByProductId(productId, reserveStockRequest);
 
         return new ResponseEntity<>(HttpStatus.NO_CONTENT);
     }
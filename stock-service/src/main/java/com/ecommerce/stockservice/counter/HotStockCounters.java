@@ -0,0 +1,228 @@
+package com.ecommerce.stockservice.counter;
+
+import com.ecommerce.exceptionlib.ErrorCode;
+import com.ecommerce.exceptionlib.exception.InternalServerException;
+import com.ecommerce.exceptionlib.exception.NotFoundException;
+import com.ecommerce.stockservice.model.Stock;
+import com.ecommerce.stockservice.model.StockJournalCheckpoint;
+import com.ecommerce.stockservice.repository.StockJournalCheckpointRepository;
+import com.ecommerce.stockservice.repository.StockRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.utils.Utils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Optional mode for flash sales: quantities of the configured hot products are owned in memory
+ * instead of by their stock rows. Every change is applied to a lock-free counter and appended to
+ * the journal of the product's shard before it is acknowledged. The journal is written behind to
+ * the stock table, and replayed on start-up, with a per-shard checkpoint so every segment is
+ * applied exactly once. Shards use Kafka's partitioner on the product id key, so a shard matches
+ * the partition product-keyed records land on.
+ * <p>
+ * While the mode is enabled the stock rows of hot products lag behind the counters, and only one
+ * instance may own a given set of hot products.
+ */
+@Slf4j
+@Component
+public class HotStockCounters {
+
+    private final boolean enabled;
+
+    private final Set<Long> hotProductIds;
+
+    private final Path journalDirectory;
+
+    private final StockRepository stockRepository;
+
+    private final StockJournalCheckpointRepository stockJournalCheckpointRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<Long, StockCounter> counters = new ConcurrentHashMap<>();
+
+    private final StockJournal[] journals;
+
+    public HotStockCounters(
+            @Value("${stock.hot-counters.enabled}") boolean enabled,
+            @Value("${stock.hot-counters.product-ids}") Set<Long> hotProductIds,
+            @Value("${stock.hot-counters.journal-directory}") Path journalDirectory,
+            @Value("${stock.hot-counters.shards}") int shards,
+            StockRepository stockRepository,
+            StockJournalCheckpointRepository stockJournalCheckpointRepository,
+            TransactionTemplate transactionTemplate
+    ) {
+        this.enabled = enabled;
+        this.hotProductIds = Set.copyOf(hotProductIds);
+        this.journalDirectory = journalDirectory;
+        this.journals = new StockJournal[shards];
+        this.stockRepository = stockRepository;
+        this.stockJournalCheckpointRepository = stockJournalCheckpointRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @PostConstruct
+    void recover() throws IOException {
+        if (!enabled) {
+            return;
+        }
+
+        Files.createDirectories(journalDirectory);
+
+        for (int shard = 0; shard < journals.length; shard++) {
+            long lastSegment = stockJournalCheckpointRepository.findById(shard)
+                    .map(StockJournalCheckpoint::getSegment)
+                    .orElse(0L);
+
+            for (Path segment : StockJournal.segments(journalDirectory, shard)) {
+                lastSegment = Math.max(lastSegment, applySegment(shard, segment));
+            }
+
+            journals[shard] = new StockJournal(journalDirectory, shard, lastSegment + 1);
+        }
+
+        log.info("Hot stock counters enabled for {} products in {} shards", hotProductIds.size(), journals.length);
+    }
+
+    @PreDestroy
+    void close() throws IOException {
+        if (!enabled) {
+            return;
+        }
+
+        for (StockJournal journal : journals) {
+            journal.close();
+        }
+    }
+
+    public boolean isHot(Long productId) {
+        return enabled && hotProductIds.contains(productId);
+    }
+
+    /**
+     * Returns the current quantities of a hot product as a detached stock.
+     */
+    public Stock get(long productId) {
+        StockCounter.State state = counter(productId).state();
+
+        return new Stock(productId, state.availableQuantity(), state.reservedQuantity(), state.version());
+    }
+
+    public boolean reserve(long productId, int quantity) {
+        StockCounter counter = counter(productId);
+
+        if (!counter.tryReserve(quantity)) {
+            return false;
+        }
+
+        journal(new StockDelta(productId, 0, quantity), () -> counter.release(quantity));
+        return true;
+    }
+
+    /**
+     * Releases up to {@code quantity} and returns how much was actually released.
+     */
+    public int release(long productId, int quantity) {
+        StockCounter counter = counter(productId);
+        int released = counter.release(quantity);
+
+        if (released > 0) {
+            journal(new StockDelta(productId, 0, -released), () -> counter.restore(released));
+        }
+
+        return released;
+    }
+
+    /**
+     * Puts back a reservation that was released by a transaction that rolled back afterwards.
+     */
+    public void restore(long productId, int quantity) {
+        StockCounter counter = counter(productId);
+
+        counter.restore(quantity);
+        journal(new StockDelta(productId, 0, quantity), () -> counter.release(quantity));
+    }
+
+    public boolean adjustAvailable(long productId, int quantityChange) {
+        StockCounter counter = counter(productId);
+
+        if (!counter.tryAdjustAvailable(quantityChange)) {
+            return false;
+        }
+
+        journal(new StockDelta(productId, quantityChange, 0), () -> counter.tryAdjustAvailable(-quantityChange));
+        return true;
+    }
+
+    @Scheduled(fixedDelayString = "${stock.hot-counters.flush-interval}")
+    public void flush() throws IOException {
+        if (!enabled) {
+            return;
+        }
+
+        for (int shard = 0; shard < journals.length; shard++) {
+            long closedSegment = journals[shard].rotate();
+
+            for (Path segment : StockJournal.segments(journalDirectory, shard)) {
+                if (StockJournal.segmentNumber(segment) <= closedSegment) {
+                    applySegment(shard, segment);
+                }
+            }
+        }
+    }
+
+    private long applySegment(int shard, Path segment) throws IOException {
+        long segmentNumber = StockJournal.segmentNumber(segment);
+        long checkpoint = stockJournalCheckpointRepository.findById(shard)
+                .map(StockJournalCheckpoint::getSegment)
+                .orElse(0L);
+
+        if (segmentNumber > checkpoint) {
+            List<StockDelta> deltas = StockJournal.read(segment);
+
+            transactionTemplate.executeWithoutResult(status -> {
+                stockRepository.applyDeltas(deltas);
+                stockJournalCheckpointRepository.save(new StockJournalCheckpoint(shard, segmentNumber));
+            });
+
+            log.debug("Applied {} stock deltas from journal segment {} of shard {}", deltas.size(), segmentNumber, shard);
+        }
+
+        Files.delete(segment);
+
+        return segmentNumber;
+    }
+
+    private void journal(StockDelta delta, Runnable undo) {
+        try {
+            journals[shard(delta.productId())].append(delta);
+        } catch (RuntimeException e) {
+            undo.run();
+            log.error("Failed to journal stock change of product {}", delta.productId(), e);
+            throw new InternalServerException(ErrorCode.STOCK_CHANGE_NOT_PERSISTED.getMessage());
+        }
+    }
+
+    private StockCounter counter(long productId) {
+        return counters.computeIfAbsent(productId, id -> stockRepository.findById(id)
+                .map(stock -> new StockCounter(stock.getAvailableQuantity(), stock.getReservedQuantity(), stock.getVersion()))
+                .orElseThrow(() -> new NotFoundException(ErrorCode.PRODUCT_NOT_FOUND.getMessage())));
+    }
+
+    private int shard(long productId) {
+        return Utils.toPositive(Utils.murmur2(String.valueOf(productId).getBytes(StandardCharsets.UTF_8))) % journals.length;
+    }
+}
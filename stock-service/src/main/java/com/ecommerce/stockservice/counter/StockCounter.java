@@ -0,0 +1,77 @@
+package com.ecommerce.stockservice.counter;
+
+import com.ecommerce.stockservice.model.Stock;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Lock-free quantities of one product. Available and reserved quantities are kept in one
+ * immutable state together with their version, so that every check-and-update is one
+ * compare-and-set and a read always sees a version that matches its quantities.
+ */
+final class StockCounter {
+
+    private final AtomicReference<State> state;
+
+    StockCounter(int availableQuantity, int reservedQuantity, long version) {
+        this.state = new AtomicReference<>(new State(availableQuantity, reservedQuantity, version));
+    }
+
+    State state() {
+        return state.get();
+    }
+
+    boolean tryReserve(int quantity) {
+        while (true) {
+            State current = state.get();
+
+            if (current.availableQuantity() - current.reservedQuantity() < quantity) {
+                return false;
+            }
+
+            if (state.compareAndSet(current, current.next(current.availableQuantity(), current.reservedQuantity() + quantity))) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Releases up to {@code quantity} and returns how much was actually released.
+     */
+    int release(int quantity) {
+        while (true) {
+            State current = state.get();
+            int released = Math.min(quantity, current.reservedQuantity());
+
+            if (state.compareAndSet(current, current.next(current.availableQuantity(), current.reservedQuantity() - released))) {
+                return released;
+            }
+        }
+    }
+
+    void restore(int quantity) {
+        state.getAndUpdate(current -> current.next(current.availableQuantity(), current.reservedQuantity() + quantity));
+    }
+
+    boolean tryAdjustAvailable(int quantityChange) {
+        while (true) {
+            State current = state.get();
+            int available = current.availableQuantity() + quantityChange;
+
+            if (available < 0) {
+                return false;
+            }
+
+            if (state.compareAndSet(current, current.next(available, current.reservedQuantity()))) {
+                return true;
+            }
+        }
+    }
+
+    record State(int availableQuantity, int reservedQuantity, long version) {
+
+        private State next(int availableQuantity, int reservedQuantity) {
+            return new State(availableQuantity, reservedQuantity, Stock.nextVersion(version));
+        }
+    }
+}
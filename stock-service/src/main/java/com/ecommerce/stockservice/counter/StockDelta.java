@@ -0,0 +1,15 @@
+package com.ecommerce.stockservice.counter;
+
+/**
+ * A change of one product's quantities, as journaled and as applied to the stock table.
+ */
+public record StockDelta(long productId, int availableQuantityChange, int reservedQuantityChange) {
+
+    StockDelta plus(StockDelta other) {
+        return new StockDelta(
+                productId,
+                availableQuantityChange + other.availableQuantityChange,
+                reservedQuantityChange + other.reservedQuantityChange
+        );
+    }
+}
@@ -0,0 +1,207 @@
+package com.ecommerce.stockservice.counter;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Append-only journal of counter changes for one shard, split into numbered segments.
+ * Appends are group committed by a single writer thread: everything queued while the previous
+ * batch was being forced to disk is written and forced together, and every caller waits for
+ * the batch holding its record.
+ */
+@Slf4j
+class StockJournal implements AutoCloseable {
+
+    private static final int RECORD_SIZE = Long.BYTES + 2 * Integer.BYTES;
+
+    private static final int MAX_BATCH_RECORDS = 4096;
+
+    private static final String SEGMENT_SUFFIX = ".journal";
+
+    private final Path directory;
+
+    private final int shard;
+
+    private final BlockingQueue<PendingAppend> pendingAppends = new LinkedBlockingQueue<>();
+
+    private final Thread writer;
+
+    private volatile boolean running = true;
+
+    private FileChannel channel;
+
+    private long segment;
+
+    StockJournal(Path directory, int shard, long firstSegment) throws IOException {
+        this.directory = directory;
+        this.shard = shard;
+
+        open(firstSegment);
+
+        this.writer = Thread.ofPlatform()
+                .name("stock-journal-" + shard)
+                .daemon()
+                .start(this::writeLoop);
+    }
+
+    void append(StockDelta delta) {
+        if (!running) {
+            throw new IllegalStateException("Stock journal " + shard + " is closed");
+        }
+
+        PendingAppend pendingAppend = new PendingAppend(delta, new CompletableFuture<>());
+
+        pendingAppends.add(pendingAppend);
+        pendingAppend.written().join();
+    }
+
+    /**
+     * Closes the current segment and starts a new one. Returns the number of the closed segment.
+     */
+    synchronized long rotate() throws IOException {
+        long closed = segment;
+
+        channel.force(false);
+        channel.close();
+        open(segment + 1);
+
+        return closed;
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        List<PendingAppend> abandoned = new ArrayList<>();
+        pendingAppends.drainTo(abandoned);
+        abandoned.forEach(pendingAppend -> pendingAppend.written().completeExceptionally(new IllegalStateException("Stock journal " + shard + " is closed")));
+
+        synchronized (this) {
+            channel.close();
+        }
+    }
+
+    static List<Path> segments(Path directory, int shard) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                    .filter(file -> file.getFileName().toString().startsWith(prefix(shard)))
+                    .filter(file -> file.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted(Comparator.comparingLong(StockJournal::segmentNumber))
+                    .toList();
+        }
+    }
+
+    static long segmentNumber(Path segment) {
+        String fileName = segment.getFileName().toString();
+
+        return Long.parseLong(fileName.substring(fileName.lastIndexOf('-') + 1, fileName.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    /**
+     * Reads a segment and sums its records per product. A torn record at the end of the file,
+     * left by a crash during a write that was never acknowledged, is ignored.
+     */
+    static List<StockDelta> read(Path segment) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(segment));
+        Map<Long, StockDelta> deltas = new LinkedHashMap<>();
+
+        while (buffer.remaining() >= RECORD_SIZE) {
+            StockDelta delta = new StockDelta(buffer.getLong(), buffer.getInt(), buffer.getInt());
+
+            deltas.merge(delta.productId(), delta, StockDelta::plus);
+        }
+
+        return List.copyOf(deltas.values());
+    }
+
+    synchronized long currentSegment() {
+        return segment;
+    }
+
+    private void open(long segment) throws IOException {
+        this.segment = segment;
+        this.channel = FileChannel.open(
+                directory.resolve(prefix(shard) + "%019d".formatted(segment) + SEGMENT_SUFFIX),
+                StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND
+        );
+    }
+
+    private void writeLoop() {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(MAX_BATCH_RECORDS * RECORD_SIZE);
+        List<PendingAppend> batch = new ArrayList<>(MAX_BATCH_RECORDS);
+
+        while (running || !pendingAppends.isEmpty()) {
+            try {
+                PendingAppend first = pendingAppends.poll(100, TimeUnit.MILLISECONDS);
+
+                if (first == null) {
+                    continue;
+                }
+
+                batch.add(first);
+                pendingAppends.drainTo(batch, MAX_BATCH_RECORDS - 1);
+
+                write(buffer, batch);
+                batch.forEach(pendingAppend -> pendingAppend.written().complete(null));
+            } catch (IOException e) {
+                log.error("Failed to write {} records to stock journal {}", batch.size(), shard, e);
+                batch.forEach(pendingAppend -> pendingAppend.written().completeExceptionally(new UncheckedIOException(e)));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private synchronized void write(ByteBuffer buffer, List<PendingAppend> batch) throws IOException {
+        buffer.clear();
+
+        for (PendingAppend pendingAppend : batch) {
+            buffer.putLong(pendingAppend.delta().productId());
+            buffer.putInt(pendingAppend.delta().availableQuantityChange());
+            buffer.putInt(pendingAppend.delta().reservedQuantityChange());
+        }
+
+        buffer.flip();
+
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+
+        channel.force(false);
+    }
+
+    private static String prefix(int shard) {
+        return "stock-" + shard + "-";
+    }
+
+    private record PendingAppend(StockDelta delta, CompletableFuture<Void> written) {
+    }
+}
@@ -0,0 +1,39 @@
+package com.ecommerce.stockservice.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CreateStocksRequest {
+
+    @Valid
+    @NotEmpty(message = "Stocks are required")
+    @Size(max = 1000, message = "At most 1000 stocks can be created at once")
+    private List<StockItem> stocks;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class StockItem {
+
+        @NotNull(message = "Product ID is required")
+        private Long productId;
+
+        @Min(value = 0, message = "Available quantity must be positive")
+        @NotNull(message = "Available quantity is required")
+        private Integer availableQuantity;
+    }
+}
@@ -0,0 +1,15 @@
+package com.ecommerce.stockservice.dto;
+
+import lombok.*;
+
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderCancelledEvent {
+
+    private Long orderId;
+
+    private String reason;
+}
@@ -0,0 +1,13 @@
+package com.ecommerce.stockservice.dto;
+
+import lombok.*;
+
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderConfirmedEvent {
+
+    private Long orderId;
+}
@@ -0,0 +1,20 @@
+package com.ecommerce.stockservice.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockAdjustmentRequest {
+
+    @NotNull(message = "Product id is required")
+    private Long productId;
+
+    @NotNull(message = "Quantity change is required")
+    private Integer quantityChange;
+}
@@ -0,0 +1,13 @@
+package com.ecommerce.stockservice.dto;
+
+import java.util.List;
+
+public record StockAdjustmentResponse(
+        long adjusted,
+        long rejected,
+        List<Rejection> rejections
+) {
+
+    public record Rejection(long row, Long productId, String message) {
+    }
+}
@@ -0,0 +1,17 @@
+package com.ecommerce.stockservice.dto;
+
+import lombok.*;
+
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockItemReserveRequestedEvent {
+
+    private Long orderId;
+
+    private Long productId;
+
+    private Integer quantity;
+}
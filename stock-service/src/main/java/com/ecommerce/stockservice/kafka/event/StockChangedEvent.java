@@ -0,0 +1,21 @@
+package com.ecommerce.stockservice.kafka.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockChangedEvent {
+
+    private Long productId;
+
+    private Integer availableQuantity;
+
+    private Integer reservedQuantity;
+
+    private Long version;
+}
@@ -0,0 +1,25 @@
+package com.ecommerce.stockservice.kafka.event;
+
+import lombok.*;
+
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockThresholdCrossedEvent {
+
+    private Long productId;
+
+    private Level level;
+
+    private Integer freeQuantity;
+
+    private Long version;
+
+    public enum Level {
+        IN_STOCK,
+        LOW_STOCK,
+        SOLD_OUT
+    }
+}
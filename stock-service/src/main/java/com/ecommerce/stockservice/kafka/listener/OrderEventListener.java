@@ -0,0 +1,39 @@
+package com.ecommerce.stockservice.kafka.listener;
+
+import com.ecommerce.stockservice.dto.OrderCancelledEvent;
+import com.ecommerce.stockservice.dto.OrderConfirmedEvent;
+import com.ecommerce.stockservice.service.StockService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderEventListener {
+
+    private final StockService stockService;
+
+    @KafkaListener(
+            topics = "order-cancelled",
+            groupId = "stock-service",
+            containerFactory = "orderCancelledListenerFactory"
+    )
+    public void handleOrderCancelled(OrderCancelledEvent event) {
+        log.info("Releasing stock reserved for cancelled order {}", event.getOrderId());
+
+        stockService.releaseReservation(event.getOrderId());
+    }
+
+    @KafkaListener(
+            topics = "order-confirmed",
+            groupId = "stock-service",
+            containerFactory = "orderConfirmedListenerFactory"
+    )
+    public void handleOrderConfirmed(OrderConfirmedEvent event) {
+        log.info("Confirming stock reserved for order {}", event.getOrderId());
+
+        stockService.confirmReservation(event.getOrderId());
+    }
+}
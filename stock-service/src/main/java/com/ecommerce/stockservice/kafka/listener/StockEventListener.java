@@ -1,19 +1,20 @@
 package com.ecommerce.stockservice.kafka.listener;
 
+import com.ecommerce.stockservice.dto.StockItemReserveRequestedEvent;
 import com.ecommerce.stockservice.dto.StockReserveRequestedEvent;
+import com.ecommerce.stockservice.kafka.event.StockItemReservationResultEvent;
 import com.ecommerce.stockservice.kafka.event.StockReservationFailedEvent;
 import com.ecommerce.stockservice.kafka.publisher.StockEventPublisher;
 import com.ecommerce.stockservice.service.StockService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.kafka.annotation.DltHandler;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.kafka.annotation.KafkaListener;
-import org.springframework.kafka.annotation.RetryableTopic;
-import org.springframework.kafka.support.KafkaHeaders;
-import org.springframework.messaging.handler.annotation.Header;
-import org.springframework.retry.annotation.Backoff;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Slf4j
 @Component
 @RequiredArgsConstructor
@@ -23,35 +24,71 @@ public class StockEventListener {
 
     private final StockEventPublisher stockEventPublisher;
 
-
-
-    @RetryableTopic(
-            attempts = "3",
-            backoff = @Backoff(delay = 2000),
-            dltTopicSuffix = ".dlt"
-    )
     @KafkaListener(
             topics = "stock-reserve-requested",
             groupId = "stock-service",
             containerFactory = "stockReserveRequestedListenerFactory"
     )
-    public void handleStockReserveRequested(StockReserveRequestedEvent event) {
-        log.info("Received stock reservation request for order {}", event.getOrderId());
+    public void handleStockReserveRequested(List<ConsumerRecord<String, StockReserveRequestedEvent>> records) {
+        List<StockReserveRequestedEvent> events = new ArrayList<>(records.size());
+
+        for (ConsumerRecord<String, StockReserveRequestedEvent> record : records) {
+            if (record.value() == null) {
+                log.warn("Skipping unreadable stock reservation request at {}-{}@{}", record.topic(), record.partition(), record.offset());
+                continue;
+            }
+
+            events.add(record.value());
+        }
+
+        if (events.isEmpty()) {
+            return;
+        }
+
+        log.info("Received {} stock reservation requests", events.size());
+
+        List<StockReservationFailedEvent> failures = stockService.reserveBatch(events);
+
+        for (StockReservationFailedEvent failure : failures) {
+            log.warn("Failed to reserve stock for order {}: {}", failure.getOrderId(), failure.getReason());
 
-        stockService.reserveAllOrThrow(event);
+            stockEventPublisher.publishReservationFailed(failure);
+        }
 
-        log.info("Stock reserved for order {}", event.getOrderId());
+        log.info("Stock reserved for {} of {} orders", events.size() - failures.size(), events.size());
     }
 
-    @DltHandler
-    public void handleStockReserveRequestedDlt(
-            StockReserveRequestedEvent event,
-            @Header(KafkaHeaders.EXCEPTION_MESSAGE) String errorMessage
-    ) {
-        log.warn("DLT: Failed to reserve stock for order {}: {}", event.getOrderId(), errorMessage);
+    @KafkaListener(
+            topics = "stock-item-reserve-requested",
+            groupId = "stock-service",
+            containerFactory = "stockItemReserveRequestedListenerFactory"
+    )
+    public void handleStockItemReserveRequested(List<ConsumerRecord<String, StockItemReserveRequestedEvent>> records) {
+        List<StockItemReserveRequestedEvent> events = new ArrayList<>(records.size());
+
+        for (ConsumerRecord<String, StockItemReserveRequestedEvent> record : records) {
+            if (record.value() == null) {
+                log.warn("Skipping unreadable stock item reservation request at {}-{}@{}", record.topic(), record.partition(), record.offset());
+                continue;
+            }
+
+            events.add(record.value());
+        }
+
+        if (events.isEmpty()) {
+            return;
+        }
+
+        List<StockItemReservationResultEvent> results = stockService.reserveItems(events);
+
+        for (StockItemReservationResultEvent result : results) {
+            if (!result.isReserved()) {
+                log.warn("Failed to reserve product {} for order {}: {}", result.getProductId(), result.getOrderId(), result.getReason());
+            }
+
+            stockEventPublisher.publishItemReservationResult(result);
+        }
 
-        stockEventPublisher.publishReservationFailed(
-                new StockReservationFailedEvent(event.getOrderId(), errorMessage)
-        );
+        log.info("Handled {} stock item reservation requests", events.size());
     }
 }
@@ -1,6 +1,9 @@
 package com.ecommerce.stockservice.kafka.publisher;
 
+import com.ecommerce.stockservice.kafka.event.StockChangedEvent;
+import com.ecommerce.stockservice.kafka.event.StockItemReservationResultEvent;
 import com.ecommerce.stockservice.kafka.event.StockReservationFailedEvent;
+import com.ecommerce.stockservice.kafka.event.StockThresholdCrossedEvent;
 import lombok.RequiredArgsConstructor;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Component;
@@ -15,4 +18,25 @@ public class StockEventPublisher {
         System.out.println("Publishing Stock Reservation Failed Event");
         kafkaTemplate.send("stock-reservation-failed", String.valueOf(event.getOrderId()), event);
     }
+
+    public void publishItemReservationResult(StockItemReservationResultEvent event) {
+        kafkaTemplate.send("stock-item-reservation-result", String.valueOf(event.getOrderId()), event);
+    }
+
+    public void publishStockChanged(StockChangedEvent event) {
+        kafkaTemplate.send("stock-changed", String.valueOf(event.getProductId()), event);
+        publishStockLevel(event);
+    }
+
+    public void publishThresholdCrossed(StockThresholdCrossedEvent event) {
+        kafkaTemplate.send("stock-threshold-crossed", String.valueOf(event.getProductId()), event);
+    }
+
+    /**
+     * Publishes the current level of a product to the compacted stock-levels topic, where the
+     * latest record per productId is the snapshot a new consumer bootstraps from.
+     */
+    public void publishStockLevel(StockChangedEvent event) {
+        kafkaTemplate.send("stock-levels", String.valueOf(event.getProductId()), event);
+    }
 }
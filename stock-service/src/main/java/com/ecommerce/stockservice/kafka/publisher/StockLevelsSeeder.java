@@ -0,0 +1,85 @@
+package com.ecommerce.stockservice.kafka.publisher;
+
+import com.ecommerce.stockservice.counter.HotStockCounters;
+import com.ecommerce.stockservice.kafka.event.StockChangedEvent;
+import com.ecommerce.stockservice.model.Stock;
+import com.ecommerce.stockservice.repository.StockRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Publishes the level of every stock to the compacted stock-levels topic on startup, so the
+ * topic holds a complete snapshot even for products that have not changed since it was created.
+ * Each page is read under row locks so the levels carry the version of the last committed change,
+ * and goes through the publication sequencer: a level older than one a concurrent change already
+ * published is dropped, so the topic never ends on a stale value.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StockLevelsSeeder {
+
+    private static final int SEED_PAGE_SIZE = 1000;
+
+    @Value("${stock.levels.seed-on-startup}")
+    private boolean seedOnStartup;
+
+    private final StockRepository stockRepository;
+
+    private final HotStockCounters hotStockCounters;
+
+    private final StockEventPublisher stockEventPublisher;
+
+    private final StockPublicationSequencer stockPublicationSequencer;
+
+    private final TransactionTemplate transactionTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        if (!seedOnStartup) {
+            return;
+        }
+
+        long published = 0;
+        Long lastProductId = 0L;
+
+        try {
+            while (true) {
+                List<Long> productIds = stockRepository.findProductIdsAfter(lastProductId, PageRequest.ofSize(SEED_PAGE_SIZE));
+
+                if (productIds.isEmpty()) {
+                    break;
+                }
+
+                transactionTemplate.executeWithoutResult(status -> stockRepository.findAllForUpdate(productIds).forEach(this::publish));
+
+                published += productIds.size();
+                lastProductId = productIds.getLast();
+            }
+
+            log.info("Seeded stock-levels topic with {} stocks", published);
+        } catch (RuntimeException e) {
+            log.warn("Seeding stock-levels topic stopped after {} stocks", published, e);
+        }
+    }
+
+    private void publish(Stock stock) {
+        Stock level = hotStockCounters.isHot(stock.getProductId()) ? hotStockCounters.get(stock.getProductId()) : stock;
+
+        stockPublicationSequencer.publishInOrder(
+                level.getProductId(),
+                level.getVersion(),
+                () -> stockEventPublisher.publishStockLevel(
+                        new StockChangedEvent(level.getProductId(), level.getAvailableQuantity(), level.getReservedQuantity(), level.getVersion())
+                )
+        );
+    }
+}
@@ -0,0 +1,58 @@
+package com.ecommerce.stockservice.kafka.publisher;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Publishes the levels of a product in version order. After-commit callbacks of concurrent
+ * transactions run in no particular order, so a level older than the last one published for its
+ * product is dropped instead of being sent after it. Sends for one product are serialized by a
+ * striped lock, which keeps the last record per key in the compacted stock-levels topic the
+ * newest level. The order only holds within one instance; consumers compare versions as well.
+ */
+@Component
+public class StockPublicationSequencer {
+
+    private static final int LOCK_STRIPES = 64;
+
+    private final ReentrantLock[] locks = createLocks();
+
+    private final Map<Long, Long> publishedVersions = new ConcurrentHashMap<>();
+
+    /**
+     * Runs the publication if the version is newer than the last one published for the product.
+     * Returns whether it ran.
+     */
+    public boolean publishInOrder(long productId, long version, Runnable publication) {
+        ReentrantLock lock = locks[Math.floorMod(Long.hashCode(productId), LOCK_STRIPES)];
+
+        lock.lock();
+        try {
+            Long publishedVersion = publishedVersions.get(productId);
+
+            if (publishedVersion != null && publishedVersion >= version) {
+                return false;
+            }
+
+            publication.run();
+            publishedVersions.put(productId, version);
+
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static ReentrantLock[] createLocks() {
+        ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+
+        return locks;
+    }
+}
@@ -0,0 +1,158 @@
+package com.ecommerce.stockservice.lookup;
+
+import com.ecommerce.stockservice.model.Stock;
+import com.ecommerce.stockservice.repository.StockRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Merges concurrent stock lookups into one query. The first caller of a window becomes the leader
+ * of a batch: it waits for the window, closes the batch and loads the union of the product IDs
+ * collected so far with a single {@code findAllById}. Other callers join the open batch and pick
+ * their rows from its result. A batch that reaches the maximum size is closed and loaded at once.
+ */
+@Component
+public class StockLookupCoalescer {
+
+    private final StockRepository stockRepository;
+
+    private final long windowNanos;
+
+    private final int maxBatchSize;
+
+    private final Object lock = new Object();
+
+    private Batch openBatch;
+
+    public StockLookupCoalescer(
+            StockRepository stockRepository,
+            @Value("${stock.lookup.coalescing.window}") Duration window,
+            @Value("${stock.lookup.coalescing.max-batch-size}") int maxBatchSize
+    ) {
+        this.stockRepository = stockRepository;
+        this.windowNanos = window.toNanos();
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * Returns the stocks of the given products that exist, in request order.
+     */
+    public List<Stock> findAllById(List<Long> productIds) {
+        if (windowNanos == 0 || productIds.isEmpty()) {
+            return stockRepository.findAllById(productIds);
+        }
+
+        Batch batch;
+        boolean leader = false;
+
+        synchronized (lock) {
+            if (openBatch == null) {
+                openBatch = new Batch(Thread.currentThread());
+                leader = true;
+            }
+
+            batch = openBatch;
+            batch.productIds.addAll(productIds);
+
+            if (batch.productIds.size() >= maxBatchSize) {
+                close(batch);
+            }
+        }
+
+        if (leader) {
+            awaitWindow(batch);
+            load(batch);
+        }
+
+        Map<Long, Stock> stocks = join(batch);
+
+        return productIds
+                .stream()
+                .distinct()
+                .map(stocks::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    private void awaitWindow(Batch batch) {
+        long deadline = System.nanoTime() + windowNanos;
+
+        while (!batch.closed) {
+            long remaining = deadline - System.nanoTime();
+
+            if (remaining <= 0 || Thread.currentThread().isInterrupted()) {
+                break;
+            }
+
+            LockSupport.parkNanos(this, remaining);
+        }
+
+        synchronized (lock) {
+            close(batch);
+        }
+    }
+
+    private void close(Batch batch) {
+        if (openBatch == batch) {
+            openBatch = null;
+        }
+
+        if (!batch.closed) {
+            batch.closed = true;
+            LockSupport.unpark(batch.leader);
+        }
+    }
+
+    private void load(Batch batch) {
+        try {
+            Map<Long, Stock> stocks = new HashMap<>(batch.productIds.size() * 2);
+
+            for (Stock stock : stockRepository.findAllById(new ArrayList<>(batch.productIds))) {
+                stocks.put(stock.getProductId(), stock);
+            }
+
+            batch.result.complete(stocks);
+        } catch (RuntimeException e) {
+            batch.result.completeExceptionally(e);
+        }
+    }
+
+    private Map<Long, Stock> join(Batch batch) {
+        try {
+            return batch.result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+
+            throw e;
+        }
+    }
+
+    private static class Batch {
+
+        private final Thread leader;
+
+        private final Set<Long> productIds = new LinkedHashSet<>();
+
+        private final CompletableFuture<Map<Long, Stock>> result = new CompletableFuture<>();
+
+        private volatile boolean closed;
+
+        private Batch(Thread leader) {
+            this.leader = leader;
+        }
+    }
+}
@@ -16,5 +16,6 @@ public interface StockMapper {
     @Mapping(target = "productId", source = "productId")
     @Mapping(target = "availableQuantity", source = "createStockRequest.availableQuantity")
     @Mapping(target = "reservedQuantity", constant = "0")
+    @Mapping(target = "version", expression = "java(Stock.nextVersion(0))")
     Stock createStockRequestToStock(Long productId, CreateStockRequest createStockRequest);
 }
@@ -0,0 +1,41 @@
+package com.ecommerce.stockservice.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+
+/**
+ * Marks a reservation request as handled. Rows are only ever inserted, so they are always
+ * persisted as new and a concurrent duplicate fails on the primary key instead of reserving twice.
+ */
+@Table(indexes = @Index(name = "idx_processed_reservation_processed_at", columnList = "processedAt"))
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProcessedReservation implements Persistable<Long> {
+
+    @Id
+    @Column(nullable = false)
+    private Long orderId;
+
+    @Column(nullable = false)
+    private Instant processedAt;
+
+    @Override
+    public Long getId() {
+        return orderId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+}
@@ -7,6 +7,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
 @Table
 @Entity
@@ -26,19 +27,50 @@ public class Stock {
     @Column(nullable = false)
     private Integer reservedQuantity;
 
+    /**
+     * Orders the published levels of the stock. Every change takes a higher version while the row
+     * is locked, so consumers can drop a level that is older than the one they already hold.
+     */
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private Long version;
+
+    public Stock(Long productId, Integer availableQuantity, Integer reservedQuantity) {
+        this(productId, availableQuantity, reservedQuantity, nextVersion(0));
+    }
+
+    /**
+     * Returns the version following the given one. Versions never fall behind the clock in
+     * microseconds, so they keep growing across restarts, also for hot products whose row lags
+     * behind their counter.
+     */
+    public static long nextVersion(long version) {
+        return Math.max(version + 1, versionClock());
+    }
+
+    public static long versionClock() {
+        return System.currentTimeMillis() * 1000;
+    }
+
     public void reserve(int quantity) {
         if (!canReserve(quantity)) {
             throw new BadRequestException(ErrorCode.NOT_ENOUGH_STOCK_AVAILABLE.getMessage());
         }
 
         reservedQuantity += quantity;
+        version = nextVersion(version);
+    }
+
+    public void release(int quantity) {
+        reservedQuantity = Math.max(0, reservedQuantity - quantity);
+        version = nextVersion(version);
     }
 
     private int getAvailableQuantityForReservation() {
         return availableQuantity - reservedQuantity;
     }
 
-    private boolean canReserve(int quantity) {
+    public boolean canReserve(int quantity) {
         return getAvailableQuantityForReservation() >= quantity;
     }
 
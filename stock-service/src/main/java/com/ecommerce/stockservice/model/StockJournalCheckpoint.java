@@ -0,0 +1,26 @@
+package com.ecommerce.stockservice.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.*;
+
+/**
+ * The last journal segment of a shard whose changes were applied to the stock table.
+ */
+@Table
+@Entity
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockJournalCheckpoint {
+
+    @Id
+    @Column(nullable = false)
+    private Integer shard;
+
+    @Column(nullable = false)
+    private Long segment;
+}
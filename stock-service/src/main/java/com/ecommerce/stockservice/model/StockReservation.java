@@ -0,0 +1,38 @@
+package com.ecommerce.stockservice.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+@Table(indexes = {
+        @Index(name = "idx_stock_reservation_order_id", columnList = "orderId"),
+        @Index(name = "idx_stock_reservation_expires_at", columnList = "expiresAt")
+})
+@Entity
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockReservation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stock_reservation_seq")
+    @SequenceGenerator(name = "stock_reservation_seq", sequenceName = "stock_reservation_seq", allocationSize = 500)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long orderId;
+
+    @Column(nullable = false)
+    private Long productId;
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    /**
+     * Holds of confirmed orders do not expire and are only released when the order is cancelled.
+     */
+    private Instant expiresAt;
+}
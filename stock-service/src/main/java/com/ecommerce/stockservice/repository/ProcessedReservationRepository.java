@@ -0,0 +1,16 @@
+package com.ecommerce.stockservice.repository;
+
+import com.ecommerce.stockservice.model.ProcessedReservation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+
+public interface ProcessedReservationRepository extends JpaRepository<ProcessedReservation, Long> {
+
+    @Modifying
+    @Query("delete from ProcessedReservation p where p.processedAt < :before")
+    int deleteProcessedBefore(@Param("before") Instant before);
+}
@@ -0,0 +1,37 @@
+package com.ecommerce.stockservice.repository;
+
+import com.ecommerce.stockservice.counter.StockDelta;
+import com.ecommerce.stockservice.model.Stock;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.SortedMap;
+
+public interface StockBulkRepository {
+
+    void persistAll(List<Stock> stocks);
+
+    /**
+     * Reserves every quantity with a conditional update, in product ID order.
+     * Returns the IDs that could not be reserved; callers roll back when it is not empty.
+     */
+    List<Long> reserveAll(SortedMap<Long, Integer> quantitiesByProductId);
+
+    /**
+     * Adds the quantity changes to the stored quantities, in product ID order.
+     */
+    void applyDeltas(List<StockDelta> deltas);
+
+    /**
+     * Adds the quantity change to the available quantity with one conditional update, so the
+     * reserved quantity is never rewritten from a stale read. Returns the adjusted stock, or an
+     * empty result when the stock does not exist or would go negative.
+     */
+    Optional<Stock> adjust(Long productId, int quantityChange);
+
+    /**
+     * Adds the quantity changes to the available quantities with one set-based update through a
+     * temporary table. Rows that would go negative are left untouched. Returns the adjusted stocks.
+     */
+    List<Stock> adjustAll(SortedMap<Long, Integer> quantityChangesByProductId);
+}
@@ -0,0 +1,178 @@
+package com.ecommerce.stockservice.repository;
+
+import com.ecommerce.stockservice.counter.StockDelta;
+import com.ecommerce.stockservice.model.Stock;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SortedMap;
+
+public class StockBulkRepositoryImpl implements StockBulkRepository {
+
+    private static final String RESERVE_SQL = """
+            update stock
+            set reserved_quantity = reserved_quantity + ?, version = greatest(version + 1, ?)
+            where product_id = ? and available_quantity - reserved_quantity >= ?
+            """;
+
+    private static final String APPLY_DELTA_SQL = """
+            update stock
+            set available_quantity = available_quantity + ?, reserved_quantity = reserved_quantity + ?, version = greatest(version + 1, ?)
+            where product_id = ?
+            """;
+
+    private static final String ADJUST_ONE_SQL = """
+            update stock
+            set available_quantity = available_quantity + ?, version = greatest(version + 1, ?)
+            where product_id = ? and available_quantity + ? >= 0
+            returning product_id, available_quantity, reserved_quantity, version
+            """;
+
+    private static final String CREATE_ADJUSTMENT_TABLE_SQL = """
+            create temporary table if not exists stock_adjustment (
+                product_id bigint primary key,
+                quantity_change integer not null
+            ) on commit delete rows
+            """;
+
+    private static final String INSERT_ADJUSTMENT_SQL = "insert into stock_adjustment (product_id, quantity_change) values (?, ?)";
+
+    private static final String LOCK_ADJUSTED_SQL = """
+            select s.product_id
+            from stock s
+            join stock_adjustment a on a.product_id = s.product_id
+            order by s.product_id
+            for update of s
+            """;
+
+    private static final String ADJUST_SQL = """
+            update stock s
+            set available_quantity = s.available_quantity + a.quantity_change, version = greatest(s.version + 1, ?)
+            from stock_adjustment a
+            where s.product_id = a.product_id and s.available_quantity + a.quantity_change >= 0
+            returning s.product_id, s.available_quantity, s.reserved_quantity, s.version
+            """;
+
+    private static final RowMapper<Stock> STOCK_ROW_MAPPER = (resultSet, rowNumber) -> new Stock(
+            resultSet.getLong("product_id"),
+            resultSet.getInt("available_quantity"),
+            resultSet.getInt("reserved_quantity"),
+            resultSet.getLong("version")
+    );
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public StockBulkRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Persists new stocks without the select that {@code save} issues for entities with assigned IDs,
+     * so the inserts are sent as one JDBC batch on flush.
+     */
+    @Override
+    public void persistAll(List<Stock> stocks) {
+        stocks.forEach(entityManager::persist);
+        entityManager.flush();
+    }
+
+    @Override
+    public List<Long> reserveAll(SortedMap<Long, Integer> quantitiesByProductId) {
+        List<Map.Entry<Long, Integer>> reservations = List.copyOf(quantitiesByProductId.entrySet());
+        long versionClock = Stock.versionClock();
+
+        int[][] updateCounts = jdbcTemplate.batchUpdate(
+                RESERVE_SQL,
+                reservations,
+                reservations.size(),
+                (statement, reservation) -> {
+                    statement.setInt(1, reservation.getValue());
+                    statement.setLong(2, versionClock);
+                    statement.setLong(3, reservation.getKey());
+                    statement.setInt(4, reservation.getValue());
+                }
+        );
+
+        List<Long> rejectedProductIds = new ArrayList<>();
+
+        for (int i = 0; i < reservations.size(); i++) {
+            if (updateCounts[0][i] == 0) {
+                rejectedProductIds.add(reservations.get(i).getKey());
+            }
+        }
+
+        return rejectedProductIds;
+    }
+
+    @Override
+    public void applyDeltas(List<StockDelta> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        List<StockDelta> ordered = deltas
+                .stream()
+                .sorted(Comparator.comparingLong(StockDelta::productId))
+                .toList();
+        long versionClock = Stock.versionClock();
+
+        jdbcTemplate.batchUpdate(
+                APPLY_DELTA_SQL,
+                ordered,
+                ordered.size(),
+                (statement, delta) -> {
+                    statement.setInt(1, delta.availableQuantityChange());
+                    statement.setInt(2, delta.reservedQuantityChange());
+                    statement.setLong(3, versionClock);
+                    statement.setLong(4, delta.productId());
+                }
+        );
+    }
+
+    @Override
+    public Optional<Stock> adjust(Long productId, int quantityChange) {
+        return jdbcTemplate.query(
+                        ADJUST_ONE_SQL,
+                        STOCK_ROW_MAPPER,
+                        quantityChange,
+                        Stock.versionClock(),
+                        productId,
+                        quantityChange
+                )
+                .stream()
+                .findFirst();
+    }
+
+    /**
+     * Rows are locked in product ID order before the update, which itself visits them in join order,
+     * so a sync cannot deadlock with reservations.
+     */
+    @Override
+    public List<Stock> adjustAll(SortedMap<Long, Integer> quantityChangesByProductId) {
+        List<Map.Entry<Long, Integer>> adjustments = List.copyOf(quantityChangesByProductId.entrySet());
+
+        jdbcTemplate.execute(CREATE_ADJUSTMENT_TABLE_SQL);
+        jdbcTemplate.batchUpdate(
+                INSERT_ADJUSTMENT_SQL,
+                adjustments,
+                adjustments.size(),
+                (statement, adjustment) -> {
+                    statement.setLong(1, adjustment.getKey());
+                    statement.setInt(2, adjustment.getValue());
+                }
+        );
+        jdbcTemplate.queryForList(LOCK_ADJUSTED_SQL, Long.class);
+
+        return jdbcTemplate.query(ADJUST_SQL, STOCK_ROW_MAPPER, Stock.versionClock());
+    }
+}
@@ -0,0 +1,7 @@
+package com.ecommerce.stockservice.repository;
+
+import com.ecommerce.stockservice.model.StockJournalCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface StockJournalCheckpointRepository extends JpaRepository<StockJournalCheckpoint, Integer> {
+}
@@ -1,7 +1,22 @@
 package com.ecommerce.stockservice.repository;
 
 import com.ecommerce.stockservice.model.Stock;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-public interface StockRepository extends JpaRepository<Stock, Long> {
+import java.util.Collection;
+import java.util.List;
+
+public interface StockRepository extends JpaRepository<Stock, Long>, StockBulkRepository {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from Stock s where s.productId in :productIds order by s.productId")
+    List<Stock> findAllForUpdate(@Param("productIds") Collection<Long> productIds);
+
+    @Query("select s.productId from Stock s where s.productId > :afterProductId order by s.productId")
+    List<Long> findProductIdsAfter(@Param("afterProductId") Long afterProductId, Pageable pageable);
 }
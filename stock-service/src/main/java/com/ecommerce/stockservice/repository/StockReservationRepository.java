@@ -0,0 +1,36 @@
+package com.ecommerce.stockservice.repository;
+
+import com.ecommerce.stockservice.model.StockReservation;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+public interface StockReservationRepository extends JpaRepository<StockReservation, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select r from StockReservation r where r.orderId = :orderId")
+    List<StockReservation> findAllByOrderIdForUpdate(@Param("orderId") Long orderId);
+
+    List<StockReservation> findAllByOrderIdIn(Collection<Long> orderIds);
+
+    @Modifying
+    @Query("update StockReservation r set r.expiresAt = null where r.orderId = :orderId")
+    int confirmAllByOrderId(@Param("orderId") Long orderId);
+
+    /**
+     * Locks up to {@code limit} expired holds, skipping rows another sweeper or an order
+     * release is already working on. Confirmed holds have no expiry and are never returned.
+     */
+    @Query(
+            value = "select * from stock_reservation where expires_at <= :now order by expires_at limit :limit for update skip locked",
+            nativeQuery = true
+    )
+    List<StockReservation> findExpiredForUpdate(@Param("now") Instant now, @Param("limit") int limit);
+}
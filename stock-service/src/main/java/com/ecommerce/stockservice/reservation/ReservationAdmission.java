@@ -0,0 +1,108 @@
+package com.ecommerce.stockservice.reservation;
+
+import com.ecommerce.exceptionlib.ErrorCode;
+import com.ecommerce.exceptionlib.exception.BadRequestException;
+import com.ecommerce.exceptionlib.exception.ConflictException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * In-memory admission in front of the reservation statements. Reservations of the same product
+ * queue on a lock stripe instead of on the row lock while holding a connection, and products last
+ * seen sold out are rejected without a database round-trip until the hint expires.
+ */
+@Component
+public class ReservationAdmission {
+
+    private final ReentrantLock[] stripes;
+
+    private final long lockTimeoutNanos;
+
+    private final long soldOutTtlNanos;
+
+    private final Map<Long, Long> soldOutUntil = new ConcurrentHashMap<>();
+
+    public ReservationAdmission(
+            @Value("${stock.reservation.admission.stripes}") int stripes,
+            @Value("${stock.reservation.admission.lock-timeout}") Duration lockTimeout,
+            @Value("${stock.reservation.admission.sold-out-ttl}") Duration soldOutTtl
+    ) {
+        this.stripes = new ReentrantLock[stripes];
+        this.lockTimeoutNanos = lockTimeout.toNanos();
+        this.soldOutTtlNanos = soldOutTtl.toNanos();
+
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public <T> T admit(Collection<Long> productIds, Supplier<T> reservation) {
+        for (Long productId : productIds) {
+            if (isSoldOut(productId)) {
+                throw new BadRequestException(ErrorCode.NOT_ENOUGH_STOCK_AVAILABLE.getMessage());
+            }
+        }
+
+        int[] stripeIndexes = productIds.stream()
+                .mapToInt(this::stripeIndex)
+                .distinct()
+                .sorted()
+                .toArray();
+
+        int acquired = 0;
+
+        try {
+            for (int stripeIndex : stripeIndexes) {
+                if (!stripes[stripeIndex].tryLock(lockTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                    throw new ConflictException(ErrorCode.STOCK_RESERVATION_BUSY.getMessage());
+                }
+
+                acquired++;
+            }
+
+            return reservation.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConflictException(ErrorCode.STOCK_RESERVATION_BUSY.getMessage());
+        } finally {
+            for (int i = acquired - 1; i >= 0; i--) {
+                stripes[stripeIndexes[i]].unlock();
+            }
+        }
+    }
+
+    public void record(long productId, int freeQuantity) {
+        if (freeQuantity <= 0) {
+            soldOutUntil.put(productId, System.nanoTime() + soldOutTtlNanos);
+        } else {
+            soldOutUntil.remove(productId);
+        }
+    }
+
+    private boolean isSoldOut(long productId) {
+        Long until = soldOutUntil.get(productId);
+
+        if (until == null) {
+            return false;
+        }
+
+        if (until - System.nanoTime() > 0) {
+            return true;
+        }
+
+        soldOutUntil.remove(productId, until);
+        return false;
+    }
+
+    private int stripeIndex(long productId) {
+        return (Long.hashCode(productId) & Integer.MAX_VALUE) % stripes.length;
+    }
+}
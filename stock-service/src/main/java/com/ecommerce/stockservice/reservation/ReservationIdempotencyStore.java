@@ -0,0 +1,128 @@
+package com.ecommerce.stockservice.reservation;
+
+import com.ecommerce.stockservice.model.ProcessedReservation;
+import com.ecommerce.stockservice.repository.ProcessedReservationRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Remembers which reservation requests were already handled, keyed by order id. A marker also
+ * closes the order for per-product reservation commands that arrive later. The table is
+ * the source of truth and is written in the reservation transaction; a bounded LRU of recently
+ * committed order ids answers the common redelivery case without a query.
+ */
+@Slf4j
+@Component
+public class ReservationIdempotencyStore {
+
+    private final ProcessedReservationRepository processedReservationRepository;
+
+    private final Duration retention;
+
+    private final Map<Long, Boolean> recentlyProcessed;
+
+    public ReservationIdempotencyStore(
+            ProcessedReservationRepository processedReservationRepository,
+            @Value("${stock.reservation.idempotency.cache-size}") int cacheSize,
+            @Value("${stock.reservation.idempotency.retention}") Duration retention
+    ) {
+        this.processedReservationRepository = processedReservationRepository;
+        this.retention = retention;
+        this.recentlyProcessed = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Boolean> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+
+    /**
+     * Returns the given order ids that have not been processed yet, in their original order.
+     */
+    public Set<Long> findUnprocessed(Collection<Long> orderIds) {
+        Set<Long> unprocessed = new LinkedHashSet<>();
+
+        for (Long orderId : orderIds) {
+            if (!recentlyProcessed.containsKey(orderId)) {
+                unprocessed.add(orderId);
+            }
+        }
+
+        if (unprocessed.isEmpty()) {
+            return unprocessed;
+        }
+
+        List<Long> processed = processedReservationRepository.findAllById(unprocessed)
+                .stream()
+                .map(ProcessedReservation::getOrderId)
+                .toList();
+
+        processed.forEach(unprocessed::remove);
+        remember(processed);
+
+        return unprocessed;
+    }
+
+    /**
+     * Records the order ids as processed. The in-memory front is only updated once the
+     * surrounding transaction has committed, so a rolled back batch is not skipped on retry.
+     */
+    public void markProcessed(Collection<Long> orderIds) {
+        Instant now = Instant.now();
+
+        processedReservationRepository.saveAll(
+                orderIds.stream().map(orderId -> new ProcessedReservation(orderId, now)).toList()
+        );
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            remember(orderIds);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                remember(orderIds);
+            }
+        });
+    }
+
+    /**
+     * Records that no further stock may be reserved for the order, e.g. because it was cancelled
+     * while per-product reservation commands for it were still in flight.
+     */
+    public void markClosed(Long orderId) {
+        if (!findUnprocessed(List.of(orderId)).isEmpty()) {
+            markProcessed(List.of(orderId));
+        }
+    }
+
+    @Transactional
+    @Scheduled(fixedDelayString = "${stock.reservation.idempotency.purge-interval}")
+    public void purgeExpired() {
+        int purged = processedReservationRepository.deleteProcessedBefore(Instant.now().minus(retention));
+
+        if (purged > 0) {
+            log.info("Purged {} processed reservation markers", purged);
+        }
+    }
+
+    private void remember(Collection<Long> orderIds) {
+        orderIds.forEach(orderId -> recentlyProcessed.put(orderId, Boolean.TRUE));
+    }
+}
@@ -0,0 +1,55 @@
+package com.ecommerce.stockservice.reservation;
+
+import com.ecommerce.exceptionlib.ErrorCode;
+import com.ecommerce.stockservice.kafka.event.StockReservationFailedEvent;
+import com.ecommerce.stockservice.kafka.publisher.StockEventPublisher;
+import com.ecommerce.stockservice.model.StockReservation;
+import com.ecommerce.stockservice.service.StockService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Releases holds whose orders were neither cancelled nor confirmed before the reservation TTL,
+ * which happens when some item results of an order never arrive. Confirmed holds have no expiry,
+ * so only orders that were never fully reserved are reported as failed and cancelled by the
+ * order service instead of keeping an order without stock behind it.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ReservationSweeper {
+
+    @Value("${stock.reservation.sweep-batch-size}")
+    private int batchSize;
+
+    private final StockService stockService;
+
+    private final StockEventPublisher stockEventPublisher;
+
+    @Scheduled(fixedDelayString = "${stock.reservation.sweep-interval}")
+    public void releaseExpiredReservations() {
+        Instant now = Instant.now();
+        List<StockReservation> released;
+
+        do {
+            released = stockService.releaseExpiredReservations(now, batchSize);
+
+            released.stream()
+                    .map(StockReservation::getOrderId)
+                    .distinct()
+                    .forEach(orderId -> {
+                        log.info("Stock reservation for order {} expired", orderId);
+
+                        stockEventPublisher.publishReservationFailed(
+                                new StockReservationFailedEvent(orderId, ErrorCode.STOCK_RESERVATION_EXPIRED.getMessage())
+                        );
+                    });
+        } while (released.size() == batchSize);
+    }
+}
@@ -0,0 +1,164 @@
+package com.ecommerce.stockservice.service;
+
+import com.ecommerce.stockservice.dto.StockAdjustmentRequest;
+import com.ecommerce.stockservice.dto.StockAdjustmentResponse;
+import com.ecommerce.stockservice.dto.StockAdjustmentResponse.Rejection;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Applies a streamed NDJSON list of stock adjustments in chunks. Every chunk is one transaction
+ * and one set-based update; changes of the same product within a chunk are summed first.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StockAdjustmentService {
+
+    private static final int MAX_REPORTED_REJECTIONS = 1000;
+
+    @Value("${stock.adjustment.chunk-size}")
+    private int chunkSize;
+
+    private final StockService stockService;
+
+    private final ObjectMapper objectMapper;
+
+    private final Validator validator;
+
+    public StockAdjustmentResponse adjustStocks(InputStream input) {
+        AdjustmentResult result = new AdjustmentResult();
+        Chunk chunk = new Chunk();
+
+        try (MappingIterator<StockAdjustmentRequest> rows = objectMapper.readerFor(StockAdjustmentRequest.class).readValues(input)) {
+            long rowNumber = 0;
+
+            while (true) {
+                rowNumber++;
+                StockAdjustmentRequest request;
+
+                try {
+                    if (!rows.hasNextValue()) {
+                        break;
+                    }
+
+                    request = rows.nextValue();
+                } catch (JsonMappingException e) {
+                    result.reject(rowNumber, null, e.getOriginalMessage());
+                    continue;
+                } catch (JsonProcessingException e) {
+                    result.reject(rowNumber, null, "Malformed input: " + e.getOriginalMessage());
+                    break;
+                }
+
+                String error = validate(request);
+
+                if (error != null) {
+                    result.reject(rowNumber, request.getProductId(), error);
+                    continue;
+                }
+
+                chunk.add(rowNumber, request);
+
+                if (chunk.size() == chunkSize) {
+                    applyChunk(chunk, result);
+                    chunk = new Chunk();
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Stock adjustment input could not be read", e);
+            result.reject(0, null, "Input could not be read: " + e.getMessage());
+        }
+
+        if (chunk.size() > 0) {
+            applyChunk(chunk, result);
+        }
+
+        return result.toResponse();
+    }
+
+    private void applyChunk(Chunk chunk, AdjustmentResult result) {
+        Map<Long, String> rejections;
+
+        try {
+            rejections = stockService.adjustStocks(chunk.quantityChangesByProductId);
+        } catch (RuntimeException e) {
+            log.warn("Failed to apply chunk of {} stock adjustments", chunk.size(), e);
+            chunk.firstRowByProductId.forEach((productId, row) -> result.reject(row, productId, "Chunk could not be applied: " + e.getMessage()));
+            return;
+        }
+
+        rejections.forEach((productId, message) -> result.reject(chunk.firstRowByProductId.get(productId), productId, message));
+        result.adjusted += chunk.size() - rejections.size();
+    }
+
+    private String validate(StockAdjustmentRequest request) {
+        Set<ConstraintViolation<StockAdjustmentRequest>> violations = validator.validate(request);
+
+        if (violations.isEmpty()) {
+            return null;
+        }
+
+        return violations
+                .stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private static class Chunk {
+
+        private final SortedMap<Long, Integer> quantityChangesByProductId = new TreeMap<>();
+
+        private final Map<Long, Long> firstRowByProductId = new HashMap<>();
+
+        private void add(long rowNumber, StockAdjustmentRequest request) {
+            quantityChangesByProductId.merge(request.getProductId(), request.getQuantityChange(), Integer::sum);
+            firstRowByProductId.putIfAbsent(request.getProductId(), rowNumber);
+        }
+
+        private int size() {
+            return quantityChangesByProductId.size();
+        }
+    }
+
+    private static class AdjustmentResult {
+
+        private long adjusted;
+
+        private long rejected;
+
+        private final List<Rejection> rejections = new ArrayList<>();
+
+        private void reject(long rowNumber, Long productId, String message) {
+            rejected++;
+
+            if (rejections.size() < MAX_REPORTED_REJECTIONS) {
+                rejections.add(new Rejection(rowNumber, productId, message));
+            }
+        }
+
+        private StockAdjustmentResponse toResponse() {
+            return new StockAdjustmentResponse(adjusted, rejected, rejections);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.ecommerce.stockservice.service;
+
+import com.ecommerce.stockservice.counter.HotStockCounters;
+import com.ecommerce.stockservice.dto.ReserveStockRequest;
+import com.ecommerce.stockservice.reservation.ReservationAdmission;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Runs reservations through {@link ReservationAdmission} so stripe locks are held until the
+ * reservation transaction has committed. Hot products bypass admission, their counters are lock-free.
+ */
+@Service
+@RequiredArgsConstructor
+public class StockReservationService {
+
+    private final StockService stockService;
+
+    private final ReservationAdmission reservationAdmission;
+
+    private final HotStockCounters hotStockCounters;
+
+    public void reserveStockByProductId(Long productId, ReserveStockRequest reserveStockRequest) {
+        if (hotStockCounters.isHot(productId)) {
+            stockService.reserveStockByProductId(productId, reserveStockRequest);
+            return;
+        }
+
+        reservationAdmission.admit(List.of(productId), () -> {
+            stockService.reserveStockByProductId(productId, reserveStockRequest);
+            return null;
+        });
+    }
+}
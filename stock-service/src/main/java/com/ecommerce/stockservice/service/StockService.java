@@ -3,39 +3,90 @@ package com.ecommerce.stockservice.service;
 import com.ecommerce.exceptionlib.ErrorCode;
 import com.ecommerce.exceptionlib.exception.BadRequestException;
 import com.ecommerce.exceptionlib.exception.NotFoundException;
+import com.ecommerce.stockservice.counter.HotStockCounters;
 import com.ecommerce.stockservice.dto.*;
+import com.ecommerce.stockservice.kafka.event.StockChangedEvent;
+import com.ecommerce.stockservice.kafka.event.StockItemReservationResultEvent;
+import com.ecommerce.stockservice.kafka.event.StockReservationFailedEvent;
+import com.ecommerce.stockservice.kafka.event.StockThresholdCrossedEvent;
+import com.ecommerce.stockservice.kafka.publisher.StockEventPublisher;
+import com.ecommerce.stockservice.kafka.publisher.StockPublicationSequencer;
+import com.ecommerce.stockservice.lookup.StockLookupCoalescer;
 import com.ecommerce.stockservice.mapper.StockMapper;
 import com.ecommerce.stockservice.model.Stock;
+import com.ecommerce.stockservice.model.StockReservation;
 import com.ecommerce.stockservice.repository.StockRepository;
+import com.ecommerce.stockservice.repository.StockReservationRepository;
+import com.ecommerce.stockservice.reservation.ReservationAdmission;
+import com.ecommerce.stockservice.reservation.ReservationIdempotencyStore;
+import com.ecommerce.stockservice.threshold.StockThresholdDetector;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class StockService {
 
+    @Value("${stock.reservation.ttl}")
+    private Duration reservationTtl;
+
     private final StockRepository stockRepository;
 
+    private final StockReservationRepository stockReservationRepository;
+
     private final StockMapper stockMapper;
 
+    private final StockEventPublisher stockEventPublisher;
+
+    private final StockPublicationSequencer stockPublicationSequencer;
+
+    private final ReservationAdmission reservationAdmission;
+
+    private final ReservationIdempotencyStore reservationIdempotencyStore;
+
+    private final HotStockCounters hotStockCounters;
+
+    private final StockLookupCoalescer stockLookupCoalescer;
+
+    private final StockThresholdDetector stockThresholdDetector;
+
     @Transactional(readOnly = true)
     public StockResponse getStockByProductId(Long productId) {
-        Stock stock = findStockByProductIdOrThrow(productId);
+        Stock stock = hotStockCounters.isHot(productId)
+                ? hotStockCounters.get(productId)
+                : findStockByProductIdOrThrow(productId);
 
         return stockMapper.stockToStockResponse(stock);
     }
 
-    @Transactional(readOnly = true)
+    /**
+     * Not transactional on purpose: concurrent calls are coalesced into one query and callers
+     * waiting for another caller's query should not hold a connection meanwhile.
+     */
     public List<StockResponse> getStocksByProductIds(List<Long> productIds) {
-        List<Stock> stocks = stockRepository.findAllById(productIds);
+        List<Stock> stocks = stockLookupCoalescer.findAllById(productIds);
 
         return stocks
                 .stream()
+                .map(stock -> hotStockCounters.isHot(stock.getProductId()) ? hotStockCounters.get(stock.getProductId()) : stock)
                 .map(stockMapper::stockToStockResponse)
                 .toList();
     }
@@ -48,59 +99,523 @@ public class StockService {
         Stock stock = stockMapper.createStockRequestToStock(productId, createStockRequest);
 
         stockRepository.save(stock);
+        publishStockChanged(stock);
 
         return stockMapper.stockToStockResponse(stock);
     }
 
+    /**
+     * Stocks that already exist are returned as they are, so product-service can retry a batch
+     * whose response was lost without failing on the rows the first attempt created.
+     */
+    @Transactional
+    public List<StockResponse> createStocks(CreateStocksRequest createStocksRequest) {
+        Map<Long, Stock> existing = stockRepository.findAllById(
+                        createStocksRequest.getStocks()
+                                .stream()
+                                .map(CreateStocksRequest.StockItem::getProductId)
+                                .toList()
+                )
+                .stream()
+                .collect(Collectors.toMap(Stock::getProductId, Function.identity()));
+
+        List<Stock> stocks = new ArrayList<>(createStocksRequest.getStocks().size());
+        List<Stock> created = new ArrayList<>();
+
+        for (CreateStocksRequest.StockItem item : createStocksRequest.getStocks()) {
+            Stock stock = existing.get(item.getProductId());
+
+            if (stock == null) {
+                stock = new Stock(item.getProductId(), item.getAvailableQuantity(), 0);
+                created.add(stock);
+            }
+
+            stocks.add(stock);
+        }
+
+        stockRepository.persistAll(created);
+        created.forEach(this::publishStockChanged);
+
+        return stocks
+                .stream()
+                .map(stockMapper::stockToStockResponse)
+                .toList();
+    }
+
     @Transactional
     public void updateStockQuantity(Long productId, UpdateStockRequest updateStockRequest) {
-        Stock stock = findStockByProductIdOrThrow(productId);
+        if (hotStockCounters.isHot(productId)) {
+            if (!hotStockCounters.adjustAvailable(productId, updateStockRequest.getQuantityChange())) {
+                throw new BadRequestException(ErrorCode.STOCK_CANT_BE_NEGATIVE.getMessage());
+            }
+
+            publishStockChanged(hotStockCounters.get(productId));
+            return;
+        }
 
-        int updatedAvailableQuantity = stock.getAvailableQuantity() + updateStockRequest.getQuantityChange();
+        Stock stock = stockRepository.adjust(productId, updateStockRequest.getQuantityChange())
+                .orElseThrow(() -> stockRepository.existsById(productId)
+                        ? new BadRequestException(ErrorCode.STOCK_CANT_BE_NEGATIVE.getMessage())
+                        : new NotFoundException(ErrorCode.PRODUCT_NOT_FOUND.getMessage()));
 
-        if (updatedAvailableQuantity < 0) {
-            throw new BadRequestException(ErrorCode.STOCK_CANT_BE_NEGATIVE.getMessage());
+        publishStockChanged(stock);
+    }
+
+    /**
+     * Applies one chunk of a bulk adjustment. Returns the rejected product IDs with the reason,
+     * the rest of the chunk is applied.
+     */
+    @Transactional
+    public Map<Long, String> adjustStocks(SortedMap<Long, Integer> quantityChangesByProductId) {
+        Map<Long, String> rejections = new TreeMap<>();
+        SortedMap<Long, Integer> rowAdjustments = new TreeMap<>();
+        Map<Long, Integer> hotAdjustments = new TreeMap<>();
+
+        afterRollback(() -> hotAdjustments.forEach((productId, quantityChange) -> hotStockCounters.adjustAvailable(productId, -quantityChange)));
+
+        quantityChangesByProductId.forEach((productId, quantityChange) -> {
+            if (!hotStockCounters.isHot(productId)) {
+                rowAdjustments.put(productId, quantityChange);
+                return;
+            }
+
+            try {
+                if (hotStockCounters.adjustAvailable(productId, quantityChange)) {
+                    hotAdjustments.put(productId, quantityChange);
+                    publishStockChanged(hotStockCounters.get(productId));
+                } else {
+                    rejections.put(productId, ErrorCode.STOCK_CANT_BE_NEGATIVE.getMessage());
+                }
+            } catch (NotFoundException e) {
+                rejections.put(productId, e.getMessage());
+            }
+        });
+
+        if (rowAdjustments.isEmpty()) {
+            return rejections;
         }
 
-        stock.setAvailableQuantity(updatedAvailableQuantity);
-        stockRepository.save(stock);
+        List<Stock> adjusted = stockRepository.adjustAll(rowAdjustments);
+        adjusted.forEach(this::publishStockChanged);
+
+        if (adjusted.size() < rowAdjustments.size()) {
+            adjusted.forEach(stock -> rowAdjustments.remove(stock.getProductId()));
+
+            Set<Long> existingProductIds = stockRepository.findAllById(rowAdjustments.keySet())
+                    .stream()
+                    .map(Stock::getProductId)
+                    .collect(Collectors.toSet());
+
+            rowAdjustments.keySet().forEach(productId -> rejections.put(
+                    productId,
+                    existingProductIds.contains(productId)
+                            ? ErrorCode.STOCK_CANT_BE_NEGATIVE.getMessage()
+                            : ErrorCode.PRODUCT_NOT_FOUND.getMessage()
+            ));
+        }
+
+        return rejections;
     }
 
+    /**
+     * Reserves stock for a caller outside the order flow. The request carries no order, so the
+     * hold is not written to the reservation ledger: it has no expiry, and neither the sweeper
+     * nor an order cancellation releases it. Order holds go through {@link #reserveBatch} or
+     * {@link #reserveItems} instead.
+     */
     @Transactional
     public void reserveStockByProductId(Long productId, ReserveStockRequest reserveStockRequest) {
-        Stock stock = findStockByProductIdOrThrow(productId);
+        if (hotStockCounters.isHot(productId)) {
+            if (!hotStockCounters.reserve(productId, reserveStockRequest.getQuantity())) {
+                throw new BadRequestException(ErrorCode.NOT_ENOUGH_STOCK_AVAILABLE.getMessage());
+            }
 
-        if (stock.getAvailableQuantity() - stock.getReservedQuantity() < reserveStockRequest.getQuantity()) {
+            publishStockChanged(hotStockCounters.get(productId));
+            return;
+        }
+
+        List<Long> rejectedProductIds = stockRepository.reserveAll(new TreeMap<>(Map.of(productId, reserveStockRequest.getQuantity())));
+
+        if (!rejectedProductIds.isEmpty()) {
+            findStockByProductIdOrThrow(productId);
             throw new BadRequestException(ErrorCode.NOT_ENOUGH_STOCK_AVAILABLE.getMessage());
         }
 
-        stock.setReservedQuantity(stock.getReservedQuantity() + reserveStockRequest.getQuantity());
-        stockRepository.save(stock);
+        publishStockChanged(findStockByProductIdOrThrow(productId));
+    }
+
+    /**
+     * Reserves a whole poll of orders in one transaction. The referenced rows are locked in
+     * productId order with a single query, orders are applied in memory in the given order and
+     * the changed rows are flushed together on commit. An order that cannot be reserved in full
+     * leaves the stock untouched and is returned as a failure instead of failing the batch.
+     * Every successful order is recorded in the reservation ledger so it can be released later,
+     * and requests for orders that were already handled, successfully or not, are skipped.
+     */
+    @Transactional
+    public List<StockReservationFailedEvent> reserveBatch(List<StockReserveRequestedEvent> requestedEvents) {
+        Set<Long> unprocessedOrderIds = reservationIdempotencyStore.findUnprocessed(
+                requestedEvents.stream().map(StockReserveRequestedEvent::getOrderId).toList()
+        );
+
+        List<StockReserveRequestedEvent> reserveEvents = requestedEvents
+                .stream()
+                .filter(reserveEvent -> unprocessedOrderIds.remove(reserveEvent.getOrderId()))
+                .toList();
+
+        if (reserveEvents.isEmpty()) {
+            return List.of();
+        }
+
+        List<String> rejections = reserveAll(reserveEvents);
+        List<StockReservationFailedEvent> failures = new ArrayList<>();
+
+        for (int i = 0; i < reserveEvents.size(); i++) {
+            if (rejections.get(i) != null) {
+                failures.add(new StockReservationFailedEvent(reserveEvents.get(i).getOrderId(), rejections.get(i)));
+            }
+        }
+
+        reservationIdempotencyStore.markProcessed(reserveEvents.stream().map(StockReserveRequestedEvent::getOrderId).toList());
+
+        return failures;
+    }
+
+    /**
+     * Reserves a poll of per-product reservation commands. Commands are partitioned by product,
+     * so a poll holds every pending command of its products and they are applied in offset order
+     * under one locking query. Each command yields a result for its order; commands for orders
+     * that were closed in the meantime are dropped, and an item that is already held in the
+     * ledger is acknowledged again instead of being reserved twice.
+     */
+    @Transactional
+    public List<StockItemReservationResultEvent> reserveItems(List<StockItemReserveRequestedEvent> requestedEvents) {
+        Set<Long> openOrderIds = reservationIdempotencyStore.findUnprocessed(
+                requestedEvents.stream().map(StockItemReserveRequestedEvent::getOrderId).distinct().toList()
+        );
+
+        if (openOrderIds.isEmpty()) {
+            return List.of();
+        }
+
+        Set<ReservedItem> heldItems = stockReservationRepository.findAllByOrderIdIn(openOrderIds)
+                .stream()
+                .map(reservation -> new ReservedItem(reservation.getOrderId(), reservation.getProductId()))
+                .collect(Collectors.toSet());
+
+        Set<ReservedItem> seenItems = new HashSet<>();
+        List<StockItemReservationResultEvent> results = new ArrayList<>();
+        List<StockReserveRequestedEvent> reserveEvents = new ArrayList<>();
+
+        for (StockItemReserveRequestedEvent requestedEvent : requestedEvents) {
+            ReservedItem item = new ReservedItem(requestedEvent.getOrderId(), requestedEvent.getProductId());
+
+            if (!openOrderIds.contains(item.orderId()) || !seenItems.add(item)) {
+                continue;
+            }
+
+            if (heldItems.contains(item)) {
+                results.add(new StockItemReservationResultEvent(item.orderId(), item.productId(), true, null));
+                continue;
+            }
+
+            reserveEvents.add(new StockReserveRequestedEvent(
+                    item.orderId(),
+                    List.of(new StockReserveRequestedEvent.ReserveItem(item.productId(), requestedEvent.getQuantity()))
+            ));
+        }
+
+        List<String> rejections = reserveAll(reserveEvents);
+
+        for (int i = 0; i < reserveEvents.size(); i++) {
+            StockReserveRequestedEvent reserveEvent = reserveEvents.get(i);
+
+            results.add(new StockItemReservationResultEvent(
+                    reserveEvent.getOrderId(),
+                    reserveEvent.getItems().getFirst().getProductId(),
+                    rejections.get(i) == null,
+                    rejections.get(i)
+            ));
+        }
+
+        return results;
+    }
+
+    @Transactional
+    public void releaseReservation(Long orderId) {
+        release(stockReservationRepository.findAllByOrderIdForUpdate(orderId));
+        reservationIdempotencyStore.markClosed(orderId);
+    }
+
+    /**
+     * Confirms the holds of an order whose items were all reserved. The reserved quantity stays
+     * on the stock and the holds stay in the ledger so a later cancellation can still release
+     * them, but they are no longer subject to the reservation TTL.
+     */
+    @Transactional
+    public void confirmReservation(Long orderId) {
+        stockReservationRepository.confirmAllByOrderId(orderId);
     }
 
     @Transactional
-    public void reserveAllOrThrow(StockReserveRequestedEvent reserveEvent) {
-        Map<Long, Integer> itemsQuantityByIdMap = reserveEvent.getItems()
+    public List<StockReservation> releaseExpiredReservations(Instant now, int limit) {
+        List<StockReservation> expired = stockReservationRepository.findExpiredForUpdate(now, limit);
+
+        release(expired);
+
+        return expired;
+    }
+
+    /**
+     * Reserves the given orders in one pass: the referenced rows are locked in productId order
+     * with a single query, orders are applied in memory in the given order and the changed rows
+     * are flushed together on commit. Returns the rejection of every order by position, or
+     * {@code null} for orders that were reserved in full.
+     */
+    private List<String> reserveAll(List<StockReserveRequestedEvent> reserveEvents) {
+        if (reserveEvents.isEmpty()) {
+            return List.of();
+        }
+
+        Set<Long> productIds = reserveEvents
+                .stream()
+                .flatMap(reserveEvent -> reserveEvent.getItems().stream())
+                .map(StockReserveRequestedEvent.ReserveItem::getProductId)
+                .filter(productId -> !hotStockCounters.isHot(productId))
+                .collect(Collectors.toCollection(TreeSet::new));
+
+        Map<Long, Stock> stocks = productIds.isEmpty()
+                ? Map.of()
+                : stockRepository.findAllForUpdate(productIds)
+                        .stream()
+                        .collect(Collectors.toMap(Stock::getProductId, Function.identity()));
+
+        Instant expiresAt = Instant.now().plus(reservationTtl);
+        Set<Stock> changedStocks = new LinkedHashSet<>();
+        Map<Long, Integer> hotReservations = new TreeMap<>();
+        List<StockReservation> reservations = new ArrayList<>();
+        List<String> rejections = new ArrayList<>(reserveEvents.size());
+
+        afterRollback(() -> hotReservations.forEach(hotStockCounters::release));
+
+        for (StockReserveRequestedEvent reserveEvent : reserveEvents) {
+            rejections.add(reserve(reserveEvent, stocks, expiresAt, changedStocks, hotReservations, reservations));
+        }
+
+        stockReservationRepository.saveAll(reservations);
+        changedStocks.forEach(this::publishStockChanged);
+        hotReservations.keySet().forEach(productId -> publishStockChanged(hotStockCounters.get(productId)));
+
+        return rejections;
+    }
+
+    private String reserve(
+            StockReserveRequestedEvent reserveEvent,
+            Map<Long, Stock> stocks,
+            Instant expiresAt,
+            Set<Stock> changedStocks,
+            Map<Long, Integer> hotReservations,
+            List<StockReservation> reservations
+    ) {
+        Map<Long, Integer> quantitiesByProductId = reserveEvent.getItems()
                 .stream()
                 .collect(
                         Collectors.toMap(
                                 StockReserveRequestedEvent.ReserveItem::getProductId,
-                                StockReserveRequestedEvent.ReserveItem::getQuantity
+                                StockReserveRequestedEvent.ReserveItem::getQuantity,
+                                Integer::sum
                         )
                 );
 
-        List<Long> productIds = reserveEvent.getItems().stream().map(StockReserveRequestedEvent.ReserveItem::getProductId).toList();
-        List<Stock> stocks = stockRepository.findAllById(productIds);
+        for (Map.Entry<Long, Integer> entry : quantitiesByProductId.entrySet()) {
+            if (hotStockCounters.isHot(entry.getKey())) {
+                continue;
+            }
+
+            Stock stock = stocks.get(entry.getKey());
+
+            if (stock == null) {
+                return ErrorCode.PRODUCT_NOT_FOUND.getMessage();
+            }
+
+            if (!stock.canReserve(entry.getValue())) {
+                return ErrorCode.NOT_ENOUGH_STOCK_AVAILABLE.getMessage();
+            }
+        }
+
+        String hotRejection = reserveHot(quantitiesByProductId);
+
+        if (hotRejection != null) {
+            return hotRejection;
+        }
+
+        quantitiesByProductId.forEach((productId, quantity) -> {
+            if (hotStockCounters.isHot(productId)) {
+                hotReservations.merge(productId, quantity, Integer::sum);
+            } else {
+                Stock stock = stocks.get(productId);
+
+                stock.reserve(quantity);
+                changedStocks.add(stock);
+            }
+
+            reservations.add(
+                    StockReservation.builder()
+                            .orderId(reserveEvent.getOrderId())
+                            .productId(productId)
+                            .quantity(quantity)
+                            .expiresAt(expiresAt)
+                            .build()
+            );
+        });
 
+        return null;
+    }
+
+    /**
+     * Reserves the hot items of an order on their counters, all or nothing.
+     */
+    private String reserveHot(Map<Long, Integer> quantitiesByProductId) {
+        Map<Long, Integer> reserved = new TreeMap<>();
+
+        for (Map.Entry<Long, Integer> entry : quantitiesByProductId.entrySet()) {
+            if (!hotStockCounters.isHot(entry.getKey())) {
+                continue;
+            }
+
+            String rejection;
+
+            try {
+                rejection = hotStockCounters.reserve(entry.getKey(), entry.getValue())
+                        ? null
+                        : ErrorCode.NOT_ENOUGH_STOCK_AVAILABLE.getMessage();
+            } catch (NotFoundException e) {
+                rejection = e.getMessage();
+            }
+
+            if (rejection != null) {
+                reserved.forEach(hotStockCounters::release);
+                return rejection;
+            }
+
+            reserved.put(entry.getKey(), entry.getValue());
+        }
+
+        return null;
+    }
+
+    private void release(List<StockReservation> reservations) {
+        if (reservations.isEmpty()) {
+            return;
+        }
+
+        Map<Long, Integer> quantitiesByProductId = reservations
+                .stream()
+                .collect(Collectors.toMap(StockReservation::getProductId, StockReservation::getQuantity, Integer::sum, TreeMap::new));
+
+        Map<Long, Integer> hotQuantitiesByProductId = new TreeMap<>();
+
+        quantitiesByProductId.keySet().removeIf(productId -> {
+            if (!hotStockCounters.isHot(productId)) {
+                return false;
+            }
+
+            hotQuantitiesByProductId.put(productId, quantitiesByProductId.get(productId));
+            return true;
+        });
+
+        if (!quantitiesByProductId.isEmpty()) {
+            for (Stock stock : stockRepository.findAllForUpdate(quantitiesByProductId.keySet())) {
+                stock.release(quantitiesByProductId.get(stock.getProductId()));
+                publishStockChanged(stock);
+            }
+        }
+
+        Map<Long, Integer> hotReleased = new TreeMap<>();
+
+        afterRollback(() -> hotReleased.forEach(hotStockCounters::restore));
 
-        for (Stock stock : stocks) {
-            int requestedItemQuantityToReserve = itemsQuantityByIdMap.get(stock.getProductId());
+        hotQuantitiesByProductId.forEach((productId, quantity) -> {
+            hotReleased.put(productId, hotStockCounters.release(productId, quantity));
+            publishStockChanged(hotStockCounters.get(productId));
+        });
+
+        stockReservationRepository.deleteAllInBatch(reservations);
+    }
+
+    /**
+     * Hot counters are not part of the database transaction, so changes made to them are
+     * compensated when the transaction rolls back.
+     */
+    private void afterRollback(Runnable compensation) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    compensation.run();
+                }
+            }
+        });
+    }
 
-            stock.reserve(requestedItemQuantityToReserve);
+    /**
+     * Runs the action once the transaction has committed, or right away outside of one.
+     */
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
         }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * Takes the level of the stock and its version now and publishes it once the transaction has
+     * committed, so a change that is rolled back is never published. Callbacks of concurrent
+     * commits run in any order, so the level goes through the sequencer, which drops it when a
+     * newer version of the product was already published. Threshold detection runs in the same
+     * step, so crossings are detected and published in version order too.
+     */
+    private void publishStockChanged(Stock stock) {
+        StockChangedEvent event = new StockChangedEvent(
+                stock.getProductId(),
+                stock.getAvailableQuantity(),
+                stock.getReservedQuantity(),
+                stock.getVersion()
+        );
+
+        afterCommit(() -> {
+            int freeQuantity = event.getAvailableQuantity() - event.getReservedQuantity();
+
+            stockPublicationSequencer.publishInOrder(event.getProductId(), event.getVersion(), () -> {
+                reservationAdmission.record(event.getProductId(), freeQuantity);
+                stockEventPublisher.publishStockChanged(event);
+
+                StockThresholdCrossedEvent.Level level = stockThresholdDetector.detect(event.getProductId(), freeQuantity);
+
+                if (level != null) {
+                    stockEventPublisher.publishThresholdCrossed(
+                            new StockThresholdCrossedEvent(event.getProductId(), level, freeQuantity, event.getVersion())
+                    );
+                }
+            });
+        });
     }
 
     private Stock findStockByProductIdOrThrow(Long productId) {
         return stockRepository.findById(productId).orElseThrow(() -> new NotFoundException(ErrorCode.PRODUCT_NOT_FOUND.getMessage()));
     }
+
+    private record ReservedItem(Long orderId, Long productId) {
+    }
 }
@@ -0,0 +1,59 @@
+package com.ecommerce.stockservice.threshold;
+
+import com.ecommerce.stockservice.kafka.event.StockThresholdCrossedEvent.Level;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers the last threshold level of every product and reports when a quantity change moves
+ * a product to another level. Evaluating a change is a single map write, so it adds constant
+ * work to the update that triggered it and never rescans stock. Levels are kept in memory and
+ * loaded from the stored quantities on startup, before any change is taken, so a restart does not
+ * report the level of every product again. A product without a known level, one created since,
+ * is reported on its first change whatever its level. Consumers treat the events as the current
+ * level rather than as a transition.
+ */
+@Component
+public class StockThresholdDetector {
+
+    private final int lowStockThreshold;
+
+    private final Map<Long, Level> levels = new ConcurrentHashMap<>();
+
+    public StockThresholdDetector(@Value("${stock.threshold.low-stock}") int lowStockThreshold) {
+        this.lowStockThreshold = lowStockThreshold;
+    }
+
+    /**
+     * Records the level of a product's stored free quantity without reporting it.
+     */
+    public void load(Long productId, int freeQuantity) {
+        levels.putIfAbsent(productId, levelOf(freeQuantity));
+    }
+
+    /**
+     * Records the free quantity of a product and returns its new level if the level changed or the
+     * product is seen for the first time, {@code null} otherwise.
+     */
+    public Level detect(Long productId, int freeQuantity) {
+        Level level = levelOf(freeQuantity);
+        Level previous = levels.put(productId, level);
+
+        if (previous == level) {
+            return null;
+        }
+
+        return level;
+    }
+
+    private Level levelOf(int freeQuantity) {
+        if (freeQuantity <= 0) {
+            return Level.SOLD_OUT;
+        }
+
+        return freeQuantity < lowStockThreshold ? Level.LOW_STOCK : Level.IN_STOCK;
+    }
+}
@@ -0,0 +1,56 @@
+package com.ecommerce.stockservice.threshold;
+
+import com.ecommerce.stockservice.counter.HotStockCounters;
+import com.ecommerce.stockservice.model.Stock;
+import com.ecommerce.stockservice.repository.StockRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Loads the threshold level of every stock into the detector once the beans are created, which is
+ * before the listeners, the web server and the schedulers start. The first change a product gets
+ * after a restart is therefore compared with the level it had when the service stopped.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StockThresholdLevelLoader implements SmartInitializingSingleton {
+
+    private static final int LOAD_PAGE_SIZE = 1000;
+
+    private final StockRepository stockRepository;
+
+    private final HotStockCounters hotStockCounters;
+
+    private final StockThresholdDetector stockThresholdDetector;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        long loaded = 0;
+        Long lastProductId = 0L;
+
+        while (true) {
+            List<Long> productIds = stockRepository.findProductIdsAfter(lastProductId, PageRequest.ofSize(LOAD_PAGE_SIZE));
+
+            if (productIds.isEmpty()) {
+                break;
+            }
+
+            for (Stock stock : stockRepository.findAllById(productIds)) {
+                Stock level = hotStockCounters.isHot(stock.getProductId()) ? hotStockCounters.get(stock.getProductId()) : stock;
+
+                stockThresholdDetector.load(level.getProductId(), level.getAvailableQuantity() - level.getReservedQuantity());
+            }
+
+            loaded += productIds.size();
+            lastProductId = productIds.getLast();
+        }
+
+        log.info("Loaded stock threshold levels of {} products", loaded);
+    }
+}
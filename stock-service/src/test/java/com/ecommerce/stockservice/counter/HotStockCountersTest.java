@@ -0,0 +1,167 @@
+package com.ecommerce.stockservice.counter;
+
+import com.ecommerce.exceptionlib.exception.NotFoundException;
+import com.ecommerce.stockservice.model.Stock;
+import com.ecommerce.stockservice.model.StockJournalCheckpoint;
+import com.ecommerce.stockservice.repository.StockJournalCheckpointRepository;
+import com.ecommerce.stockservice.repository.StockRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class HotStockCountersTest {
+
+    @TempDir
+    private Path journalDirectory;
+
+    @Mock
+    private StockRepository stockRepository;
+
+    @Mock
+    private StockJournalCheckpointRepository stockJournalCheckpointRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private HotStockCounters hotStockCounters;
+
+    @BeforeEach
+    void setUp() {
+        hotStockCounters = new HotStockCounters(
+                true,
+                Set.of(1L, 2L),
+                journalDirectory,
+                1,
+                stockRepository,
+                stockJournalCheckpointRepository,
+                transactionTemplate
+        );
+
+        lenient().doAnswer(invocation -> {
+            Consumer<TransactionStatus> action = invocation.getArgument(0);
+            action.accept(mock(TransactionStatus.class));
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        hotStockCounters.close();
+    }
+
+    @Test
+    void isHot_shouldOnlyMatchConfiguredProducts() throws Exception {
+        hotStockCounters.recover();
+
+        assertTrue(hotStockCounters.isHot(1L));
+        assertFalse(hotStockCounters.isHot(3L));
+    }
+
+    @Test
+    void reserve_shouldApplyToCounterUntilSoldOut() throws Exception {
+        hotStockCounters.recover();
+        when(stockRepository.findById(1L)).thenReturn(Optional.of(new Stock(1L, 5, 1)));
+
+        assertTrue(hotStockCounters.reserve(1L, 3));
+        assertFalse(hotStockCounters.reserve(1L, 2));
+        assertEquals(1, hotStockCounters.release(1L, 1));
+        assertTrue(hotStockCounters.adjustAvailable(1L, 2));
+        assertFalse(hotStockCounters.adjustAvailable(1L, -8));
+
+        Stock stock = hotStockCounters.get(1L);
+        assertEquals(7, stock.getAvailableQuantity());
+        assertEquals(3, stock.getReservedQuantity());
+        verify(stockRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    void get_shouldReturnHigherVersionAfterEveryChange() throws Exception {
+        hotStockCounters.recover();
+        when(stockRepository.findById(1L)).thenReturn(Optional.of(new Stock(1L, 5, 0, 42L)));
+
+        assertEquals(42L, hotStockCounters.get(1L).getVersion());
+
+        hotStockCounters.reserve(1L, 1);
+        long reservedVersion = hotStockCounters.get(1L).getVersion();
+        hotStockCounters.release(1L, 1);
+
+        assertTrue(reservedVersion > 42L);
+        assertTrue(hotStockCounters.get(1L).getVersion() > reservedVersion);
+    }
+
+    @Test
+    void reserve_shouldThrowNotFound_whenStockDoesNotExist() throws Exception {
+        hotStockCounters.recover();
+        when(stockRepository.findById(2L)).thenReturn(Optional.empty());
+
+        assertThrows(NotFoundException.class, () -> hotStockCounters.reserve(2L, 1));
+    }
+
+    @Test
+    void flush_shouldWriteJournaledChangesBehindAndAdvanceCheckpoint() throws Exception {
+        hotStockCounters.recover();
+        when(stockRepository.findById(1L)).thenReturn(Optional.of(new Stock(1L, 10, 0)));
+
+        hotStockCounters.reserve(1L, 4);
+        hotStockCounters.reserve(1L, 2);
+        hotStockCounters.adjustAvailable(1L, 5);
+        hotStockCounters.flush();
+
+        verify(stockRepository, times(1)).applyDeltas(List.of(new StockDelta(1L, 5, 6)));
+
+        ArgumentCaptor<StockJournalCheckpoint> checkpoint = ArgumentCaptor.forClass(StockJournalCheckpoint.class);
+        verify(stockJournalCheckpointRepository, times(1)).save(checkpoint.capture());
+        assertEquals(1L, checkpoint.getValue().getSegment());
+        assertEquals(1, journalFiles().size());
+    }
+
+    @Test
+    void recover_shouldReplaySegmentsAfterCheckpointOnly() throws Exception {
+        writeSegment(3, new StockDelta(1L, 0, 2));
+        writeSegment(4, new StockDelta(1L, 0, 5));
+
+        when(stockJournalCheckpointRepository.findById(0))
+                .thenReturn(Optional.of(new StockJournalCheckpoint(0, 3L)));
+
+        hotStockCounters.recover();
+
+        verify(stockRepository, times(1)).applyDeltas(any());
+        verify(stockRepository, times(1)).applyDeltas(List.of(new StockDelta(1L, 0, 5)));
+        assertEquals(List.of("stock-0-0000000000000000005.journal"), journalFiles());
+    }
+
+    private void writeSegment(long segment, StockDelta delta) throws Exception {
+        ByteBuffer buffer = ByteBuffer.allocate(16)
+                .putLong(delta.productId())
+                .putInt(delta.availableQuantityChange())
+                .putInt(delta.reservedQuantityChange());
+
+        Files.write(journalDirectory.resolve("stock-0-%019d.journal".formatted(segment)), buffer.array());
+    }
+
+    private List<String> journalFiles() throws Exception {
+        try (var files = Files.list(journalDirectory)) {
+            return files.map(file -> file.getFileName().toString()).sorted().toList();
+        }
+    }
+}
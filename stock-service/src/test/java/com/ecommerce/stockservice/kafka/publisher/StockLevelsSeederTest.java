@@ -0,0 +1,105 @@
+package com.ecommerce.stockservice.kafka.publisher;
+
+import com.ecommerce.stockservice.counter.HotStockCounters;
+import com.ecommerce.stockservice.kafka.event.StockChangedEvent;
+import com.ecommerce.stockservice.model.Stock;
+import com.ecommerce.stockservice.repository.StockRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StockLevelsSeederTest {
+
+    @InjectMocks
+    private StockLevelsSeeder stockLevelsSeeder;
+
+    @Mock
+    private StockRepository stockRepository;
+
+    @Mock
+    private HotStockCounters hotStockCounters;
+
+    @Mock
+    private StockEventPublisher stockEventPublisher;
+
+    @Spy
+    private StockPublicationSequencer stockPublicationSequencer = new StockPublicationSequencer();
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(stockLevelsSeeder, "seedOnStartup", true);
+    }
+
+    @Test
+    void seed_shouldPublishEveryStockPageByPageUnderRowLocks() {
+        doAnswer(invocation -> {
+            Consumer<TransactionStatus> action = invocation.getArgument(0);
+            action.accept(mock(TransactionStatus.class));
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+
+        when(stockRepository.findProductIdsAfter(eq(0L), any(Pageable.class))).thenReturn(List.of(1L, 2L));
+        when(stockRepository.findProductIdsAfter(eq(2L), any(Pageable.class))).thenReturn(List.of());
+        when(stockRepository.findAllForUpdate(List.of(1L, 2L))).thenReturn(List.of(new Stock(1L, 5, 1), new Stock(2L, 7, 0)));
+        when(hotStockCounters.isHot(1L)).thenReturn(false);
+        when(hotStockCounters.isHot(2L)).thenReturn(true);
+        when(hotStockCounters.get(2L)).thenReturn(new Stock(2L, 9, 3));
+
+        stockLevelsSeeder.seed();
+
+        ArgumentCaptor<StockChangedEvent> levels = ArgumentCaptor.forClass(StockChangedEvent.class);
+        verify(stockEventPublisher, times(2)).publishStockLevel(levels.capture());
+        assertEquals(5, levels.getAllValues().get(0).getAvailableQuantity());
+        assertEquals(9, levels.getAllValues().get(1).getAvailableQuantity());
+        verify(stockEventPublisher, never()).publishStockChanged(any());
+    }
+
+    @Test
+    void seed_shouldDropLevel_whenNewerVersionWasAlreadyPublished() {
+        doAnswer(invocation -> {
+            Consumer<TransactionStatus> action = invocation.getArgument(0);
+            action.accept(mock(TransactionStatus.class));
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+
+        when(stockRepository.findProductIdsAfter(eq(0L), any(Pageable.class))).thenReturn(List.of(1L));
+        when(stockRepository.findProductIdsAfter(eq(1L), any(Pageable.class))).thenReturn(List.of());
+        when(stockRepository.findAllForUpdate(List.of(1L))).thenReturn(List.of(new Stock(1L, 5, 1, 10L)));
+
+        stockPublicationSequencer.publishInOrder(1L, 11L, () -> {
+        });
+        stockLevelsSeeder.seed();
+
+        verify(stockEventPublisher, never()).publishStockLevel(any());
+    }
+
+    @Test
+    void seed_shouldDoNothing_whenDisabled() {
+        ReflectionTestUtils.setField(stockLevelsSeeder, "seedOnStartup", false);
+
+        stockLevelsSeeder.seed();
+
+        verifyNoInteractions(stockRepository, stockEventPublisher);
+    }
+}
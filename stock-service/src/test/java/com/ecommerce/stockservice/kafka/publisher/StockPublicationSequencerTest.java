@@ -0,0 +1,43 @@
+package com.ecommerce.stockservice.kafka.publisher;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StockPublicationSequencerTest {
+
+    private final StockPublicationSequencer stockPublicationSequencer = new StockPublicationSequencer();
+
+    @Test
+    void publishInOrder_shouldDropVersionsNotNewerThanThePublishedOne() {
+        List<Long> published = new ArrayList<>();
+
+        assertTrue(stockPublicationSequencer.publishInOrder(1L, 5L, () -> published.add(5L)));
+        assertFalse(stockPublicationSequencer.publishInOrder(1L, 4L, () -> published.add(4L)));
+        assertFalse(stockPublicationSequencer.publishInOrder(1L, 5L, () -> published.add(5L)));
+        assertTrue(stockPublicationSequencer.publishInOrder(1L, 6L, () -> published.add(6L)));
+
+        assertEquals(List.of(5L, 6L), published);
+    }
+
+    @Test
+    void publishInOrder_shouldOrderProductsIndependently() {
+        assertTrue(stockPublicationSequencer.publishInOrder(1L, 10L, () -> {
+        }));
+        assertTrue(stockPublicationSequencer.publishInOrder(2L, 3L, () -> {
+        }));
+    }
+
+    @Test
+    void publishInOrder_shouldNotRecordVersion_whenPublicationFails() {
+        assertThrows(IllegalStateException.class, () -> stockPublicationSequencer.publishInOrder(1L, 5L, () -> {
+            throw new IllegalStateException("Broker unavailable");
+        }));
+
+        assertTrue(stockPublicationSequencer.publishInOrder(1L, 5L, () -> {
+        }));
+    }
+}
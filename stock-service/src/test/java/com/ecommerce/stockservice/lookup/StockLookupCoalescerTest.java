@@ -0,0 +1,66 @@
+package com.ecommerce.stockservice.lookup;
+
+import com.ecommerce.stockservice.model.Stock;
+import com.ecommerce.stockservice.repository.StockRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StockLookupCoalescerTest {
+
+    @Mock
+    private StockRepository stockRepository;
+
+    @Test
+    void findAllById_shouldServeConcurrentCallersWithOneQuery() throws Exception {
+        StockLookupCoalescer coalescer = new StockLookupCoalescer(stockRepository, Duration.ofSeconds(10), 3);
+
+        when(stockRepository.findAllById(anyList())).thenReturn(List.of(new Stock(1L, 5, 0), new Stock(2L, 6, 0)));
+
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+
+        try {
+            Future<List<Stock>> first = executor.submit(() -> coalescer.findAllById(List.of(1L)));
+            Future<List<Stock>> second = executor.submit(() -> coalescer.findAllById(List.of(2L, 1L)));
+            Future<List<Stock>> third = executor.submit(() -> coalescer.findAllById(List.of(3L)));
+
+            assertEquals(List.of(1L), first.get().stream().map(Stock::getProductId).toList());
+            assertEquals(List.of(2L, 1L), second.get().stream().map(Stock::getProductId).toList());
+            assertTrue(third.get().isEmpty());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        verify(stockRepository, times(1)).findAllById(anyList());
+    }
+
+    @Test
+    void findAllById_shouldQueryDirectly_whenCoalescingIsDisabled() {
+        StockLookupCoalescer coalescer = new StockLookupCoalescer(stockRepository, Duration.ZERO, 3);
+
+        when(stockRepository.findAllById(List.of(1L))).thenReturn(List.of(new Stock(1L, 5, 0)));
+
+        assertEquals(1, coalescer.findAllById(List.of(1L)).size());
+    }
+
+    @Test
+    void findAllById_shouldRethrowQueryFailure() {
+        StockLookupCoalescer coalescer = new StockLookupCoalescer(stockRepository, Duration.ofMillis(1), 1000);
+
+        when(stockRepository.findAllById(anyList())).thenThrow(new IllegalStateException("down"));
+
+        assertThrows(IllegalStateException.class, () -> coalescer.findAllById(List.of(1L)));
+    }
+}
@@ -0,0 +1,88 @@
+package com.ecommerce.stockservice.reservation;
+
+import com.ecommerce.exceptionlib.exception.BadRequestException;
+import com.ecommerce.exceptionlib.exception.ConflictException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReservationAdmissionTest {
+
+    private final ReservationAdmission reservationAdmission = new ReservationAdmission(16, Duration.ofMillis(50), Duration.ofSeconds(5));
+
+    @Test
+    void admit_shouldRunReservation() {
+        assertEquals("reserved", reservationAdmission.admit(List.of(1L, 2L), () -> "reserved"));
+    }
+
+    @Test
+    void admit_shouldRejectSoldOutProductWithoutRunningReservation() {
+        reservationAdmission.record(1L, 0);
+
+        assertThrows(BadRequestException.class, () -> reservationAdmission.admit(List.of(2L, 1L), () -> fail("reservation should not run")));
+    }
+
+    @Test
+    void admit_shouldAdmitAgain_whenStockIsReplenished() {
+        reservationAdmission.record(1L, 0);
+        reservationAdmission.record(1L, 3);
+
+        assertEquals(1, reservationAdmission.admit(List.of(1L), () -> 1));
+    }
+
+    @Test
+    void admit_shouldAdmitAgain_whenSoldOutHintExpired() {
+        ReservationAdmission shortLived = new ReservationAdmission(16, Duration.ofMillis(50), Duration.ZERO);
+        shortLived.record(1L, 0);
+
+        assertEquals(1, shortLived.admit(List.of(1L), () -> 1));
+    }
+
+    @Test
+    void admit_shouldReleaseStripes_whenReservationFails() {
+        assertThrows(IllegalStateException.class, () -> reservationAdmission.admit(List.of(1L), () -> {
+            throw new IllegalStateException();
+        }));
+
+        assertEquals(1, reservationAdmission.admit(List.of(1L), () -> 1));
+    }
+
+    @Test
+    void admit_shouldThrowConflict_whenStripeIsBusy() throws Exception {
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            Future<Object> holder = executor.submit(() -> reservationAdmission.admit(List.of(1L), () -> {
+                locked.countDown();
+                awaitQuietly(release);
+                return null;
+            }));
+
+            assertTrue(locked.await(5, TimeUnit.SECONDS));
+            assertThrows(ConflictException.class, () -> reservationAdmission.admit(List.of(1L), () -> 1));
+
+            release.countDown();
+            holder.get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.ecommerce.stockservice.reservation;
+
+import com.ecommerce.stockservice.model.ProcessedReservation;
+import com.ecommerce.stockservice.repository.ProcessedReservationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReservationIdempotencyStoreTest {
+
+    @Mock
+    private ProcessedReservationRepository processedReservationRepository;
+
+    private ReservationIdempotencyStore reservationIdempotencyStore;
+
+    @BeforeEach
+    void setUp() {
+        reservationIdempotencyStore = new ReservationIdempotencyStore(processedReservationRepository, 2, Duration.ofDays(7));
+    }
+
+    @Test
+    void findUnprocessed_shouldFilterOrdersFoundInStore() {
+        when(processedReservationRepository.findAllById(Set.of(1L, 2L, 3L)))
+                .thenReturn(List.of(new ProcessedReservation(2L, Instant.now())));
+
+        assertIterableEquals(List.of(3L, 1L), reservationIdempotencyStore.findUnprocessed(List.of(3L, 2L, 1L)));
+    }
+
+    @Test
+    void findUnprocessed_shouldAnswerRecentlyProcessedOrdersWithoutQuery() {
+        reservationIdempotencyStore.markProcessed(List.of(1L, 2L));
+
+        assertTrue(reservationIdempotencyStore.findUnprocessed(List.of(1L, 2L)).isEmpty());
+        verify(processedReservationRepository, never()).findAllById(any());
+    }
+
+    @Test
+    void findUnprocessed_shouldFallBackToStore_whenOrderWasEvictedFromMemory() {
+        reservationIdempotencyStore.markProcessed(List.of(1L, 2L, 3L));
+
+        when(processedReservationRepository.findAllById(Set.of(1L)))
+                .thenReturn(List.of(new ProcessedReservation(1L, Instant.now())));
+
+        assertTrue(reservationIdempotencyStore.findUnprocessed(List.of(1L, 3L)).isEmpty());
+    }
+
+    @Test
+    void markProcessed_shouldPersistMarkers() {
+        reservationIdempotencyStore.markProcessed(List.of(1L, 2L));
+
+        verify(processedReservationRepository, times(1)).saveAll(anyList());
+    }
+
+    @Test
+    void markClosed_shouldPersistMarkerOnlyOnce() {
+        reservationIdempotencyStore.markClosed(1L);
+        reservationIdempotencyStore.markClosed(1L);
+
+        verify(processedReservationRepository, times(1)).saveAll(anyList());
+    }
+
+    @Test
+    void purgeExpired_shouldDeleteMarkersOlderThanRetention() {
+        Instant before = Instant.now().minus(Duration.ofDays(7));
+
+        reservationIdempotencyStore.purgeExpired();
+
+        verify(processedReservationRepository, times(1)).deleteProcessedBefore(argThat(cutoff -> !cutoff.isBefore(before)));
+    }
+}
@@ -0,0 +1,103 @@
+package com.ecommerce.stockservice.service;
+
+import com.ecommerce.exceptionlib.ErrorCode;
+import com.ecommerce.stockservice.dto.StockAdjustmentResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StockAdjustmentServiceTest {
+
+    @Mock
+    private StockService stockService;
+
+    private StockAdjustmentService stockAdjustmentService;
+
+    @BeforeEach
+    void setUp() {
+        stockAdjustmentService = new StockAdjustmentService(
+                stockService,
+                new ObjectMapper(),
+                Validation.buildDefaultValidatorFactory().getValidator()
+        );
+        ReflectionTestUtils.setField(stockAdjustmentService, "chunkSize", 2);
+    }
+
+    @Test
+    void adjustStocks_shouldApplyChunksAndReportRejectedRows() {
+        when(stockService.adjustStocks(any()))
+                .thenReturn(Map.of(2L, ErrorCode.STOCK_CANT_BE_NEGATIVE.getMessage()))
+                .thenReturn(Map.of());
+
+        InputStream ndjson = input("""
+                {"productId":1,"quantityChange":5}
+                {"productId":2,"quantityChange":-50}
+                {"productId":3}
+                {"productId":1,"quantityChange":"many"}
+                {"productId":4,"quantityChange":1}
+                """);
+
+        StockAdjustmentResponse response = stockAdjustmentService.adjustStocks(ndjson);
+
+        assertEquals(2, response.adjusted());
+        assertEquals(3, response.rejected());
+        assertEquals(List.of(2L, 3L, 4L), response.rejections().stream().map(StockAdjustmentResponse.Rejection::row).sorted().toList());
+
+        ArgumentCaptor<SortedMap<Long, Integer>> chunks = ArgumentCaptor.captor();
+        verify(stockService, times(2)).adjustStocks(chunks.capture());
+        assertEquals(Map.of(1L, 5, 2L, -50), chunks.getAllValues().get(0));
+        assertEquals(Map.of(4L, 1), chunks.getAllValues().get(1));
+    }
+
+    @Test
+    void adjustStocks_shouldSumChangesOfTheSameProductWithinChunk() {
+        when(stockService.adjustStocks(any())).thenReturn(Map.of());
+
+        InputStream ndjson = input("""
+                {"productId":7,"quantityChange":5}
+                {"productId":7,"quantityChange":-2}
+                """);
+
+        StockAdjustmentResponse response = stockAdjustmentService.adjustStocks(ndjson);
+
+        assertEquals(1, response.adjusted());
+        verify(stockService, times(1)).adjustStocks(new TreeMap<>(Map.of(7L, 3)));
+    }
+
+    @Test
+    void adjustStocks_shouldRejectWholeChunk_whenItCannotBeApplied() {
+        when(stockService.adjustStocks(any())).thenThrow(new IllegalStateException("Database unavailable"));
+
+        InputStream ndjson = input("""
+                {"productId":1,"quantityChange":5}
+                """);
+
+        StockAdjustmentResponse response = stockAdjustmentService.adjustStocks(ndjson);
+
+        assertEquals(0, response.adjusted());
+        assertEquals(1, response.rejected());
+        assertEquals(1L, response.rejections().getFirst().productId());
+    }
+
+    private InputStream input(String content) {
+        return new ByteArrayInputStream(content.getBytes());
+    }
+}
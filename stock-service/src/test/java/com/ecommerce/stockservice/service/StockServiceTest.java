@@ -1,24 +1,54 @@
 package com.ecommerce.stockservice.service;
 
+import com.ecommerce.exceptionlib.ErrorCode;
 import com.ecommerce.exceptionlib.exception.BadRequestException;
 import com.ecommerce.exceptionlib.exception.NotFoundException;
+import com.ecommerce.stockservice.counter.HotStockCounters;
 import com.ecommerce.stockservice.dto.*;
+import com.ecommerce.stockservice.kafka.event.StockChangedEvent;
+import com.ecommerce.stockservice.kafka.event.StockItemReservationResultEvent;
+import com.ecommerce.stockservice.kafka.event.StockReservationFailedEvent;
+import com.ecommerce.stockservice.kafka.event.StockThresholdCrossedEvent;
+import com.ecommerce.stockservice.kafka.publisher.StockEventPublisher;
+import com.ecommerce.stockservice.kafka.publisher.StockPublicationSequencer;
+import com.ecommerce.stockservice.lookup.StockLookupCoalescer;
 import com.ecommerce.stockservice.mapper.StockMapper;
 import com.ecommerce.stockservice.model.Stock;
+import com.ecommerce.stockservice.model.StockReservation;
 import com.ecommerce.stockservice.repository.StockRepository;
+import com.ecommerce.stockservice.repository.StockReservationRepository;
+import com.ecommerce.stockservice.reservation.ReservationAdmission;
+import com.ecommerce.stockservice.reservation.ReservationIdempotencyStore;
+import com.ecommerce.stockservice.threshold.StockThresholdDetector;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -30,9 +60,33 @@ class StockServiceTest {
     @Mock
     private StockRepository stockRepository;
 
+    @Mock
+    private StockReservationRepository stockReservationRepository;
+
     @Mock
     private StockMapper stockMapper;
 
+    @Mock
+    private StockEventPublisher stockEventPublisher;
+
+    @Spy
+    private StockPublicationSequencer stockPublicationSequencer = new StockPublicationSequencer();
+
+    @Mock
+    private ReservationAdmission reservationAdmission;
+
+    @Mock
+    private ReservationIdempotencyStore reservationIdempotencyStore;
+
+    @Mock
+    private HotStockCounters hotStockCounters;
+
+    @Mock
+    private StockLookupCoalescer stockLookupCoalescer;
+
+    @Mock
+    private StockThresholdDetector stockThresholdDetector;
+
     private Stock stock;
 
     private StockResponse stockResponse;
@@ -41,6 +95,7 @@ class StockServiceTest {
     void setUp() {
         stock = new Stock(1L, 5, 0);
         stockResponse = new StockResponse(1L, 5);
+        ReflectionTestUtils.setField(stockService, "reservationTtl", Duration.ofMinutes(30));
     }
 
     @Nested
@@ -76,14 +131,14 @@ class StockServiceTest {
             StockResponse stockResponse2 = new StockResponse(2L, 6);
 
 
-            when(stockRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(stock, stock2));
+            when(stockLookupCoalescer.findAllById(List.of(1L, 2L))).thenReturn(List.of(stock, stock2));
             when(stockMapper.stockToStockResponse(stock)).thenReturn(stockResponse);
             when(stockMapper.stockToStockResponse(stock2)).thenReturn(stockResponse2);
 
             List<StockResponse> result = stockService.getStocksByProductIds(List.of(1L, 2L));
 
             assertIterableEquals(List.of(stockResponse, stockResponse2), result);
-            verify(stockRepository, times(1)).findAllById(List.of(1L, 2L));
+            verify(stockLookupCoalescer, times(1)).findAllById(List.of(1L, 2L));
             verify(stockMapper, times(1)).stockToStockResponse(stock);
             verify(stockMapper, times(1)).stockToStockResponse(stock2);
         }
@@ -108,6 +163,53 @@ class StockServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("createStocks() tests")
+    class CreateStocks {
+        @Test
+        public void createStocks_shouldPersistAllAndPublishChanges() {
+            CreateStocksRequest req = new CreateStocksRequest(List.of(
+                    new CreateStocksRequest.StockItem(1L, 5),
+                    new CreateStocksRequest.StockItem(2L, 7)
+            ));
+
+            when(stockMapper.stockToStockResponse(any(Stock.class)))
+                    .thenAnswer(invocation -> {
+                        Stock created = invocation.getArgument(0);
+                        return new StockResponse(created.getProductId(), created.getAvailableQuantity());
+                    });
+
+            List<StockResponse> result = stockService.createStocks(req);
+
+            assertEquals(2, result.size());
+            assertEquals(7, result.get(1).getAvailableQuantity());
+            verify(stockRepository, times(1)).persistAll(argThat(stocks -> stocks.size() == 2 && stocks.getFirst().getReservedQuantity() == 0));
+            verify(stockEventPublisher, times(2)).publishStockChanged(any(StockChangedEvent.class));
+        }
+
+        @Test
+        public void createStocks_shouldSkipExistingStocks() {
+            CreateStocksRequest req = new CreateStocksRequest(List.of(
+                    new CreateStocksRequest.StockItem(1L, 9),
+                    new CreateStocksRequest.StockItem(2L, 7)
+            ));
+
+            when(stockRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(stock));
+            when(stockMapper.stockToStockResponse(any(Stock.class)))
+                    .thenAnswer(invocation -> {
+                        Stock created = invocation.getArgument(0);
+                        return new StockResponse(created.getProductId(), created.getAvailableQuantity());
+                    });
+
+            List<StockResponse> result = stockService.createStocks(req);
+
+            assertEquals(List.of(1L, 2L), result.stream().map(StockResponse::getProductId).toList());
+            assertEquals(stock.getAvailableQuantity(), result.getFirst().getAvailableQuantity());
+            verify(stockRepository, times(1)).persistAll(argThat(stocks -> stocks.size() == 1 && stocks.getFirst().getProductId() == 2L));
+            verify(stockEventPublisher, times(1)).publishStockChanged(any(StockChangedEvent.class));
+        }
+    }
+
     @Nested
     @DisplayName("updateStockQuantity() tests")
     class UpdateStockQuantity {
@@ -115,36 +217,141 @@ class StockServiceTest {
         public void updateStockQuantity_shouldThrowBadRequest() {
             UpdateStockRequest updateStockRequest = new UpdateStockRequest(-6);
 
-            when(stockRepository.findById(1L)).thenReturn(Optional.of(stock));
+            when(stockRepository.adjust(1L, -6)).thenReturn(Optional.empty());
+            when(stockRepository.existsById(1L)).thenReturn(true);
 
             assertThrows(BadRequestException.class, () -> stockService.updateStockQuantity(1L, updateStockRequest));
-            verify(stockRepository, times(1)).findById(1L);
+            verify(stockRepository, times(1)).adjust(1L, -6);
+            verifyNoInteractions(stockEventPublisher);
+        }
+
+        @Test
+        public void updateStockQuantity_shouldThrowNotFound() {
+            when(stockRepository.adjust(1L, 5)).thenReturn(Optional.empty());
+            when(stockRepository.existsById(1L)).thenReturn(false);
+
+            assertThrows(NotFoundException.class, () -> stockService.updateStockQuantity(1L, new UpdateStockRequest(5)));
+            verifyNoInteractions(stockEventPublisher);
         }
 
         @Test
         public void updateStockQuantity_shouldUpdateStockWithNegativeRequest() {
             UpdateStockRequest updateStockRequest = new UpdateStockRequest(-5);
 
-            when(stockRepository.findById(1L)).thenReturn(Optional.of(stock));
+            when(stockRepository.adjust(1L, -5)).thenReturn(Optional.of(new Stock(1L, 0, 0)));
 
             stockService.updateStockQuantity(1L, updateStockRequest);
 
-            assertEquals(0, stock.getAvailableQuantity());
-            verify(stockRepository, times(1)).findById(1L);
-            verify(stockRepository, times(1)).save(stock);
+            verify(stockRepository, times(1)).adjust(1L, -5);
+            verify(stockRepository, never()).save(any(Stock.class));
+            verify(stockEventPublisher, times(1)).publishStockChanged(argThat(event -> event.getAvailableQuantity() == 0));
         }
 
         @Test
         public void updateStockQuantity_shouldUpdateStockWithPositiveRequest() {
             UpdateStockRequest updateStockRequest = new UpdateStockRequest(5);
 
-            when(stockRepository.findById(1L)).thenReturn(Optional.of(stock));
+            when(stockRepository.adjust(1L, 5)).thenReturn(Optional.of(new Stock(1L, 10, 0)));
 
             stockService.updateStockQuantity(1L, updateStockRequest);
 
-            assertEquals(10, stock.getAvailableQuantity());
-            verify(stockRepository, times(1)).findById(1L);
-            verify(stockRepository, times(1)).save(stock);
+            verify(stockRepository, times(1)).adjust(1L, 5);
+            verify(stockRepository, never()).save(any(Stock.class));
+            verify(stockEventPublisher, times(1)).publishStockChanged(argThat(event -> event.getAvailableQuantity() == 10));
+            verify(stockEventPublisher, never()).publishThresholdCrossed(any());
+        }
+
+        @Test
+        public void updateStockQuantity_shouldPublishThresholdCrossing_whenProductSellsOut() {
+            when(stockRepository.adjust(1L, -5)).thenReturn(Optional.of(new Stock(1L, 0, 0, 3L)));
+            when(stockThresholdDetector.detect(1L, 0)).thenReturn(StockThresholdCrossedEvent.Level.SOLD_OUT);
+
+            stockService.updateStockQuantity(1L, new UpdateStockRequest(-5));
+
+            ArgumentCaptor<StockThresholdCrossedEvent> event = ArgumentCaptor.forClass(StockThresholdCrossedEvent.class);
+            verify(stockEventPublisher, times(1)).publishThresholdCrossed(event.capture());
+            assertEquals(1L, event.getValue().getProductId());
+            assertEquals(StockThresholdCrossedEvent.Level.SOLD_OUT, event.getValue().getLevel());
+            assertEquals(0, event.getValue().getFreeQuantity());
+            assertEquals(3L, event.getValue().getVersion());
+        }
+
+        @Test
+        public void updateStockQuantity_shouldPublishChangedLevel_onlyAfterCommit() {
+            when(stockRepository.adjust(1L, 5)).thenReturn(Optional.of(new Stock(1L, 10, 0)));
+
+            TransactionSynchronizationManager.initSynchronization();
+
+            try {
+                stockService.updateStockQuantity(1L, new UpdateStockRequest(5));
+
+                verifyNoInteractions(stockEventPublisher, reservationAdmission, stockThresholdDetector);
+
+                TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            } finally {
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+
+            ArgumentCaptor<StockChangedEvent> event = ArgumentCaptor.forClass(StockChangedEvent.class);
+            verify(stockEventPublisher, times(1)).publishStockChanged(event.capture());
+            assertEquals(10, event.getValue().getAvailableQuantity());
+            verify(reservationAdmission, times(1)).record(1L, 10);
+        }
+
+        @Test
+        public void updateStockQuantity_shouldDropOlderLevel_whenCommitsCompleteOutOfOrder() {
+            when(stockRepository.adjust(1L, 5)).thenReturn(Optional.of(new Stock(1L, 10, 0, 7L)));
+            when(stockRepository.adjust(1L, -2)).thenReturn(Optional.of(new Stock(1L, 8, 0, 8L)));
+
+            TransactionSynchronizationManager.initSynchronization();
+
+            try {
+                stockService.updateStockQuantity(1L, new UpdateStockRequest(5));
+                stockService.updateStockQuantity(1L, new UpdateStockRequest(-2));
+
+                List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+                synchronizations.get(1).afterCommit();
+                synchronizations.get(0).afterCommit();
+            } finally {
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+
+            ArgumentCaptor<StockChangedEvent> event = ArgumentCaptor.forClass(StockChangedEvent.class);
+            verify(stockEventPublisher, times(1)).publishStockChanged(event.capture());
+            assertEquals(8, event.getValue().getAvailableQuantity());
+            assertEquals(8L, event.getValue().getVersion());
+            verify(reservationAdmission, never()).record(1L, 10);
+        }
+    }
+
+    @Nested
+    @DisplayName("adjustStocks() tests")
+    class AdjustStocks {
+        @Test
+        public void adjustStocks_shouldApplySetBasedAndReportRejectedProducts() {
+            SortedMap<Long, Integer> changes = new TreeMap<>(Map.of(1L, 5, 2L, -10, 3L, 1));
+
+            when(stockRepository.adjustAll(changes)).thenReturn(List.of(new Stock(1L, 10, 0)));
+            when(stockRepository.findAllById(Set.of(2L, 3L))).thenReturn(List.of(new Stock(2L, 4, 0)));
+
+            Map<Long, String> rejections = stockService.adjustStocks(changes);
+
+            assertEquals(Map.of(
+                    2L, ErrorCode.STOCK_CANT_BE_NEGATIVE.getMessage(),
+                    3L, ErrorCode.PRODUCT_NOT_FOUND.getMessage()
+            ), rejections);
+            verify(stockEventPublisher, times(1)).publishStockChanged(any(StockChangedEvent.class));
+        }
+
+        @Test
+        public void adjustStocks_shouldAdjustHotProductsOnTheirCounters() {
+            when(hotStockCounters.isHot(1L)).thenReturn(true);
+            when(hotStockCounters.adjustAvailable(1L, -3)).thenReturn(false);
+
+            Map<Long, String> rejections = stockService.adjustStocks(new TreeMap<>(Map.of(1L, -3)));
+
+            assertEquals(Map.of(1L, ErrorCode.STOCK_CANT_BE_NEGATIVE.getMessage()), rejections);
+            verifyNoInteractions(stockRepository);
         }
     }
 
@@ -155,58 +362,347 @@ class StockServiceTest {
         public void reserveStockByProductId_shouldThrowBadRequest() {
             ReserveStockRequest reserveStockRequest = new ReserveStockRequest(6);
 
+            when(stockRepository.reserveAll(new TreeMap<>(Map.of(1L, 6)))).thenReturn(List.of(1L));
             when(stockRepository.findById(1L)).thenReturn(Optional.of(stock));
 
             assertThrows(BadRequestException.class, () -> stockService.reserveStockByProductId(1L, reserveStockRequest));
-            verify(stockRepository, times(1)).findById(1L);
+            verify(stockRepository, times(1)).reserveAll(new TreeMap<>(Map.of(1L, 6)));
+            verifyNoInteractions(stockEventPublisher);
+        }
+
+        @Test
+        public void reserveStockByProductId_shouldThrowNotFound() {
+            ReserveStockRequest reserveStockRequest = new ReserveStockRequest(1);
+
+            when(stockRepository.reserveAll(new TreeMap<>(Map.of(2L, 1)))).thenReturn(List.of(2L));
+            when(stockRepository.findById(2L)).thenReturn(Optional.empty());
+
+            assertThrows(NotFoundException.class, () -> stockService.reserveStockByProductId(2L, reserveStockRequest));
+            verifyNoInteractions(stockEventPublisher);
         }
 
         @Test
         public void reserveStockByProductId_shouldReserveStock() {
             ReserveStockRequest reserveStockRequest = new ReserveStockRequest(5);
+            Stock reserved = new Stock(1L, 5, 5);
 
-            when(stockRepository.findById(1L)).thenReturn(Optional.of(stock));
+            when(stockRepository.reserveAll(new TreeMap<>(Map.of(1L, 5)))).thenReturn(List.of());
+            when(stockRepository.findById(1L)).thenReturn(Optional.of(reserved));
 
             stockService.reserveStockByProductId(1L, reserveStockRequest);
 
-            assertEquals(5, stock.getReservedQuantity());
-            verify(stockRepository, times(1)).findById(1L);
-            verify(stockRepository, times(1)).save(stock);
+            verify(stockRepository, times(1)).reserveAll(new TreeMap<>(Map.of(1L, 5)));
+            verify(stockRepository, never()).save(any(Stock.class));
+            verify(reservationAdmission, times(1)).record(1L, 0);
+            verify(stockEventPublisher, times(1)).publishStockChanged(any(StockChangedEvent.class));
+        }
+
+        @Test
+        public void reserveStockByProductId_shouldReserveOnHotCounter() {
+            when(hotStockCounters.isHot(1L)).thenReturn(true);
+            when(hotStockCounters.reserve(1L, 2)).thenReturn(true);
+            when(hotStockCounters.get(1L)).thenReturn(new Stock(1L, 5, 2));
+
+            stockService.reserveStockByProductId(1L, new ReserveStockRequest(2));
+
+            verify(stockRepository, never()).reserveAll(any());
+            verify(stockEventPublisher, times(1)).publishStockChanged(any(StockChangedEvent.class));
+        }
+
+        @Test
+        public void reserveStockByProductId_shouldThrowBadRequest_whenHotCounterIsSoldOut() {
+            when(hotStockCounters.isHot(1L)).thenReturn(true);
+            when(hotStockCounters.reserve(1L, 2)).thenReturn(false);
+
+            assertThrows(BadRequestException.class, () -> stockService.reserveStockByProductId(1L, new ReserveStockRequest(2)));
+            verifyNoInteractions(stockRepository, stockEventPublisher);
         }
     }
 
     @Nested
-    @DisplayName("reserveAllOrThrow() tests")
-    class ReserveAllOrThrow {
+    @DisplayName("reserveBatch() tests")
+    class ReserveBatch {
+        @BeforeEach
+        void setUp() {
+            when(reservationIdempotencyStore.findUnprocessed(any()))
+                    .thenAnswer(invocation -> new LinkedHashSet<Long>(invocation.getArgument(0)));
+        }
+
         @Test
-        public void reserveAllOrThrow_shouldUpdateReservedStock() {
+        public void reserveBatch_shouldReserveAllOrdersWithOneLockingQuery() {
             Stock stock1 = new Stock(1L, 10, 2);
             Stock stock2 = new Stock(2L, 15, 5);
 
-            StockReserveRequestedEvent.ReserveItem item1 = new StockReserveRequestedEvent.ReserveItem(1L, 3);
-            StockReserveRequestedEvent.ReserveItem item2 = new StockReserveRequestedEvent.ReserveItem(2L, 4);
-            StockReserveRequestedEvent event = new StockReserveRequestedEvent(1L, List.of(item1, item2));
+            StockReserveRequestedEvent event1 = new StockReserveRequestedEvent(1L, List.of(
+                    new StockReserveRequestedEvent.ReserveItem(2L, 4),
+                    new StockReserveRequestedEvent.ReserveItem(1L, 1),
+                    new StockReserveRequestedEvent.ReserveItem(1L, 2)
+            ));
+            StockReserveRequestedEvent event2 = new StockReserveRequestedEvent(2L, List.of(
+                    new StockReserveRequestedEvent.ReserveItem(1L, 5)
+            ));
 
-            when(stockRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(stock1, stock2));
+            when(stockRepository.findAllForUpdate(any())).thenReturn(List.of(stock1, stock2));
 
-            stockService.reserveAllOrThrow(event);
+            List<StockReservationFailedEvent> failures = stockService.reserveBatch(List.of(event1, event2));
 
-            assertEquals(5, stock1.getReservedQuantity());
+            assertTrue(failures.isEmpty());
+            assertEquals(10, stock1.getReservedQuantity());
             assertEquals(9, stock2.getReservedQuantity());
-            verify(stockRepository, times(1)).findAllById(List.of(1L, 2L));
 
+            ArgumentCaptor<Collection<Long>> productIds = ArgumentCaptor.captor();
+            verify(stockRepository, times(1)).findAllForUpdate(productIds.capture());
+            assertIterableEquals(List.of(1L, 2L), productIds.getValue());
+            verify(stockRepository, never()).save(any(Stock.class));
+            verify(stockEventPublisher, times(2)).publishStockChanged(any(StockChangedEvent.class));
+
+            ArgumentCaptor<List<StockReservation>> reservations = ArgumentCaptor.captor();
+            verify(stockReservationRepository, times(1)).saveAll(reservations.capture());
+            assertEquals(3, reservations.getValue().size());
+            assertEquals(3, reservations.getValue().stream().filter(reservation -> reservation.getOrderId() == 1L && reservation.getProductId() == 1L).findFirst().orElseThrow().getQuantity());
+            assertTrue(reservations.getValue().getFirst().getExpiresAt().isAfter(Instant.now().plus(Duration.ofMinutes(29))));
         }
 
         @Test
-        public void reserveAllOrThrow_shouldThrowBadRequest() {
+        public void reserveBatch_shouldRejectOnlyOrdersThatCannotBeReservedInFull() {
             Stock stock1 = new Stock(1L, 5, 1);
-            StockReserveRequestedEvent.ReserveItem item1 = new StockReserveRequestedEvent.ReserveItem(1L, 9);
-            StockReserveRequestedEvent event = new StockReserveRequestedEvent(100L, List.of(item1));
+            Stock stock2 = new Stock(2L, 3, 0);
+
+            StockReserveRequestedEvent tooLarge = new StockReserveRequestedEvent(1L, List.of(
+                    new StockReserveRequestedEvent.ReserveItem(2L, 1),
+                    new StockReserveRequestedEvent.ReserveItem(1L, 9)
+            ));
+            StockReserveRequestedEvent unknownProduct = new StockReserveRequestedEvent(2L, List.of(
+                    new StockReserveRequestedEvent.ReserveItem(3L, 1)
+            ));
+            StockReserveRequestedEvent fits = new StockReserveRequestedEvent(3L, List.of(
+                    new StockReserveRequestedEvent.ReserveItem(2L, 3)
+            ));
+
+            when(stockRepository.findAllForUpdate(any())).thenReturn(List.of(stock1, stock2));
+
+            List<StockReservationFailedEvent> failures = stockService.reserveBatch(List.of(tooLarge, unknownProduct, fits));
+
+            assertEquals(List.of(1L, 2L), failures.stream().map(StockReservationFailedEvent::getOrderId).toList());
+            assertEquals(ErrorCode.NOT_ENOUGH_STOCK_AVAILABLE.getMessage(), failures.get(0).getReason());
+            assertEquals(ErrorCode.PRODUCT_NOT_FOUND.getMessage(), failures.get(1).getReason());
+            assertEquals(1, stock1.getReservedQuantity());
+            assertEquals(3, stock2.getReservedQuantity());
+            verify(stockEventPublisher, times(1)).publishStockChanged(any(StockChangedEvent.class));
+
+            ArgumentCaptor<List<StockReservation>> reservations = ArgumentCaptor.captor();
+            verify(stockReservationRepository, times(1)).saveAll(reservations.capture());
+            assertEquals(List.of(3L), reservations.getValue().stream().map(StockReservation::getOrderId).toList());
+        }
+    }
+
+    @Nested
+    @DisplayName("reserveBatch() hot counter tests")
+    class ReserveBatchHotCounters {
+        @Test
+        public void reserveBatch_shouldReserveHotItemsOnCountersWithoutLockingTheirRows() {
+            Stock cold = new Stock(3L, 10, 0);
+            StockReserveRequestedEvent event = new StockReserveRequestedEvent(1L, List.of(
+                    new StockReserveRequestedEvent.ReserveItem(1L, 2),
+                    new StockReserveRequestedEvent.ReserveItem(3L, 4)
+            ));
+
+            when(reservationIdempotencyStore.findUnprocessed(List.of(1L))).thenReturn(new LinkedHashSet<>(List.of(1L)));
+            when(hotStockCounters.isHot(1L)).thenReturn(true);
+            when(hotStockCounters.reserve(1L, 2)).thenReturn(true);
+            when(hotStockCounters.get(1L)).thenReturn(new Stock(1L, 5, 2));
+            when(stockRepository.findAllForUpdate(any())).thenReturn(List.of(cold));
+
+            List<StockReservationFailedEvent> failures = stockService.reserveBatch(List.of(event));
+
+            assertTrue(failures.isEmpty());
+            assertEquals(4, cold.getReservedQuantity());
+
+            ArgumentCaptor<Collection<Long>> lockedProductIds = ArgumentCaptor.captor();
+            verify(stockRepository, times(1)).findAllForUpdate(lockedProductIds.capture());
+            assertIterableEquals(List.of(3L), lockedProductIds.getValue());
+            verify(stockEventPublisher, times(2)).publishStockChanged(any(StockChangedEvent.class));
+        }
+
+        @Test
+        public void reserveBatch_shouldReleaseHotItems_whenAnotherHotItemOfTheOrderIsSoldOut() {
+            StockReserveRequestedEvent event = new StockReserveRequestedEvent(1L, List.of(
+                    new StockReserveRequestedEvent.ReserveItem(1L, 2),
+                    new StockReserveRequestedEvent.ReserveItem(2L, 4)
+            ));
+
+            when(reservationIdempotencyStore.findUnprocessed(List.of(1L))).thenReturn(new LinkedHashSet<>(List.of(1L)));
+            when(hotStockCounters.isHot(anyLong())).thenReturn(true);
+            when(hotStockCounters.reserve(1L, 2)).thenReturn(true);
+            when(hotStockCounters.reserve(2L, 4)).thenReturn(false);
+
+            List<StockReservationFailedEvent> failures = stockService.reserveBatch(List.of(event));
+
+            assertEquals(ErrorCode.NOT_ENOUGH_STOCK_AVAILABLE.getMessage(), failures.getFirst().getReason());
+            verify(hotStockCounters, times(1)).release(1L, 2);
+            verifyNoInteractions(stockEventPublisher);
+        }
+    }
+
+    @Nested
+    @DisplayName("reserveBatch() idempotency tests")
+    class ReserveBatchIdempotency {
+        @Test
+        public void reserveBatch_shouldSkipAlreadyProcessedAndDuplicatedOrders() {
+            Stock stock1 = new Stock(1L, 10, 0);
+
+            StockReserveRequestedEvent processed = new StockReserveRequestedEvent(1L, List.of(
+                    new StockReserveRequestedEvent.ReserveItem(1L, 2)
+            ));
+            StockReserveRequestedEvent fresh = new StockReserveRequestedEvent(2L, List.of(
+                    new StockReserveRequestedEvent.ReserveItem(1L, 3)
+            ));
+
+            when(reservationIdempotencyStore.findUnprocessed(List.of(1L, 2L, 2L))).thenReturn(new LinkedHashSet<>(List.of(2L)));
+            when(stockRepository.findAllForUpdate(any())).thenReturn(List.of(stock1));
+
+            List<StockReservationFailedEvent> failures = stockService.reserveBatch(List.of(processed, fresh, fresh));
+
+            assertTrue(failures.isEmpty());
+            assertEquals(3, stock1.getReservedQuantity());
+            verify(reservationIdempotencyStore, times(1)).markProcessed(List.of(2L));
+        }
+
+        @Test
+        public void reserveBatch_shouldDoNothing_whenAllOrdersWereProcessed() {
+            StockReserveRequestedEvent processed = new StockReserveRequestedEvent(1L, List.of(
+                    new StockReserveRequestedEvent.ReserveItem(1L, 2)
+            ));
+
+            when(reservationIdempotencyStore.findUnprocessed(List.of(1L))).thenReturn(new LinkedHashSet<>());
+
+            assertTrue(stockService.reserveBatch(List.of(processed)).isEmpty());
+            verifyNoInteractions(stockRepository, stockReservationRepository, stockEventPublisher);
+            verify(reservationIdempotencyStore, never()).markProcessed(any());
+        }
+    }
+
+    @Nested
+    @DisplayName("reserveItems() tests")
+    class ReserveItems {
+        @Test
+        public void reserveItems_shouldReserveEachItemAndReportPerItemResults() {
+            Stock stock1 = new Stock(1L, 5, 0);
+
+            when(reservationIdempotencyStore.findUnprocessed(List.of(1L, 2L))).thenReturn(new LinkedHashSet<>(List.of(1L, 2L)));
+            when(stockReservationRepository.findAllByOrderIdIn(Set.of(1L, 2L))).thenReturn(List.of());
+            when(stockRepository.findAllForUpdate(any())).thenReturn(List.of(stock1));
+
+            List<StockItemReservationResultEvent> results = stockService.reserveItems(List.of(
+                    new StockItemReserveRequestedEvent(1L, 1L, 4),
+                    new StockItemReserveRequestedEvent(2L, 1L, 2)
+            ));
+
+            assertEquals(2, results.size());
+            assertTrue(results.get(0).isReserved());
+            assertFalse(results.get(1).isReserved());
+            assertEquals(ErrorCode.NOT_ENOUGH_STOCK_AVAILABLE.getMessage(), results.get(1).getReason());
+            assertEquals(4, stock1.getReservedQuantity());
+            verify(stockRepository, times(1)).findAllForUpdate(any());
+            verify(reservationIdempotencyStore, never()).markProcessed(any());
+
+            ArgumentCaptor<List<StockReservation>> reservations = ArgumentCaptor.captor();
+            verify(stockReservationRepository, times(1)).saveAll(reservations.capture());
+            assertEquals(List.of(1L), reservations.getValue().stream().map(StockReservation::getOrderId).toList());
+        }
+
+        @Test
+        public void reserveItems_shouldAcknowledgeHeldItemsAndDropClosedOrders() {
+            when(reservationIdempotencyStore.findUnprocessed(List.of(1L, 2L))).thenReturn(new LinkedHashSet<>(List.of(1L)));
+            when(stockReservationRepository.findAllByOrderIdIn(Set.of(1L)))
+                    .thenReturn(List.of(new StockReservation(1L, 1L, 3L, 2, Instant.now())));
+
+            List<StockItemReservationResultEvent> results = stockService.reserveItems(List.of(
+                    new StockItemReserveRequestedEvent(1L, 3L, 2),
+                    new StockItemReserveRequestedEvent(1L, 3L, 2),
+                    new StockItemReserveRequestedEvent(2L, 3L, 1)
+            ));
+
+            assertEquals(1, results.size());
+            assertEquals(1L, results.getFirst().getOrderId());
+            assertTrue(results.getFirst().isReserved());
+            verifyNoInteractions(stockRepository, stockEventPublisher);
+        }
+
+        @Test
+        public void reserveItems_shouldDoNothing_whenAllOrdersAreClosed() {
+            when(reservationIdempotencyStore.findUnprocessed(List.of(1L))).thenReturn(new LinkedHashSet<>());
+
+            assertTrue(stockService.reserveItems(List.of(new StockItemReserveRequestedEvent(1L, 1L, 1))).isEmpty());
+            verifyNoInteractions(stockRepository, stockReservationRepository, stockEventPublisher);
+        }
+    }
+
+    @Nested
+    @DisplayName("releaseReservation() tests")
+    class ReleaseReservation {
+        @Test
+        public void releaseReservation_shouldReleaseHeldQuantitiesAndDeleteHolds() {
+            Stock stock1 = new Stock(1L, 10, 7);
+            Stock stock2 = new Stock(2L, 5, 2);
+            List<StockReservation> reservations = List.of(
+                    new StockReservation(1L, 10L, 2L, 2, Instant.now()),
+                    new StockReservation(2L, 10L, 1L, 4, Instant.now())
+            );
+
+            when(stockReservationRepository.findAllByOrderIdForUpdate(10L)).thenReturn(reservations);
+            when(stockRepository.findAllForUpdate(any())).thenReturn(List.of(stock1, stock2));
+
+            stockService.releaseReservation(10L);
+
+            assertEquals(3, stock1.getReservedQuantity());
+            assertEquals(0, stock2.getReservedQuantity());
+            verify(stockReservationRepository, times(1)).deleteAllInBatch(reservations);
+            verify(stockEventPublisher, times(2)).publishStockChanged(any(StockChangedEvent.class));
+            verify(reservationIdempotencyStore, times(1)).markClosed(10L);
+        }
+
+        @Test
+        public void releaseReservation_shouldDoNothing_whenOrderHoldsNothing() {
+            when(stockReservationRepository.findAllByOrderIdForUpdate(10L)).thenReturn(List.of());
+
+            stockService.releaseReservation(10L);
+
+            verifyNoInteractions(stockRepository, stockEventPublisher);
+            verify(stockReservationRepository, never()).deleteAllInBatch(any());
+        }
+    }
+
+    @Nested
+    @DisplayName("confirmReservation() tests")
+    class ConfirmReservation {
+        @Test
+        public void confirmReservation_shouldKeepHoldsWithoutReleasingStock() {
+            stockService.confirmReservation(10L);
+
+            verify(stockReservationRepository, times(1)).confirmAllByOrderId(10L);
+            verify(stockReservationRepository, never()).deleteAllInBatch(any());
+            verifyNoInteractions(stockRepository, stockEventPublisher, reservationIdempotencyStore);
+        }
+    }
+
+    @Nested
+    @DisplayName("releaseExpiredReservations() tests")
+    class ReleaseExpiredReservations {
+        @Test
+        public void releaseExpiredReservations_shouldReleaseAndReturnExpiredHolds() {
+            Instant now = Instant.now();
+            Stock stock1 = new Stock(1L, 10, 4);
+            List<StockReservation> expired = List.of(new StockReservation(1L, 10L, 1L, 4, now.minusSeconds(1)));
+
+            when(stockReservationRepository.findExpiredForUpdate(now, 500)).thenReturn(expired);
+            when(stockRepository.findAllForUpdate(any())).thenReturn(List.of(stock1));
 
-            when(stockRepository.findAllById(List.of(1L))).thenReturn(List.of(stock1));
+            List<StockReservation> result = stockService.releaseExpiredReservations(now, 500);
 
-            assertThrows(BadRequestException.class, () -> stockService.reserveAllOrThrow(event));
-            verify(stockRepository, times(1)).findAllById(List.of(1L));
+            assertEquals(expired, result);
+            assertEquals(0, stock1.getReservedQuantity());
+            verify(stockReservationRepository, times(1)).deleteAllInBatch(expired);
         }
     }
-}
\ No newline at end of file
+}
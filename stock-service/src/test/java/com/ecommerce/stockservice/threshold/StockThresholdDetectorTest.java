@@ -0,0 +1,38 @@
+package com.ecommerce.stockservice.threshold;
+
+import com.ecommerce.stockservice.kafka.event.StockThresholdCrossedEvent.Level;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StockThresholdDetectorTest {
+
+    private final StockThresholdDetector stockThresholdDetector = new StockThresholdDetector(5);
+
+    @Test
+    void detect_shouldReportOnlyLevelChanges() {
+        assertEquals(Level.IN_STOCK, stockThresholdDetector.detect(1L, 10));
+        assertNull(stockThresholdDetector.detect(1L, 5));
+        assertEquals(Level.LOW_STOCK, stockThresholdDetector.detect(1L, 4));
+        assertNull(stockThresholdDetector.detect(1L, 1));
+        assertEquals(Level.SOLD_OUT, stockThresholdDetector.detect(1L, 0));
+        assertNull(stockThresholdDetector.detect(1L, 0));
+        assertEquals(Level.IN_STOCK, stockThresholdDetector.detect(1L, 8));
+    }
+
+    @Test
+    void detect_shouldReportEveryLevel_whenProductIsSeenForTheFirstTime() {
+        assertEquals(Level.SOLD_OUT, stockThresholdDetector.detect(1L, 0));
+        assertEquals(Level.LOW_STOCK, stockThresholdDetector.detect(2L, 3));
+        assertEquals(Level.IN_STOCK, stockThresholdDetector.detect(3L, 7));
+    }
+
+    @Test
+    void detect_shouldCompareWithLoadedLevel() {
+        stockThresholdDetector.load(1L, 3);
+        stockThresholdDetector.load(2L, 0);
+
+        assertNull(stockThresholdDetector.detect(1L, 2));
+        assertEquals(Level.IN_STOCK, stockThresholdDetector.detect(2L, 6));
+    }
+}
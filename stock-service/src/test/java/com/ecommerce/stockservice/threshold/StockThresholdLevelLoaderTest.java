@@ -0,0 +1,54 @@
+package com.ecommerce.stockservice.threshold;
+
+import com.ecommerce.stockservice.counter.HotStockCounters;
+import com.ecommerce.stockservice.kafka.event.StockThresholdCrossedEvent.Level;
+import com.ecommerce.stockservice.model.Stock;
+import com.ecommerce.stockservice.repository.StockRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StockThresholdLevelLoaderTest {
+
+    @Mock
+    private StockRepository stockRepository;
+
+    @Mock
+    private HotStockCounters hotStockCounters;
+
+    private final StockThresholdDetector stockThresholdDetector = new StockThresholdDetector(5);
+
+    private StockThresholdLevelLoader stockThresholdLevelLoader;
+
+    @BeforeEach
+    void setUp() {
+        stockThresholdLevelLoader = new StockThresholdLevelLoader(stockRepository, hotStockCounters, stockThresholdDetector);
+    }
+
+    @Test
+    void afterSingletonsInstantiated_shouldLoadStoredLevelsSoUnchangedLevelsAreNotReportedAgain() {
+        when(stockRepository.findProductIdsAfter(eq(0L), any(Pageable.class))).thenReturn(List.of(1L, 2L));
+        when(stockRepository.findProductIdsAfter(eq(2L), any(Pageable.class))).thenReturn(List.of());
+        when(stockRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(new Stock(1L, 5, 2), new Stock(2L, 9, 0)));
+        when(hotStockCounters.isHot(1L)).thenReturn(false);
+        when(hotStockCounters.isHot(2L)).thenReturn(true);
+        when(hotStockCounters.get(2L)).thenReturn(new Stock(2L, 9, 9));
+
+        stockThresholdLevelLoader.afterSingletonsInstantiated();
+
+        assertNull(stockThresholdDetector.detect(1L, 2));
+        assertNull(stockThresholdDetector.detect(2L, 0));
+        assertEquals(Level.IN_STOCK, stockThresholdDetector.detect(1L, 6));
+    }
+}